@@ -0,0 +1,22 @@
+-- Migration script for runtime audit policy overrides
+-- One row per event type whose recording policy differs from audit.policy.events. Every node
+-- reloads this table every audit.policy.reload-interval, so changes apply without a restart.
+-- Security-critical event types are always recorded, whatever a row says.
+-- Note: Hibernate (ddl-auto: update) creates the table from the AuditEventPolicy entity;
+-- this script is provided for manual creation or troubleshooting
+
+CREATE TABLE audit_event_policies (
+    event_type VARCHAR2(50 CHAR) NOT NULL PRIMARY KEY,
+    policy_mode VARCHAR2(20 CHAR) NOT NULL,
+    sample_percent NUMBER(5,2),
+    updated_by VARCHAR2(255 CHAR),
+    updated_at TIMESTAMP
+);
+
+-- Example: record 1% of received-message events on every node
+-- INSERT INTO audit_event_policies (event_type, policy_mode, sample_percent, updated_by, updated_at)
+-- VALUES ('CHAT_MESSAGE_RECEIVED', 'SAMPLE', 1, 'dba', CURRENT_TIMESTAMP);
+-- COMMIT;
+
+-- Verify
+SELECT event_type, policy_mode, sample_percent, updated_by, updated_at FROM audit_event_policies;
@@ -0,0 +1,29 @@
+-- Migration script for the event weight of sampled and aggregated audit_log rows
+-- A sampled row stands for 100 / percent events and an aggregate row for the count in its new_value.
+-- The hourly rollup sums event_weight (NULL counts as 1) so audit_log_hourly_counts holds event
+-- counts rather than row counts for event types that are not recorded one row per event.
+-- Note: Hibernate (ddl-auto: update) adds this column automatically;
+-- this script is provided for manual creation and for backfilling existing rows
+
+-- Step 1: Add the weight column
+ALTER TABLE audit_log ADD (
+    event_weight NUMBER
+);
+
+-- Step 2: Backfill aggregate rows from the count in their new_value
+UPDATE audit_log SET event_weight = TO_NUMBER(JSON_VALUE(new_value, '$.count'))
+WHERE entity_type = 'AuditAggregate' AND event_weight IS NULL;
+
+-- Sampled rows only record their rate in the description ("[sampled 10%]"); backfill them per rate, e.g.
+-- UPDATE audit_log SET event_weight = 10
+-- WHERE description LIKE '%[sampled 10\%]' ESCAPE '\' AND event_weight IS NULL;
+
+COMMIT;
+
+-- Step 3: Recompute the hourly counts of the backfilled hours with audit.rollup.backfill-on-startup
+
+-- Step 4: Verify
+SELECT event_type, COUNT(*) AS row_count, SUM(NVL(event_weight, 1)) AS event_count
+FROM audit_log
+WHERE created_at >= SYSTIMESTAMP - INTERVAL '1' DAY
+GROUP BY event_type;
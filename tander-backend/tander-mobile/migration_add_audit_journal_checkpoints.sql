@@ -0,0 +1,15 @@
+-- Migration script for the local audit journal
+-- Each node appends audit entries to a local journal and ships them to audit_log in batches. The
+-- journal offset after each batch is stored here in the same transaction as the batch, so a restart
+-- continues exactly after the last shipped entry. One row per journal (journal.id in the journal directory).
+-- Note: Hibernate (ddl-auto: update) creates the table from the AuditJournalCheckpoint entity;
+-- this script is provided for manual creation or troubleshooting
+
+CREATE TABLE audit_journal_checkpoints (
+    journal_id VARCHAR2(36) NOT NULL PRIMARY KEY,
+    shipped_offset NUMBER(19) NOT NULL,
+    updated_at TIMESTAMP
+);
+
+-- Verify the table
+SELECT journal_id, shipped_offset, updated_at FROM audit_journal_checkpoints;
@@ -0,0 +1,27 @@
+-- Migration script for per-device delivery cursors
+-- Each device remembers the highest message id it acknowledged. On reconnect it is sent every
+-- message received after that id (plus older ones still undelivered) on /user/queue/catch-up.
+-- Note: Hibernate (ddl-auto: update) creates the table and indexes from the ChatDeliveryCursor and
+-- ChatMessage entities; this script is provided for manual creation or troubleshooting
+
+-- Step 1: Create the cursor sequence (allocation size matches tander.id.allocation_size)
+CREATE SEQUENCE chat_delivery_cursor_seq START WITH 1 INCREMENT BY 50;
+
+-- Step 2: Create the cursor table, one row per user and device
+CREATE TABLE chat_delivery_cursors (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    user_id NUMBER(19) NOT NULL,
+    device_id VARCHAR2(100) NOT NULL,
+    last_delivered_message_id NUMBER(19) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_chat_delivery_cursor_device UNIQUE (user_id, device_id)
+);
+
+-- Step 3: Index the catch-up query, which reads a user's received messages by id
+CREATE INDEX idx_chat_msg_receiver_id ON chat_messages(receiver_id, id);
+
+-- Step 4: Verify
+SELECT index_name, column_name, column_position
+FROM user_ind_columns
+WHERE index_name IN ('IDX_CHAT_MSG_RECEIVER_ID', 'UK_CHAT_DELIVERY_CURSOR_DEVICE')
+ORDER BY index_name, column_position;
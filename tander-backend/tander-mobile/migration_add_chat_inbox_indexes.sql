@@ -0,0 +1,18 @@
+-- Migration script for the single-query conversation inbox
+-- GET /chat/conversations now loads every conversation, its last message preview and the
+-- caller's unread count in one statement. These indexes keep the per-conversation subqueries
+-- and the participant lookup as index range scans.
+-- Note: Hibernate (ddl-auto: update) creates these indexes from the entities;
+-- this script is provided for manual creation or troubleshooting
+
+-- Step 1: Participant lookups (Oracle does not index foreign key columns automatically)
+CREATE INDEX idx_conversation_user1 ON conversations(user1_id, last_message_at);
+CREATE INDEX idx_conversation_user2 ON conversations(user2_id, last_message_at);
+
+-- Step 2: Unread counter subquery
+CREATE INDEX idx_chat_msg_conv_unread ON chat_messages(conversation_id, receiver_id, status);
+
+-- Step 3: Verify the indexes were created
+SELECT index_name, table_name
+FROM user_indexes
+WHERE index_name IN ('IDX_CONVERSATION_USER1', 'IDX_CONVERSATION_USER2', 'IDX_CHAT_MSG_CONV_UNREAD');
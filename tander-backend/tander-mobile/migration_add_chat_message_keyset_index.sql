@@ -0,0 +1,18 @@
+-- Migration script for keyset-paginated chat history
+-- GET /chat/conversations/{id}/messages?before=&limit= pages backwards through a conversation
+-- ordered by (sent_at, id). This composite index lets Oracle answer each page with a
+-- bounded index range scan instead of sorting the whole conversation.
+-- Note: Hibernate (ddl-auto: update) creates this index from the ChatMessage entity;
+-- this script is provided for manual creation or troubleshooting
+
+-- Step 1: Create the composite index
+CREATE INDEX idx_chat_msg_conv_keyset ON chat_messages(conversation_id, is_deleted, sent_at, id);
+
+-- Step 2: Refresh optimizer statistics so the new index is picked up immediately
+-- EXEC DBMS_STATS.GATHER_TABLE_STATS(USER, 'CHAT_MESSAGES');
+
+-- Step 3: Verify the index was created
+SELECT index_name, column_name, column_position
+FROM user_ind_columns
+WHERE index_name = 'IDX_CHAT_MSG_CONV_KEYSET'
+ORDER BY column_position;
@@ -0,0 +1,19 @@
+-- Migration script for the catch-up straggler pass
+-- On reconnect, catch-up first sends undelivered (SENT) messages with an id below the device's
+-- cursor, since pooled sequence ids are only roughly ordered across nodes. Without this index that
+-- pass range-scans idx_chat_msg_receiver_id over the user's whole received history on every reconnect;
+-- with it, Oracle reads only the receiver's SENT rows.
+-- Note: Hibernate (ddl-auto: update) creates this index from the ChatMessage entity;
+-- this script is provided for manual creation or troubleshooting
+
+-- Step 1: Create the composite index
+CREATE INDEX idx_chat_msg_receiver_status ON chat_messages(receiver_id, status, id);
+
+-- Step 2: Refresh optimizer statistics so the new index is picked up immediately
+-- EXEC DBMS_STATS.GATHER_TABLE_STATS(USER, 'CHAT_MESSAGES');
+
+-- Step 3: Verify the index was created
+SELECT index_name, column_name, column_position
+FROM user_ind_columns
+WHERE index_name = 'IDX_CHAT_MSG_RECEIVER_STATUS'
+ORDER BY column_position;
@@ -0,0 +1,27 @@
+-- Migration script for send-time read watermarks on conversations
+-- Message ids come from pooled sequence blocks held per node (and by the write-behind allocator),
+-- so a later message can have a lower id. markMessagesAsRead now marks messages READ up to the
+-- send time of the conversation's last message, and each participant's watermark moves forward
+-- on that send time. The last-read message id is kept alongside it.
+-- Note: Hibernate (ddl-auto: update) adds these columns automatically;
+-- this script is provided for manual creation and for backfilling existing rows
+
+-- Step 1: Add the watermark columns
+ALTER TABLE conversations ADD (
+    user1_last_read_at TIMESTAMP,
+    user2_last_read_at TIMESTAMP
+);
+
+-- Step 2: Backfill from the send time of the message each watermark points to
+UPDATE conversations c SET
+    user1_last_read_at = (SELECT m.sent_at FROM chat_messages m WHERE m.id = c.user1_last_read_message_id),
+    user2_last_read_at = (SELECT m.sent_at FROM chat_messages m WHERE m.id = c.user2_last_read_message_id)
+WHERE c.user1_last_read_message_id IS NOT NULL OR c.user2_last_read_message_id IS NOT NULL;
+
+COMMIT;
+
+-- Step 3: Verify the backfill
+SELECT id, last_message_at, user1_last_read_at, user2_last_read_at
+FROM conversations
+ORDER BY last_message_at DESC
+FETCH FIRST 10 ROWS ONLY;
@@ -0,0 +1,30 @@
+-- Migration script for per-participant read watermarks on conversations
+-- markMessagesAsRead now runs a single bulk UPDATE on chat_messages and records the id of the
+-- newest message each participant has read, so read receipts no longer depend on per-message scans.
+-- Note: Hibernate (ddl-auto: update) adds these columns automatically;
+-- this script is provided for manual creation and for backfilling existing rows
+
+-- Step 1: Add the watermark columns
+ALTER TABLE conversations ADD (
+    user1_last_read_message_id NUMBER(19,0),
+    user2_last_read_message_id NUMBER(19,0)
+);
+
+-- Step 2: Backfill from the newest message each participant has already read
+UPDATE conversations c SET
+    user1_last_read_message_id = (
+        SELECT MAX(m.id) FROM chat_messages m
+        WHERE m.conversation_id = c.id AND m.receiver_id = c.user1_id AND m.status = 'READ'
+    ),
+    user2_last_read_message_id = (
+        SELECT MAX(m.id) FROM chat_messages m
+        WHERE m.conversation_id = c.id AND m.receiver_id = c.user2_id AND m.status = 'READ'
+    );
+
+COMMIT;
+
+-- Step 3: Verify the backfill
+SELECT id, last_message_id, user1_last_read_message_id, user2_last_read_message_id
+FROM conversations
+ORDER BY last_message_at DESC
+FETCH FIRST 10 ROWS ONLY;
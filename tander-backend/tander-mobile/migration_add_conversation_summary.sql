@@ -0,0 +1,45 @@
+-- Migration script for denormalized conversation summary columns
+-- The inbox (GET /chat/conversations) reads the last message preview and unread counters
+-- straight from the conversations row. ChatServiceImpl keeps them up to date on send, read and delete.
+-- Note: Hibernate (ddl-auto: update) adds these columns automatically;
+-- this script is provided for manual creation and for the one-off backfill of existing rows
+-- (alternatively set chat.summary.backfill-on-startup: true for one startup)
+
+-- Step 1: Add the summary columns
+ALTER TABLE conversations ADD (
+    last_message_id NUMBER(19,0),
+    last_message_preview VARCHAR2(255 CHAR),
+    user1_unread NUMBER(19,0) DEFAULT 0,
+    user2_unread NUMBER(19,0) DEFAULT 0
+);
+
+-- Step 2: Backfill the last message of every conversation
+UPDATE conversations c SET (last_message_id, last_message_preview) = (
+    SELECT m.id, DBMS_LOB.SUBSTR(m.content, 255, 1)
+    FROM chat_messages m
+    WHERE m.id = (
+        SELECT MAX(m2.id) FROM chat_messages m2
+        WHERE m2.conversation_id = c.id AND m2.is_deleted = 0
+    )
+);
+
+-- Step 3: Backfill the unread counters of both participants
+UPDATE conversations c SET
+    user1_unread = (
+        SELECT COUNT(*) FROM chat_messages m
+        WHERE m.conversation_id = c.id AND m.receiver_id = c.user1_id
+          AND m.status <> 'READ' AND m.is_deleted = 0
+    ),
+    user2_unread = (
+        SELECT COUNT(*) FROM chat_messages m
+        WHERE m.conversation_id = c.id AND m.receiver_id = c.user2_id
+          AND m.status <> 'READ' AND m.is_deleted = 0
+    );
+
+COMMIT;
+
+-- Step 4: Verify the backfill
+SELECT id, last_message_id, last_message_preview, user1_unread, user2_unread
+FROM conversations
+ORDER BY last_message_at DESC
+FETCH FIRST 10 ROWS ONLY;
@@ -0,0 +1,60 @@
+-- Migration script for group conversations
+-- Groups are separate from the 1:1 conversations: one row per group, one per member, and each
+-- message stored once. Read state is a per-member watermark (last_read_message_id), so a message
+-- sent to a group of N members writes one message row, not N status rows.
+-- Note: Hibernate (ddl-auto: update) creates the tables and indexes from the GroupConversation,
+-- GroupMember and GroupMessage entities; this script is provided for manual creation or troubleshooting
+
+-- Step 1: Create the sequences (allocation size matches tander.id.allocation_size)
+CREATE SEQUENCE group_conversation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE group_member_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE group_message_seq START WITH 1 INCREMENT BY 50;
+
+-- Step 2: Create the group table with its inbox summary columns
+CREATE TABLE group_conversations (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    name VARCHAR2(100) NOT NULL,
+    created_by NUMBER(19) NOT NULL,
+    created_at TIMESTAMP,
+    last_message_at TIMESTAMP,
+    last_message_id NUMBER(19),
+    last_message_preview VARCHAR2(255),
+    member_count NUMBER(10),
+    is_active NUMBER(1),
+    CONSTRAINT fk_group_created_by FOREIGN KEY (created_by) REFERENCES users(id)
+);
+
+-- Step 3: Create the member table, one row per user and group
+CREATE TABLE group_members (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    group_id NUMBER(19) NOT NULL,
+    user_id NUMBER(19) NOT NULL,
+    role VARCHAR2(20) NOT NULL,
+    joined_at TIMESTAMP,
+    last_read_message_id NUMBER(19),
+    CONSTRAINT uk_group_member UNIQUE (group_id, user_id),
+    CONSTRAINT fk_group_member_group FOREIGN KEY (group_id) REFERENCES group_conversations(id),
+    CONSTRAINT fk_group_member_user FOREIGN KEY (user_id) REFERENCES users(id)
+);
+
+-- Step 4: Create the message table
+CREATE TABLE group_messages (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    group_id NUMBER(19) NOT NULL,
+    sender_id NUMBER(19) NOT NULL,
+    content CLOB,
+    sent_at TIMESTAMP,
+    is_deleted NUMBER(1),
+    CONSTRAINT fk_group_msg_group FOREIGN KEY (group_id) REFERENCES group_conversations(id),
+    CONSTRAINT fk_group_msg_sender FOREIGN KEY (sender_id) REFERENCES users(id)
+);
+
+-- Step 5: Indexes for the inbox (a user's groups), history pages and unread counts
+CREATE INDEX idx_group_member_user ON group_members(user_id, group_id);
+CREATE INDEX idx_group_msg_group_id ON group_messages(group_id, id);
+
+-- Step 6: Verify
+SELECT index_name, column_name, column_position
+FROM user_ind_columns
+WHERE index_name IN ('IDX_GROUP_MEMBER_USER', 'IDX_GROUP_MSG_GROUP_ID', 'UK_GROUP_MEMBER')
+ORDER BY index_name, column_position;
@@ -0,0 +1,28 @@
+-- Migration script for send-time ordering of group messages
+-- Message ids come from pooled sequence blocks held per node, so a later group message can have a
+-- lower id. History pages are now ordered by (sent_at, id), and each member's read watermark is the
+-- (sent_at, id) of the last message read; unread counts compare against that pair.
+-- Note: Hibernate (ddl-auto: update) adds the column and index automatically;
+-- this script is provided for manual creation and for backfilling existing rows
+
+-- Step 1: Add the watermark column
+ALTER TABLE group_members ADD (
+    last_read_at TIMESTAMP
+);
+
+-- Step 2: Backfill from the send time of the message each watermark points to
+UPDATE group_members gm SET
+    last_read_at = (SELECT m.sent_at FROM group_messages m WHERE m.id = gm.last_read_message_id)
+WHERE gm.last_read_message_id IS NOT NULL;
+
+COMMIT;
+
+-- Step 3: Replace the id index with a keyset index for history pages and unread counts
+CREATE INDEX idx_group_msg_keyset ON group_messages(group_id, is_deleted, sent_at, id);
+DROP INDEX idx_group_msg_group_id;
+
+-- Step 4: Verify
+SELECT index_name, column_name, column_position
+FROM user_ind_columns
+WHERE index_name = 'IDX_GROUP_MSG_KEYSET'
+ORDER BY column_position;
@@ -0,0 +1,22 @@
+-- Migration script for sequence-generated chat message ids
+-- ChatMessage ids now come from chat_message_seq with a pooled-lo optimizer (increment 50), so
+-- Hibernate can batch inserts and the write-behind writer can allocate ids before the row exists.
+-- Note: ddl-auto: update creates the sequence on an empty schema, but it will not drop the
+-- existing identity column or start the sequence above existing ids; run this script first
+
+-- Step 1: Create the sequence above the current maximum id
+DECLARE
+    v_start NUMBER;
+BEGIN
+    SELECT NVL(MAX(id), 0) + 1 INTO v_start FROM chat_messages;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE chat_message_seq START WITH ' || v_start || ' INCREMENT BY 50 NOCACHE';
+END;
+/
+
+-- Step 2: Stop generating ids in the table (ids are always supplied by the application now)
+ALTER TABLE chat_messages MODIFY (id DROP IDENTITY);
+
+-- Step 3: Verify
+SELECT sequence_name, last_number, increment_by
+FROM user_sequences
+WHERE sequence_name = 'CHAT_MESSAGE_SEQ';
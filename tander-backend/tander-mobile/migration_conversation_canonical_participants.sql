@@ -0,0 +1,41 @@
+-- Migration script for canonical conversation participants
+-- Conversations are now stored with user1_id < user2_id and a unique constraint on the pair, so the
+-- lookup between two users is a single index probe and concurrent first messages cannot create
+-- duplicate conversations.
+-- Note: Hibernate (ddl-auto: update) will try to add the unique constraint itself and fails while
+-- duplicates exist; run this script before deploying.
+
+-- Step 1: Swap participants stored in the wrong order (Oracle reads the old values on the right-hand side)
+UPDATE conversations SET
+    user1_id = user2_id,
+    user2_id = user1_id,
+    user1_unread = user2_unread,
+    user2_unread = user1_unread,
+    user1_last_read_message_id = user2_last_read_message_id,
+    user2_last_read_message_id = user1_last_read_message_id
+WHERE user1_id > user2_id;
+
+-- Step 2: Merge duplicate conversations into the oldest one per pair
+UPDATE chat_messages m SET conversation_id = (
+    SELECT MIN(k.id) FROM conversations k, conversations d
+    WHERE d.id = m.conversation_id AND k.user1_id = d.user1_id AND k.user2_id = d.user2_id
+)
+WHERE m.conversation_id IN (
+    SELECT c.id FROM conversations c
+    WHERE c.id > (SELECT MIN(k.id) FROM conversations k WHERE k.user1_id = c.user1_id AND k.user2_id = c.user2_id)
+);
+
+DELETE FROM conversations c
+WHERE c.id > (SELECT MIN(k.id) FROM conversations k WHERE k.user1_id = c.user1_id AND k.user2_id = c.user2_id);
+
+COMMIT;
+
+-- Step 3: Add the unique constraint (its index also serves the participant lookup)
+ALTER TABLE conversations ADD CONSTRAINT uk_conversation_participants UNIQUE (user1_id, user2_id);
+
+-- Step 4: Recompute summaries of merged conversations
+-- Start once with chat.summary.backfill-on-startup: true, or wait for the nightly consistency check.
+
+-- Step 5: Verify (expect no rows)
+SELECT user1_id, user2_id, COUNT(*) FROM conversations GROUP BY user1_id, user2_id HAVING COUNT(*) > 1;
+SELECT id FROM conversations WHERE user1_id > user2_id;
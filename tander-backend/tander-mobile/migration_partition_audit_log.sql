@@ -0,0 +1,54 @@
+-- Migration script for time-partitioned audit_log storage and the hourly rollup table
+-- audit_log becomes a range-partitioned table with one partition per month (Oracle interval
+-- partitioning, 12.2+ for the online conversion). Queries by time range read only the partitions
+-- they cover, and old months can be dropped as a whole instead of deleted row by row.
+-- Note: Hibernate (ddl-auto: update) creates the composite indexes and the rollup table from the
+-- AuditLog and AuditLogHourlyCount entities, but never partitions: the test profile (H2) and fresh
+-- ddl-auto schemas use a plain audit_log table with the same indexes. Partitioning is applied here only.
+
+-- Step 1: Drop the single-column indexes the composite indexes of step 3 replace (same leading column),
+-- so every insert maintains three fewer indexes
+DROP INDEX idx_audit_log_user_id;
+DROP INDEX idx_audit_log_event_type;
+DROP INDEX idx_audit_log_status;
+
+-- Step 2: Convert audit_log to monthly interval partitions, online
+-- The primary key index (id) stays global; the created_at indexes become local to each partition.
+-- If Hibernate has already created idx_audit_log_*_created, add them to the UPDATE INDEXES list
+-- (as LOCAL) and skip step 3
+ALTER TABLE audit_log MODIFY
+    PARTITION BY RANGE (created_at) INTERVAL (NUMTOYMINTERVAL(1, 'MONTH'))
+    (PARTITION audit_log_p0 VALUES LESS THAN (TIMESTAMP '2024-01-01 00:00:00'))
+    ONLINE
+    UPDATE INDEXES (idx_audit_log_created_at LOCAL);
+
+-- Step 3: Composite indexes for the per-user, per-event-type and per-status range queries
+CREATE INDEX idx_audit_log_user_created ON audit_log(user_id, created_at) LOCAL;
+CREATE INDEX idx_audit_log_event_created ON audit_log(event_type, created_at) LOCAL;
+CREATE INDEX idx_audit_log_status_created ON audit_log(status, created_at) LOCAL;
+
+-- Step 4: Create the hourly rollup table (allocation size matches tander.id.allocation_size)
+CREATE SEQUENCE audit_log_hourly_count_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE audit_log_hourly_counts (
+    id NUMBER(19) NOT NULL PRIMARY KEY,
+    bucket_start TIMESTAMP NOT NULL,
+    event_type VARCHAR2(50 CHAR) NOT NULL,
+    status VARCHAR2(20 CHAR) NOT NULL,
+    event_count NUMBER(19) NOT NULL,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_audit_hourly_bucket UNIQUE (bucket_start, event_type, status)
+);
+
+-- Step 5: Verify
+SELECT partition_name, high_value, interval
+FROM user_tab_partitions
+WHERE table_name = 'AUDIT_LOG'
+ORDER BY partition_position;
+
+SELECT index_name, locality
+FROM user_part_indexes
+WHERE table_name = 'AUDIT_LOG';
+
+-- Retention: drop a month that is past the retention period (example for January 2024)
+-- ALTER TABLE audit_log DROP PARTITION FOR (TIMESTAMP '2024-01-15 00:00:00') UPDATE GLOBAL INDEXES;
@@ -0,0 +1,40 @@
+-- Migration script for pooled sequence ids on conversations and audit_log
+-- Conversation and AuditLog ids now come from sequences with a pooled-lo optimizer, like chat_messages
+-- (migration_chat_messages_sequence.sql). Hibernate fetches one sequence value per block of ids instead
+-- of one IDENTITY round trip per row, which also lets it batch inserts.
+-- Note: ddl-auto: update will not drop the identity columns or start the sequences above existing ids;
+-- run this script before deploying.
+--
+-- INCREMENT BY must equal spring.jpa.properties.tander.id.allocation_size (default 50) for every
+-- sequence, otherwise Hibernate refuses to start. To change the allocation size later, run
+-- ALTER SEQUENCE <name> INCREMENT BY <new size> on all three sequences before restarting.
+
+-- Step 1: (Re)create the sequences above the current maximum ids
+-- audit_log_seq may already exist from migration_add_audit_log.sql with INCREMENT BY 1
+DECLARE
+    PROCEDURE recreate_sequence(p_sequence VARCHAR2, p_table VARCHAR2) IS
+        v_start NUMBER;
+        v_exists NUMBER;
+    BEGIN
+        SELECT COUNT(*) INTO v_exists FROM user_sequences WHERE sequence_name = UPPER(p_sequence);
+        IF v_exists > 0 THEN
+            EXECUTE IMMEDIATE 'DROP SEQUENCE ' || p_sequence;
+        END IF;
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(id), 0) + 1 FROM ' || p_table INTO v_start;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence || ' START WITH ' || v_start || ' INCREMENT BY 50 NOCACHE';
+    END;
+BEGIN
+    recreate_sequence('conversation_seq', 'conversations');
+    recreate_sequence('audit_log_seq', 'audit_log');
+END;
+/
+
+-- Step 2: Stop generating ids in the tables (ids are always supplied by Hibernate now)
+-- Skip a statement if the column was never an identity column (ORA-30673)
+ALTER TABLE conversations MODIFY (id DROP IDENTITY);
+ALTER TABLE audit_log MODIFY (id DROP IDENTITY);
+
+-- Step 3: Verify
+SELECT sequence_name, last_number, increment_by
+FROM user_sequences
+WHERE sequence_name IN ('CHAT_MESSAGE_SEQ', 'CONVERSATION_SEQ', 'AUDIT_LOG_SEQ');
@@ -0,0 +1,88 @@
+package com.tander.tandermobile.benchmark;
+
+import com.tander.tandermobile.domain.chat.MessageStatus;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.ChatMessageFrame;
+import com.tander.tandermobile.service.chat.delivery.ChatMessagePublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chat message encoding: the JSON {@link ChatMessageDTO} on /user/queue/messages against the CBOR
+ * {@link ChatMessageFrame} on /user/queue/messages-compact.
+ *
+ * The benchmarks measure serialization time. Payload and full STOMP frame sizes are printed once
+ * during setup, for a typical short message. That compact frames arrive intact as binary WebSocket
+ * frames is checked by CompactMessageFrameTest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatWireEncodingBenchmark {
+
+    private MappingJackson2MessageConverter jsonConverter;
+    private MessageHeaders jsonHeaders;
+    private ChatMessageDTO message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonConverter = new MappingJackson2MessageConverter();
+        jsonHeaders = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE).getMessageHeaders();
+
+        message = new ChatMessageDTO(1_234_567L, 98_765L, 40_001L, "maria.santos", 40_002L, "jose.reyes",
+                "Good morning! Are we still meeting at the park later?", new Date(), MessageStatus.SENT);
+
+        byte[] json = json();
+        byte[] cborPayload = cbor();
+        System.out.printf("%nJSON payload: %d bytes, STOMP frame: %d bytes%n",
+                json.length, frameSize(json, "application/json", "/user/queue/messages"));
+        System.out.printf("CBOR payload: %d bytes, STOMP frame: %d bytes%n",
+                cborPayload.length, frameSize(cborPayload, MimeTypeUtils.APPLICATION_OCTET_STREAM_VALUE, "/user/queue/messages-compact"));
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return (byte[]) jsonConverter.toMessage(message, jsonHeaders).getPayload();
+    }
+
+    @Benchmark
+    public byte[] cbor() {
+        return ChatMessagePublisher.encodeCompact(message);
+    }
+
+    private static int frameSize(byte[] payload, String contentType, String destination) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        headers.setDestination(destination);
+        headers.setSubscriptionId("sub-0");
+        headers.setMessageId("a1b2c3d4-0");
+        headers.setContentType(MimeType.valueOf(contentType));
+        Message<byte[]> frame = MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+        return new StompEncoder().encode(frame).length;
+    }
+}
@@ -0,0 +1,167 @@
+package com.tander.tandermobile.benchmark;
+
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.EphemeralEventRequest;
+import com.tander.tandermobile.dto.chat.EphemeralEventType;
+import com.tander.tandermobile.repository.user.UserRepository;
+import com.tander.tandermobile.service.chat.ChatService;
+import com.tander.tandermobile.service.chat.ephemeral.EphemeralEventService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpSubscriptionMatcher;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-event cost of typing indicators.
+ *
+ * {@code repeatedTyping} is the common case, a client reporting every keystroke: the event is
+ * debounced in memory and nothing is sent. {@code startStop} forwards every event, so it includes
+ * JSON conversion and the hand-off to the outbound channel (a no-op channel here).
+ * Neither path touches the repository once the receiver's identity and each sender's conversation
+ * check are cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EphemeralEventBenchmark {
+
+    private static final int SENDERS = 1_000;
+    private static final long RECEIVER_ID = 1L;
+
+    private EphemeralEventService service;
+    private UserIdentity[] senders;
+    private EphemeralEventRequest typing;
+    private EphemeralEventRequest stopped;
+    private final AtomicLong sentFrames = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(userRepository.findIdentityById(RECEIVER_ID))
+                .thenReturn(Optional.of(new UserIdentity(RECEIVER_ID, "receiver", true, false, null)));
+        UserIdentityCacheService identities = new UserIdentityCacheService(userRepository, 10_000, Duration.ofHours(1), Duration.ofHours(1));
+
+        SimpMessagingTemplate template = new SimpMessagingTemplate((message, timeout) -> {
+            sentFrames.incrementAndGet();
+            return true;
+        });
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+
+        ChatService chatService = Mockito.mock(ChatService.class, Mockito.withSettings().stubOnly());
+        Mockito.when(chatService.hasConversation(Mockito.anyLong(), Mockito.anyLong())).thenReturn(true);
+
+        service = new EphemeralEventService(chatService, identities, template, new SingleUserRegistry("receiver"),
+                Duration.ofSeconds(3), Duration.ofSeconds(6));
+
+        senders = new UserIdentity[SENDERS];
+        for (int i = 0; i < SENDERS; i++) {
+            senders[i] = new UserIdentity(100L + i, "sender" + i, true, false, null);
+        }
+        typing = new EphemeralEventRequest(RECEIVER_ID, EphemeralEventType.TYPING);
+        stopped = new EphemeralEventRequest(RECEIVER_ID, EphemeralEventType.STOPPED);
+    }
+
+    @State(Scope.Thread)
+    public static class SenderCursor {
+        private int next;
+
+        int next() {
+            next = (next + 1) % SENDERS;
+            return next;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean repeatedTyping(SenderCursor cursor) {
+        return service.publish(senders[cursor.next()], typing);
+    }
+
+    @Benchmark
+    public boolean startStop(SenderCursor cursor) {
+        UserIdentity sender = senders[cursor.next()];
+        service.publish(sender, typing);
+        return service.publish(sender, stopped);
+    }
+
+    /**
+     * Registry in which only one user is connected.
+     */
+    private record SingleUserRegistry(String username) implements SimpUserRegistry {
+
+        @Override
+        public SimpUser getUser(String userName) {
+            return username.equals(userName) ? new ConnectedUser(username) : null;
+        }
+
+        @Override
+        public Set<SimpUser> getUsers() {
+            return Set.of(new ConnectedUser(username));
+        }
+
+        @Override
+        public int getUserCount() {
+            return 1;
+        }
+
+        @Override
+        public Set<SimpSubscription> findSubscriptions(SimpSubscriptionMatcher matcher) {
+            return Set.of();
+        }
+    }
+
+    private record ConnectedUser(String name) implements SimpUser {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean hasSessions() {
+            return true;
+        }
+
+        @Override
+        public SimpSession getSession(String sessionId) {
+            return null;
+        }
+
+        @Override
+        public Set<SimpSession> getSessions() {
+            return Set.of();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.tander.tandermobile.benchmark;
+
+import com.tander.tandermobile.domain.chat.GroupMemberRole;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import com.tander.tandermobile.repository.chat.GroupMemberRepository;
+import com.tander.tandermobile.service.chat.group.GroupFanOutService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpSubscriptionMatcher;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of delivering one group message to every member, all of them online.
+ *
+ * {@code serializeOnce} is {@link GroupFanOutService#publish}: one JSON conversion, then the same
+ * payload handed to each member's destination. {@code convertPerMember} is the straightforward
+ * alternative, one {@code convertAndSendToUser} per member, which serializes the message N times.
+ * The outbound channel is a no-op, so the numbers are the server-side work before the broker.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GroupFanOutBenchmark {
+
+    private static final long GROUP_ID = 1L;
+
+    @Param({"10", "100", "1000"})
+    public int members;
+
+    private GroupFanOutService fanOutService;
+    private SimpMessagingTemplate template;
+    private List<String> usernames;
+    private GroupMessageDTO message;
+    private final AtomicLong sentFrames = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<GroupMemberDTO> memberDTOs = new ArrayList<>(members);
+        usernames = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            String username = "member" + i;
+            memberDTOs.add(new GroupMemberDTO(100L + i, username,
+                    i == 0 ? GroupMemberRole.OWNER : GroupMemberRole.MEMBER, null, null));
+            usernames.add(username);
+        }
+        GroupMemberRepository memberRepository = Mockito.mock(GroupMemberRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(memberRepository.findMembers(GROUP_ID)).thenReturn(memberDTOs);
+
+        template = new SimpMessagingTemplate((frame, timeout) -> {
+            sentFrames.incrementAndGet();
+            return true;
+        });
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+
+        fanOutService = new GroupFanOutService(template, new AllConnectedRegistry(), memberRepository, Duration.ofHours(1));
+        message = new GroupMessageDTO(5_000L, GROUP_ID, 100L, "member0",
+                "Good morning everyone! Are we still meeting at the park later? Bring the photos.", new Date());
+    }
+
+    @Benchmark
+    public int serializeOnce() {
+        return fanOutService.publish(message);
+    }
+
+    @Benchmark
+    public int convertPerMember() {
+        for (String username : usernames) {
+            template.convertAndSendToUser(username, GroupFanOutService.GROUP_MESSAGES_DESTINATION, message);
+        }
+        return usernames.size();
+    }
+
+    /**
+     * Registry in which every user is connected.
+     */
+    private static final class AllConnectedRegistry implements SimpUserRegistry {
+
+        @Override
+        public SimpUser getUser(String userName) {
+            return new ConnectedUser(userName);
+        }
+
+        @Override
+        public Set<SimpUser> getUsers() {
+            return Set.of();
+        }
+
+        @Override
+        public int getUserCount() {
+            return 0;
+        }
+
+        @Override
+        public Set<SimpSubscription> findSubscriptions(SimpSubscriptionMatcher matcher) {
+            return Set.of();
+        }
+    }
+
+    private record ConnectedUser(String name) implements SimpUser {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Principal getPrincipal() {
+            return null;
+        }
+
+        @Override
+        public boolean hasSessions() {
+            return true;
+        }
+
+        @Override
+        public SimpSession getSession(String sessionId) {
+            return null;
+        }
+
+        @Override
+        public Set<SimpSession> getSessions() {
+            return Set.of();
+        }
+    }
+}
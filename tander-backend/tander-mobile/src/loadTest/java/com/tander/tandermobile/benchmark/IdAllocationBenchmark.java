@@ -0,0 +1,160 @@
+package com.tander.tandermobile.benchmark;
+
+import com.tander.tandermobile.utils.persistence.PooledLoSequenceAllocator;
+import org.hibernate.dialect.H2Dialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput of chat message and audit rows by id strategy, in rows per second.
+ *
+ * {@code IDENTITY} is what the entities used before pooled sequences: one INSERT per row with the
+ * generated key read back, which is also why Hibernate cannot batch them. {@code POOLED_LO} takes ids
+ * from a sequence through {@link PooledLoSequenceAllocator}, one NEXTVAL per {@code allocationSize}
+ * ids, and writes the rows as one JDBC batch, as Hibernate does with hibernate.jdbc.batch_size.
+ * Both commit once per {@value #ROWS_PER_INVOCATION} rows.
+ *
+ * Runs on in-memory H2 in Oracle mode, so there is no network round trip; on Oracle every saved
+ * round trip is worth far more than here. {@code -p allocationSize=1} shows the sequence without
+ * the optimizer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdAllocationBenchmark {
+
+    private static final int ROWS_PER_INVOCATION = 50;
+
+    public enum RowKind {
+        MESSAGE("conversation_id NUMBER(19) NOT NULL, sender_id NUMBER(19) NOT NULL, receiver_id NUMBER(19) NOT NULL, " +
+                "content VARCHAR2(2000 CHAR), status VARCHAR2(20 CHAR), sent_at TIMESTAMP",
+                "conversation_id, sender_id, receiver_id, content, status, sent_at"),
+        AUDIT("user_id NUMBER(19), username VARCHAR2(255 CHAR), event_type VARCHAR2(50 CHAR) NOT NULL, " +
+                "status VARCHAR2(20 CHAR) NOT NULL, description VARCHAR2(1000 CHAR), created_at TIMESTAMP NOT NULL",
+                "user_id, username, event_type, status, description, created_at");
+
+        private final String columnDefinitions;
+        private final String columns;
+
+        RowKind(String columnDefinitions, String columns) {
+            this.columnDefinitions = columnDefinitions;
+            this.columns = columns;
+        }
+
+        private void bind(PreparedStatement statement, int offset, long row) throws SQLException {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            if (this == MESSAGE) {
+                statement.setLong(offset, row % 100);
+                statement.setLong(offset + 1, 1L);
+                statement.setLong(offset + 2, 2L);
+                statement.setString(offset + 3, "Good morning! Did you sleep well? " + row);
+                statement.setString(offset + 4, "SENT");
+                statement.setTimestamp(offset + 5, now);
+            } else {
+                statement.setLong(offset, row % 1000);
+                statement.setString(offset + 1, "user" + row % 1000);
+                statement.setString(offset + 2, "PROFILE_VIEW");
+                statement.setString(offset + 3, "SUCCESS");
+                statement.setString(offset + 4, "Viewed profile " + row);
+                statement.setTimestamp(offset + 5, now);
+            }
+        }
+    }
+
+    public enum IdStrategy {
+        IDENTITY,
+        POOLED_LO
+    }
+
+    @Param({"MESSAGE", "AUDIT"})
+    public RowKind rowKind;
+
+    @Param({"IDENTITY", "POOLED_LO"})
+    public IdStrategy idStrategy;
+
+    @Param({"50"})
+    public int allocationSize;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private PooledLoSequenceAllocator allocator;
+    private long row;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:id_allocation_" + System.nanoTime() + ";MODE=Oracle", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            if (idStrategy == IdStrategy.IDENTITY) {
+                statement.execute("CREATE TABLE bench_rows (id NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                        + rowKind.columnDefinitions + ")");
+                insert = connection.prepareStatement("INSERT INTO bench_rows (" + rowKind.columns + ") VALUES (?, ?, ?, ?, ?, ?)",
+                        new String[] {"ID"});
+            } else {
+                statement.execute("CREATE SEQUENCE bench_rows_seq START WITH 1 INCREMENT BY " + allocationSize);
+                statement.execute("CREATE TABLE bench_rows (id NUMBER(19) NOT NULL PRIMARY KEY, " + rowKind.columnDefinitions + ")");
+                insert = connection.prepareStatement("INSERT INTO bench_rows (id, " + rowKind.columns + ") VALUES (?, ?, ?, ?, ?, ?, ?)");
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+                allocator = new PooledLoSequenceAllocator(jdbcTemplate, new H2Dialect(), "bench_rows_seq", allocationSize);
+            }
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public long insertRows() throws SQLException {
+        long lastId = 0;
+        if (idStrategy == IdStrategy.IDENTITY) {
+            for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+                rowKind.bind(insert, 1, row++);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        } else {
+            for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+                lastId = allocator.nextId();
+                insert.setLong(1, lastId);
+                rowKind.bind(insert, 2, row++);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return lastId;
+    }
+}
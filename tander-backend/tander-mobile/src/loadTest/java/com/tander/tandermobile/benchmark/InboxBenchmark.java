@@ -0,0 +1,232 @@
+package com.tander.tandermobile.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one inbox load for a user with {@code conversations} active conversations.
+ *
+ * {@code projection} runs the SQL of ConversationRepository.findInboxByUserId: one read of the
+ * conversation summary columns joined to both participants. {@code nPlusOne} runs the statements of
+ * the previous getUserConversations: the conversation list, then per conversation the lazy load of
+ * the peer, every non-deleted message for the preview and an unread COUNT.
+ *
+ * Runs on in-memory H2 in Oracle mode with the entity indexes, so there is no network round trip;
+ * on Oracle each of the 3N+1 statements of the old path also pays one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InboxBenchmark {
+
+    private static final long USER_ID = 1L;
+
+    private static final String INBOX_SQL =
+            "SELECT c.id, u1.id, u1.username, u2.id, u2.username, c.created_at, c.last_message_at, c.last_message_preview, " +
+            "CASE WHEN u1.id = ? THEN COALESCE(c.user1_unread, 0) ELSE COALESCE(c.user2_unread, 0) END, c.is_active, " +
+            "CASE WHEN u1.id = ? THEN u2.id ELSE u1.id END, " +
+            "CASE WHEN u1.id = ? THEN u2.username ELSE u1.username END, " +
+            "CASE WHEN u1.id = ? THEN c.user2_last_read_message_id ELSE c.user1_last_read_message_id END, " +
+            "CASE WHEN u1.id = ? THEN c.user2_last_read_at ELSE c.user1_last_read_at END " +
+            "FROM conversations c JOIN login u1 ON u1.id = c.user1_id JOIN login u2 ON u2.id = c.user2_id " +
+            "WHERE (u1.id = ? OR u2.id = ?) AND c.is_active = TRUE ORDER BY c.last_message_at DESC";
+
+    private static final String CONVERSATIONS_SQL =
+            "SELECT c.id, c.user1_id, c.user2_id, c.created_at, c.last_message_at, c.is_active FROM conversations c " +
+            "WHERE (c.user1_id = ? OR c.user2_id = ?) AND c.is_active = TRUE ORDER BY c.last_message_at DESC";
+
+    private static final String USER_SQL = "SELECT u.id, u.username FROM login u WHERE u.id = ?";
+
+    private static final String MESSAGES_SQL =
+            "SELECT m.id, m.conversation_id, m.sender_id, m.receiver_id, m.content, m.sent_at, m.status, m.is_deleted " +
+            "FROM chat_messages m WHERE m.conversation_id = ? AND m.is_deleted = FALSE ORDER BY m.sent_at DESC";
+
+    private static final String UNREAD_SQL =
+            "SELECT COUNT(m.id) FROM chat_messages m WHERE m.conversation_id = ? AND m.receiver_id = ? " +
+            "AND m.status <> 'READ' AND m.is_deleted = FALSE";
+
+    @Param({"10", "100", "1000"})
+    public int conversations;
+
+    @Param({"20"})
+    public int messagesPerConversation;
+
+    private Connection connection;
+    private PreparedStatement inbox;
+    private PreparedStatement conversationList;
+    private PreparedStatement user;
+    private PreparedStatement messages;
+    private PreparedStatement unread;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:inbox_" + System.nanoTime() + ";MODE=Oracle", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE login (id NUMBER(19) PRIMARY KEY, username VARCHAR2(255 CHAR))");
+            statement.execute("CREATE TABLE conversations (id NUMBER(19) PRIMARY KEY, user1_id NUMBER(19) NOT NULL, " +
+                    "user2_id NUMBER(19) NOT NULL, created_at TIMESTAMP, last_message_at TIMESTAMP, is_active BOOLEAN, " +
+                    "last_message_id NUMBER(19), last_message_preview VARCHAR2(255 CHAR), user1_unread NUMBER(19), " +
+                    "user2_unread NUMBER(19), user1_last_read_message_id NUMBER(19), user2_last_read_message_id NUMBER(19), " +
+                    "user1_last_read_at TIMESTAMP, user2_last_read_at TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_conversation_user1 ON conversations (user1_id, last_message_at)");
+            statement.execute("CREATE INDEX idx_conversation_user2 ON conversations (user2_id, last_message_at)");
+            statement.execute("CREATE TABLE chat_messages (id NUMBER(19) PRIMARY KEY, conversation_id NUMBER(19) NOT NULL, " +
+                    "sender_id NUMBER(19) NOT NULL, receiver_id NUMBER(19) NOT NULL, content CLOB, sent_at TIMESTAMP, " +
+                    "status VARCHAR2(20 CHAR), is_deleted BOOLEAN, deleted_at TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_chat_msg_conv_keyset ON chat_messages (conversation_id, is_deleted, sent_at, id)");
+            statement.execute("CREATE INDEX idx_chat_msg_conv_unread ON chat_messages (conversation_id, receiver_id, status)");
+        }
+        populate();
+
+        inbox = connection.prepareStatement(INBOX_SQL);
+        for (int i = 1; i <= 7; i++) {
+            inbox.setLong(i, USER_ID);
+        }
+        conversationList = connection.prepareStatement(CONVERSATIONS_SQL);
+        conversationList.setLong(1, USER_ID);
+        conversationList.setLong(2, USER_ID);
+        user = connection.prepareStatement(USER_SQL);
+        messages = connection.prepareStatement(MESSAGES_SQL);
+        unread = connection.prepareStatement(UNREAD_SQL);
+        unread.setLong(2, USER_ID);
+        connection.setReadOnly(true);
+    }
+
+    /**
+     * The user is user1 of half the conversations and user2 of the others. The last three messages
+     * from each peer are unread.
+     */
+    private void populate() throws SQLException {
+        connection.setAutoCommit(false);
+        long now = System.currentTimeMillis();
+        try (PreparedStatement users = connection.prepareStatement("INSERT INTO login (id, username) VALUES (?, ?)");
+             PreparedStatement conversationRows = connection.prepareStatement("INSERT INTO conversations (id, user1_id, " +
+                     "user2_id, created_at, last_message_at, is_active, last_message_id, last_message_preview, user1_unread, " +
+                     "user2_unread) VALUES (?, ?, ?, ?, ?, TRUE, ?, ?, ?, ?)");
+             PreparedStatement messageRows = connection.prepareStatement("INSERT INTO chat_messages (id, conversation_id, " +
+                     "sender_id, receiver_id, content, sent_at, status, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE)")) {
+            users.setLong(1, USER_ID);
+            users.setString(2, "inbox_owner");
+            users.addBatch();
+            long messageId = 0;
+            for (int c = 1; c <= conversations; c++) {
+                long peerId = USER_ID + c;
+                users.setLong(1, peerId);
+                users.setString(2, "peer" + c);
+                users.addBatch();
+
+                boolean ownerFirst = c % 2 == 0;
+                long unreadCount = Math.min(3, messagesPerConversation);
+                String preview = null;
+                for (int m = 0; m < messagesPerConversation; m++) {
+                    boolean fromPeer = m % 2 == 0 || m >= messagesPerConversation - unreadCount;
+                    preview = "Message " + m + " in conversation " + c;
+                    messageRows.setLong(1, ++messageId);
+                    messageRows.setLong(2, c);
+                    messageRows.setLong(3, fromPeer ? peerId : USER_ID);
+                    messageRows.setLong(4, fromPeer ? USER_ID : peerId);
+                    messageRows.setString(5, preview);
+                    messageRows.setTimestamp(6, new Timestamp(now - (long) (conversations - c) * 60_000 + m));
+                    messageRows.setString(7, fromPeer && m >= messagesPerConversation - unreadCount ? "DELIVERED" : "READ");
+                    messageRows.addBatch();
+                }
+                messageRows.executeBatch();
+
+                conversationRows.setLong(1, c);
+                conversationRows.setLong(2, ownerFirst ? USER_ID : peerId);
+                conversationRows.setLong(3, ownerFirst ? peerId : USER_ID);
+                conversationRows.setTimestamp(4, new Timestamp(now - 86_400_000L));
+                conversationRows.setTimestamp(5, new Timestamp(now - (long) (conversations - c) * 60_000));
+                conversationRows.setLong(6, messageId);
+                conversationRows.setString(7, preview);
+                conversationRows.setLong(8, ownerFirst ? unreadCount : 0);
+                conversationRows.setLong(9, ownerFirst ? 0 : unreadCount);
+                conversationRows.addBatch();
+            }
+            users.executeBatch();
+            conversationRows.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int projection(Blackhole blackhole) throws SQLException {
+        int rows = 0;
+        try (ResultSet rs = inbox.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getString(8));
+                blackhole.consume(rs.getLong(9));
+                blackhole.consume(rs.getString(12));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public int nPlusOne(Blackhole blackhole) throws SQLException {
+        List<long[]> conversationIds = new ArrayList<>();
+        try (ResultSet rs = conversationList.executeQuery()) {
+            while (rs.next()) {
+                conversationIds.add(new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3)});
+            }
+        }
+        for (long[] conversation : conversationIds) {
+            user.setLong(1, conversation[1] == USER_ID ? conversation[2] : conversation[1]);
+            try (ResultSet rs = user.executeQuery()) {
+                rs.next();
+                blackhole.consume(rs.getString(2));
+            }
+
+            messages.setLong(1, conversation[0]);
+            try (ResultSet rs = messages.executeQuery()) {
+                boolean first = true;
+                while (rs.next()) {
+                    String content = rs.getString(5);
+                    if (first) {
+                        blackhole.consume(content);
+                        first = false;
+                    }
+                }
+            }
+
+            unread.setLong(1, conversation[0]);
+            try (ResultSet rs = unread.executeQuery()) {
+                rs.next();
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+        return conversationIds.size();
+    }
+}
@@ -0,0 +1,102 @@
+package com.tander.tandermobile.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TCP proxy in front of the node that counts the bytes in each direction, so bandwidth is
+ * measured as it would be on the wire: after permessage-deflate, with SockJS and HTTP framing.
+ */
+public class ByteCountingProxy implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final ServerSocket serverSocket;
+    private final int targetPort;
+    private final LongAdder clientToServer = new LongAdder();
+    private final LongAdder serverToClient = new LongAdder();
+    private volatile boolean running = true;
+
+    public ByteCountingProxy(int targetPort) throws IOException {
+        this.targetPort = targetPort;
+        this.serverSocket = new ServerSocket(0, 2048);
+        Thread acceptor = new Thread(this::acceptLoop, "proxy-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getClientToServerBytes() {
+        return clientToServer.sum();
+    }
+
+    public long getServerToClientBytes() {
+        return serverToClient.sum();
+    }
+
+    public void reset() {
+        clientToServer.reset();
+        serverToClient.reset();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket client = serverSocket.accept();
+                Socket server = new Socket();
+                server.connect(new InetSocketAddress("127.0.0.1", targetPort));
+                client.setTcpNoDelay(true);
+                server.setTcpNoDelay(true);
+                pipe(client, server, clientToServer, "proxy-up");
+                pipe(server, client, serverToClient, "proxy-down");
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Proxy accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void pipe(Socket from, Socket to, LongAdder counter, String name) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                    counter.add(read);
+                }
+            } catch (IOException ignored) {
+                // Connection closed by either side
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,187 @@
+package com.tander.tandermobile.load;
+
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.SendMessageRequest;
+import com.tander.tandermobile.load.LoadTestNode.LoadUser;
+import com.tander.tandermobile.load.StompLoadClients.Transport;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How many STOMP sessions one node handles, and how delivery holds up under load.
+ *
+ * Starts a node in-process (test profile, in-memory H2), connects {@code --clients} authenticated
+ * sessions and drives a mix of operations: {@code --rate} sends per second to /app/chat.send between
+ * random users; each received message is acknowledged on /app/chat.markDelivered with probability
+ * {@code --ack-ratio} and its conversation marked read on /app/chat.markRead with probability
+ * {@code --read-ratio}. After {@code --warmup} seconds it measures for {@code --duration} seconds.
+ *
+ * Reports end-to-end delivery latency (send on one client to receipt on the other) at p50/p99,
+ * throughput, and heap growth per connection. Clients run in the same JVM, so heap per connection
+ * includes the client side of each session and is an upper bound for the server.
+ *
+ * <pre>
+ * ./gradlew loadTest -PloadTest.main=com.tander.tandermobile.load.ConnectionScaleHarness \
+ *     --args="--clients=5000 --rate=500 --ack-ratio=1.0 --read-ratio=0.3"
+ * </pre>
+ *
+ * Other {@code --key=value} arguments are passed to the node as properties, e.g.
+ * {@code --chat.write-behind.enabled=true}.
+ */
+public class ConnectionScaleHarness {
+
+    private static final String CONTENT_PREFIX = "lt:";
+    private static final String CONTENT_FILLER = ":Good morning! Are we still meeting at the park later?";
+
+    public static void main(String[] args) throws Exception {
+        HarnessArgs options = new HarnessArgs(args, Map.of(
+                "transport", Transport.WEBSOCKET.name(),
+                "clients", "1000",
+                "rate", "200",
+                "ack-ratio", "1.0",
+                "read-ratio", "0.3",
+                "warmup", "10",
+                "duration", "60"));
+        Transport transport = Transport.valueOf(options.take("transport").toUpperCase());
+        int clients = options.takeInt("clients");
+        int rate = options.takeInt("rate");
+        double ackRatio = options.takeDouble("ack-ratio");
+        double readRatio = options.takeDouble("read-ratio");
+        int warmupSeconds = options.takeInt("warmup");
+        int durationSeconds = options.takeInt("duration");
+
+        System.out.printf("%d clients over %s, %d sends/s, ack ratio %.2f, read ratio %.2f%n",
+                clients, transport, rate, ackRatio, readRatio);
+
+        try (LoadTestNode node = new LoadTestNode(options.nodeProperties())) {
+            List<LoadUser> users = node.createUsers("scale", clients);
+            LatencyRecorder latencies = new LatencyRecorder();
+            LongAdder delivered = new LongAdder();
+            LongAdder acks = new LongAdder();
+            LongAdder reads = new LongAdder();
+            StompSession[] sessionsByIndex = new StompSession[clients];
+
+            long heapBefore = usedHeapAfterGc();
+            try (StompLoadClients loadClients = new StompLoadClients(transport, false, node.getPort())) {
+                long connectStart = System.nanoTime();
+                List<StompSession> sessions = loadClients.connectAll(users, "/user/queue/messages",
+                        ChatMessageDTO.class, (index, message) -> {
+                            // Every session also gets the echo of its own sends; only count receipts
+                            if (!users.get(index).id().equals(message.getReceiverId())) {
+                                return;
+                            }
+                            long sentAt = parseSentAt(message.getContent());
+                            if (sentAt > 0) {
+                                latencies.record(System.nanoTime() - sentAt);
+                            }
+                            delivered.increment();
+
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+                            StompSession session = sessionsByIndex[index];
+                            if (session == null) {
+                                return;
+                            }
+                            if (random.nextDouble() < ackRatio
+                                    && send(session, "/app/chat.markDelivered", message.getId())) {
+                                acks.increment();
+                            }
+                            if (random.nextDouble() < readRatio
+                                    && send(session, "/app/chat.markRead", message.getConversationId())) {
+                                reads.increment();
+                            }
+                        });
+                sessions.toArray(sessionsByIndex);
+                double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+                long heapAfter = usedHeapAfterGc();
+
+                System.out.printf("Connected %d sessions in %.1fs (%.0f/s)%n",
+                        sessions.size(), connectSeconds, sessions.size() / connectSeconds);
+                System.out.printf("Heap per connection: %,d bytes (client and server side)%n",
+                        (heapAfter - heapBefore) / Math.max(1, sessions.size()));
+
+                ScheduledExecutorService sender = startSending(sessions, users, rate);
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+                    latencies.reset();
+                    delivered.reset();
+                    acks.reset();
+                    reads.reset();
+
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+                } finally {
+                    sender.shutdownNow();
+                }
+
+                System.out.printf("Delivery latency: p50 %.1f ms, p99 %.1f ms, max %.1f ms (%d samples)%n",
+                        latencies.percentileMillis(50), latencies.percentileMillis(99),
+                        latencies.percentileMillis(100), latencies.count());
+                System.out.printf("Throughput: %.0f deliveries/s, %.0f acks/s, %.0f reads/s%n",
+                        delivered.sum() / (double) durationSeconds,
+                        acks.sum() / (double) durationSeconds,
+                        reads.sum() / (double) durationSeconds);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ScheduledExecutorService startSending(List<StompSession> sessions, List<LoadUser> users, int rate) {
+        ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor();
+        sender.scheduleAtFixedRate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int from = random.nextInt(sessions.size());
+            int to = random.nextInt(users.size() - 1);
+            if (to >= from) {
+                to++;
+            }
+            String content = CONTENT_PREFIX + System.nanoTime() + CONTENT_FILLER;
+            send(sessions.get(from), "/app/chat.send", new SendMessageRequest(users.get(to).id(), content));
+        }, 0, TimeUnit.SECONDS.toNanos(1) / rate, TimeUnit.NANOSECONDS);
+        return sender;
+    }
+
+    /**
+     * The WebSocket session allows one send at a time, and sends come from both the send
+     * scheduler and the receiving threads.
+     */
+    private static boolean send(StompSession session, String destination, Object payload) {
+        try {
+            synchronized (session) {
+                session.send(destination, payload);
+            }
+            return true;
+        } catch (Exception e) {
+            // Session closed by the server (send limits)
+            return false;
+        }
+    }
+
+    private static long parseSentAt(String content) {
+        if (content == null || !content.startsWith(CONTENT_PREFIX)) {
+            return -1;
+        }
+        int end = content.indexOf(':', CONTENT_PREFIX.length());
+        try {
+            return Long.parseLong(content.substring(CONTENT_PREFIX.length(), end));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,51 @@
+package com.tander.tandermobile.load;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code --key=value} arguments of the load harnesses. Options the harness reads are taken out with
+ * the getters; whatever remains is passed to the node as application properties.
+ */
+public class HarnessArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public HarnessArgs(String[] args, Map<String, String> defaults) {
+        values.putAll(defaults);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    public String take(String key) {
+        String value = values.remove(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + key);
+        }
+        return value;
+    }
+
+    public int takeInt(String key) {
+        return Integer.parseInt(take(key));
+    }
+
+    public double takeDouble(String key) {
+        return Double.parseDouble(take(key));
+    }
+
+    public boolean takeBoolean(String key) {
+        return Boolean.parseBoolean(take(key));
+    }
+
+    /**
+     * @return the arguments not taken by the harness, as node properties
+     */
+    public Map<String, String> nodeProperties() {
+        return values;
+    }
+}
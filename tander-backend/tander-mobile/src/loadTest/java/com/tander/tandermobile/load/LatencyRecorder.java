@@ -0,0 +1,42 @@
+package com.tander.tandermobile.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in nanoseconds and reports percentiles. Samples are kept, not bucketed,
+ * which is fine for the few hundred thousand a harness run produces.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1 << 16];
+    private int count;
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public synchronized void reset() {
+        count = 0;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return the latency at that percentile in milliseconds, or NaN without samples
+     */
+    public synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1e6;
+    }
+}
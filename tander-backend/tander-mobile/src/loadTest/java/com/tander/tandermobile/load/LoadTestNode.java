@@ -0,0 +1,82 @@
+package com.tander.tandermobile.load;
+
+import com.tander.tandermobile.TanderMobileApplication;
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserPrincipal;
+import com.tander.tandermobile.repository.user.UserRepository;
+import com.tander.tandermobile.utils.security.jwt.provider.token.JWTTokenProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One application node started in-process on a random port with the test profile (in-memory H2),
+ * plus the users and tokens the load clients connect with.
+ */
+public class LoadTestNode implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    /**
+     * Settings are passed as command-line arguments: builder properties are only defaults, which
+     * application.yml would override (server.port, websocket.compression.enabled, ...).
+     */
+    public LoadTestNode(Map<String, String> properties) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        this.context = new SpringApplicationBuilder(TanderMobileApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    public int getPort() {
+        return ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Creates {@code count} active users and signs a token for each.
+     */
+    public List<LoadUser> createUsers(String prefix, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JWTTokenProvider tokenProvider = context.getBean(JWTTokenProvider.class);
+
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername(prefix + i);
+            user.setPassword("not-used");
+            user.setEmail(prefix + i + "@example.com");
+            user.setJoinDate(new Date());
+            user.setRole("user");
+            user.setAuthorities(List.of("user:read"));
+            user.setIsActive(true);
+            user.setIsLocked(false);
+            users.add(user);
+        }
+
+        List<LoadUser> loadUsers = new ArrayList<>(count);
+        for (User user : userRepository.saveAll(users)) {
+            loadUsers.add(new LoadUser(user.getId(), user.getUsername(),
+                    tokenProvider.generateJwtToken(new UserPrincipal(user))));
+        }
+        return loadUsers;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    public record LoadUser(Long id, String username, String token) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.tander.tandermobile.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CPU time used by the node's own threads (Tomcat, SockJS, STOMP channels and broker), leaving out
+ * the load clients and the proxy that run in the same JVM.
+ *
+ * Threads that end between two samples lose their last interval, so keep measurement windows
+ * shorter than the pools' keep-alive.
+ */
+public class ServerCpuMeter {
+
+    private static final List<String> SERVER_THREAD_PREFIXES = List.of(
+            "http-nio-", "ws-inbound-", "ws-outbound-", "MessageBroker", "SockJS-", "brokerChannel", "task-");
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private Map<Long, Long> baseline = new HashMap<>();
+
+    public ServerCpuMeter() {
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    /**
+     * Starts a measurement window.
+     */
+    public void reset() {
+        baseline = sample();
+    }
+
+    /**
+     * @return server CPU time since the last reset, in nanoseconds
+     */
+    public long elapsedCpuNanos() {
+        long total = 0;
+        for (Map.Entry<Long, Long> entry : sample().entrySet()) {
+            total += entry.getValue() - baseline.getOrDefault(entry.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private Map<Long, Long> sample() {
+        Map<Long, Long> cpu = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (isServerThread(thread.getName())) {
+                long nanos = threads.getThreadCpuTime(thread.getId());
+                if (nanos >= 0) {
+                    cpu.put(thread.getId(), nanos);
+                }
+            }
+        }
+        return cpu;
+    }
+
+    private static boolean isServerThread(String name) {
+        for (String prefix : SERVER_THREAD_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
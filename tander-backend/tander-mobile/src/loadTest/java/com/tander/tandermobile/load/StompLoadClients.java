@@ -0,0 +1,136 @@
+package com.tander.tandermobile.load;
+
+import com.tander.tandermobile.load.LoadTestNode.LoadUser;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.RestTemplateXhrTransport;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.tander.tandermobile.utils.security.constant.SecurityConstant.TOKEN_PREFIX;
+
+/**
+ * STOMP clients for the load harnesses, over raw WebSocket or SockJS.
+ */
+public class StompLoadClients implements AutoCloseable {
+
+    public enum Transport {
+        /** Raw WebSocket on /ws, as used by the mobile app */
+        WEBSOCKET,
+        /** SockJS on /ws using its WebSocket transport */
+        SOCKJS_WEBSOCKET,
+        /** SockJS on /ws using the XHR streaming fallback */
+        SOCKJS_XHR_STREAMING
+    }
+
+    private static final long HEARTBEAT_MILLIS = 10_000;
+    private static final int CONNECT_BATCH_SIZE = 100;
+
+    private final Transport transport;
+    private final boolean compression;
+    private final int port;
+    private final WebSocketStompClient stompClient;
+    private final ThreadPoolTaskScheduler scheduler;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    public StompLoadClients(Transport transport, boolean compression, int port) {
+        this.transport = transport;
+        this.compression = compression;
+        this.port = port;
+
+        this.scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.setThreadNamePrefix("load-client-heartbeat-");
+        scheduler.initialize();
+
+        this.stompClient = new WebSocketStompClient(webSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(scheduler);
+        stompClient.setDefaultHeartbeat(new long[] {HEARTBEAT_MILLIS, HEARTBEAT_MILLIS});
+    }
+
+    /**
+     * Connects one session per user, a batch at a time, and subscribes each to {@code destination}.
+     */
+    public <T> List<StompSession> connectAll(List<LoadUser> users, String destination, Class<T> payloadType,
+                                             FrameListener<T> listener) throws Exception {
+        for (int from = 0; from < users.size(); from += CONNECT_BATCH_SIZE) {
+            List<CompletableFuture<StompSession>> batch = new ArrayList<>();
+            for (LoadUser user : users.subList(from, Math.min(from + CONNECT_BATCH_SIZE, users.size()))) {
+                batch.add(connect(user));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                StompSession session = batch.get(i).get(30, TimeUnit.SECONDS);
+                int index = from + i;
+                session.subscribe(destination, new StompFrameHandler() {
+                    @Override
+                    public Type getPayloadType(StompHeaders headers) {
+                        return payloadType;
+                    }
+
+                    @Override
+                    public void handleFrame(StompHeaders headers, Object payload) {
+                        listener.onFrame(index, payloadType.cast(payload));
+                    }
+                });
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    private CompletableFuture<StompSession> connect(LoadUser user) {
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        if (compression) {
+            handshakeHeaders.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+        }
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", TOKEN_PREFIX + user.token());
+
+        String scheme = transport == Transport.WEBSOCKET ? "ws" : "http";
+        return stompClient.connectAsync(scheme + "://localhost:" + port + "/ws", handshakeHeaders, connectHeaders,
+                new StompSessionHandlerAdapter() {
+                });
+    }
+
+    private WebSocketClient webSocketClient() {
+        return switch (transport) {
+            case WEBSOCKET -> new StandardWebSocketClient();
+            case SOCKJS_WEBSOCKET -> new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())));
+            case SOCKJS_XHR_STREAMING -> new SockJsClient(List.of(new RestTemplateXhrTransport()));
+        };
+    }
+
+    @Override
+    public void close() {
+        for (StompSession session : sessions) {
+            try {
+                session.disconnect();
+            } catch (Exception ignored) {
+                // Already closed by the server
+            }
+        }
+        stompClient.stop();
+        scheduler.shutdown();
+    }
+
+    @FunctionalInterface
+    public interface FrameListener<T> {
+        void onFrame(int sessionIndex, T payload);
+    }
+}
@@ -0,0 +1,115 @@
+package com.tander.tandermobile.load;
+
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.SendMessageRequest;
+import com.tander.tandermobile.load.LoadTestNode.LoadUser;
+import com.tander.tandermobile.load.StompLoadClients.Transport;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bandwidth and server CPU of the /ws transports, normalized per 1,000 connected clients.
+ *
+ * Starts a node in-process, connects {@code --clients} STOMP clients through a byte-counting proxy
+ * and, for {@code --duration} seconds, sends {@code --rate} chat messages per second between random
+ * clients. Reports the connect phase and the steady state (traffic plus heartbeats) separately.
+ *
+ * <pre>
+ * ./gradlew loadTest --args="--transport=WEBSOCKET --compression=true --clients=1000"
+ * ./gradlew loadTest --args="--transport=SOCKJS_XHR_STREAMING --clients=1000"
+ * </pre>
+ *
+ * Any other {@code --key=value} argument is passed to the node as a property, e.g.
+ * {@code --websocket.sockjs.heartbeat-time=10s}.
+ */
+public class TransportLoadHarness {
+
+    private static final String CONTENT = "Good morning! Are we still meeting at the park later? Bring the photos.";
+
+    public static void main(String[] args) throws Exception {
+        HarnessArgs options = new HarnessArgs(args, Map.of(
+                "transport", Transport.WEBSOCKET.name(),
+                "compression", "true",
+                "clients", "1000",
+                "rate", "200",
+                "duration", "60"));
+        Transport transport = Transport.valueOf(options.take("transport").toUpperCase());
+        boolean compression = options.takeBoolean("compression");
+        int clients = options.takeInt("clients");
+        int rate = options.takeInt("rate");
+        int durationSeconds = options.takeInt("duration");
+        Map<String, String> nodeProperties = options.nodeProperties();
+        nodeProperties.put("websocket.compression.enabled", String.valueOf(compression));
+
+        System.out.printf("Transport %s, compression %s, %d clients, %d msg/s for %ds%n",
+                transport, compression, clients, rate, durationSeconds);
+
+        try (LoadTestNode node = new LoadTestNode(nodeProperties);
+             ByteCountingProxy proxy = new ByteCountingProxy(node.getPort())) {
+            List<LoadUser> users = node.createUsers("load", clients);
+            ServerCpuMeter cpu = new ServerCpuMeter();
+            LongAdder received = new LongAdder();
+
+            try (StompLoadClients loadClients = new StompLoadClients(transport, compression, proxy.getPort())) {
+                proxy.reset();
+                cpu.reset();
+                long connectStart = System.nanoTime();
+                List<StompSession> sessions = loadClients.connectAll(users, "/user/queue/messages",
+                        ChatMessageDTO.class, (index, message) -> received.increment());
+                double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+                report("Connect", clients, connectSeconds, proxy, cpu, false);
+
+                proxy.reset();
+                cpu.reset();
+                received.reset();
+                long sent = sendFor(sessions, users, rate, durationSeconds);
+                // Let in-flight messages arrive before reading the counters
+                Thread.sleep(2_000);
+                report("Steady state", clients, durationSeconds + 2, proxy, cpu, true);
+                System.out.printf("  messages sent %d, received %d%n", sent, received.sum());
+            }
+        }
+        System.exit(0);
+    }
+
+    private static long sendFor(List<StompSession> sessions, List<LoadUser> users, int rate, int durationSeconds)
+            throws InterruptedException {
+        LongAdder sent = new LongAdder();
+        ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor();
+        sender.scheduleAtFixedRate(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int from = random.nextInt(sessions.size());
+            int to = random.nextInt(users.size() - 1);
+            if (to >= from) {
+                to++;
+            }
+            try {
+                sessions.get(from).send("/app/chat.send", new SendMessageRequest(users.get(to).id(), CONTENT));
+                sent.increment();
+            } catch (Exception e) {
+                // Session closed by the server (send limits); counted as not sent
+            }
+        }, 0, TimeUnit.SECONDS.toNanos(1) / rate, TimeUnit.NANOSECONDS);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        sender.shutdownNow();
+        return sent.sum();
+    }
+
+    private static void report(String phase, int clients, double seconds, ByteCountingProxy proxy,
+                               ServerCpuMeter cpu, boolean perSecond) {
+        double per1000 = 1000.0 / clients;
+        double divisor = perSecond ? seconds : 1;
+        String unit = perSecond ? "/s" : "";
+        System.out.printf("%s (%.1fs), per 1,000 clients:%n", phase, seconds);
+        System.out.printf("  client -> server %,.0f bytes%s%n", proxy.getClientToServerBytes() * per1000 / divisor, unit);
+        System.out.printf("  server -> client %,.0f bytes%s%n", proxy.getServerToClientBytes() * per1000 / divisor, unit);
+        System.out.printf("  server CPU %,.1f ms%s%n", cpu.elapsedCpuNanos() / 1e6 * per1000 / divisor, unit);
+    }
+}
@@ -0,0 +1,221 @@
+package com.tander.tandermobile.controller.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tander.tandermobile.domain.audit.AuditEventPolicy;
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.audit.AuditLogExportFilter;
+import com.tander.tandermobile.dto.audit.AuditLogPageDTO;
+import com.tander.tandermobile.dto.audit.AuditPolicyDTO;
+import com.tander.tandermobile.dto.audit.AuditPolicyRequest;
+import com.tander.tandermobile.service.audit.AuditLogService;
+import com.tander.tandermobile.service.audit.policy.AuditPolicy;
+import com.tander.tandermobile.service.audit.policy.AuditPolicyService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Admin access to the audit log: keyset pages without the CLOB columns, single entries with them,
+ * NDJSON exports streamed straight from the database, and the per-event-type recording policies.
+ */
+@RestController
+@RequestMapping("/admin/audit")
+@RequiredArgsConstructor
+public class AuditAdminController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditAdminController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AuditLogService auditLogService;
+    private final AuditPolicyService auditPolicyService;
+    private final UserIdentityCacheService userIdentityCacheService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * One page of entries for exactly one of {@code userId}, {@code username}, {@code eventType}, or
+     * failures since {@code failedSince}. Pass {@code before} and {@code beforeId} from the previous
+     * page's cursor to load the next (older) page.
+     */
+    @GetMapping("/logs")
+    @PreAuthorize("hasAuthority('audit:read')")
+    public ResponseEntity<AuditLogPageDTO> getLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) AuditEventType eventType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date failedSince,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit) {
+        int filters = (userId != null ? 1 : 0) + (username != null ? 1 : 0) + (eventType != null ? 1 : 0)
+                + (failedSince != null ? 1 : 0);
+        if (filters != 1) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        AuditLogPageDTO page;
+        if (userId != null) {
+            page = auditLogService.getAuditLogPageByUserId(userId, before, beforeId, limit);
+        } else if (username != null) {
+            page = auditLogService.getAuditLogPageByUsername(username, before, beforeId, limit);
+        } else if (eventType != null) {
+            page = auditLogService.getAuditLogPageByEventType(eventType, before, beforeId, limit);
+        } else {
+            page = auditLogService.getFailedEventsPage(failedSince, before, beforeId, limit);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/logs/{id}")
+    @PreAuthorize("hasAuthority('audit:read')")
+    public ResponseEntity<AuditLog> getLog(@PathVariable Long id) {
+        return auditLogService.getAuditLog(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the entries created in [from, to) as NDJSON, one entry per line, oldest first.
+     * The rows are written as they are read from the database; the export is never held in memory.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('audit:export')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) AuditEventType eventType,
+            @RequestParam(required = false) AuditStatus status,
+            @RequestParam(defaultValue = "false") boolean includeValues,
+            Authentication authentication) {
+        UserIdentity admin = userIdentityCacheService.resolve(authentication);
+        if (admin == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        AuditLogExportFilter filter = AuditLogExportFilter.builder()
+                .from(from)
+                .to(to)
+                .userId(userId)
+                .eventType(eventType)
+                .status(status)
+                .includeValues(includeValues)
+                .build();
+
+        // Opened here so an invalid range is answered with 400 before the response starts
+        Stream<AuditLog> entries;
+        try {
+            entries = auditLogService.streamAuditLogs(filter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        auditLogService.logEvent(AuditEventType.AUDIT_LOG_EXPORTED, AuditStatus.SUCCESS, admin.getId(),
+                admin.getUsername(), "Audit log export: " + filter);
+
+        ObjectWriter writer = objectMapper.writer();
+        StreamingResponseBody body = out -> {
+            long count = 0;
+            try (entries) {
+                Iterator<AuditLog> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    out.write(writer.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                    count++;
+                }
+                out.flush();
+            } finally {
+                LOGGER.info("[AUDIT] Export by {} wrote {} entries", admin.getUsername(), count);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"audit-export.ndjson\"")
+                .body(body);
+    }
+
+    @GetMapping("/policies")
+    @PreAuthorize("hasAuthority('audit:policy')")
+    public ResponseEntity<List<AuditPolicyDTO>> getPolicies() {
+        Map<AuditEventType, AuditEventPolicy> overrides = auditPolicyService.getOverrides();
+        List<AuditPolicyDTO> policies = new ArrayList<>();
+        auditPolicyService.getPolicies().forEach((eventType, policy) -> {
+            // An override is not in effect for a security-critical type, even if its row exists
+            AuditEventPolicy override = eventType.isSecurityCritical() ? null : overrides.get(eventType);
+            policies.add(new AuditPolicyDTO(eventType, policy.mode(), policy.samplePercent(),
+                    eventType.isSecurityCritical(), override != null,
+                    override != null ? override.getUpdatedBy() : null,
+                    override != null ? override.getUpdatedAt() : null));
+        });
+        return ResponseEntity.ok(policies);
+    }
+
+    /**
+     * Overrides the policy of one event type at runtime. Applies on this node at once and on the
+     * others within {@code audit.policy.reload-interval}.
+     */
+    @PutMapping("/policies/{eventType}")
+    @PreAuthorize("hasAuthority('audit:policy')")
+    public ResponseEntity<Void> setPolicy(
+            @PathVariable AuditEventType eventType,
+            @RequestBody AuditPolicyRequest request,
+            Authentication authentication) {
+        UserIdentity admin = userIdentityCacheService.resolve(authentication);
+        if (admin == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        AuditPolicy policy;
+        try {
+            policy = AuditPolicy.of(request.getMode(), request.getSamplePercent());
+            auditPolicyService.setOverride(eventType, policy, admin.getUsername());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        auditLogService.logEvent(AuditEventType.AUDIT_POLICY_CHANGED, AuditStatus.SUCCESS, admin.getId(),
+                admin.getUsername(), "Audit policy of " + eventType + " set to " + policy);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Removes the runtime override of one event type, returning it to the configured policy.
+     */
+    @DeleteMapping("/policies/{eventType}")
+    @PreAuthorize("hasAuthority('audit:policy')")
+    public ResponseEntity<Void> clearPolicy(@PathVariable AuditEventType eventType, Authentication authentication) {
+        UserIdentity admin = userIdentityCacheService.resolve(authentication);
+        if (admin == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!auditPolicyService.clearOverride(eventType)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        auditLogService.logEvent(AuditEventType.AUDIT_POLICY_CHANGED, AuditStatus.SUCCESS, admin.getId(),
+                admin.getUsername(), "Audit policy override of " + eventType + " removed, now "
+                        + auditPolicyService.getPolicy(eventType));
+        return ResponseEntity.noContent().build();
+    }
+}
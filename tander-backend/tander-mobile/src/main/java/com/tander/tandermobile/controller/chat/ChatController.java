@@ -2,18 +2,26 @@ package com.tander.tandermobile.controller.chat;
 
 import com.tander.tandermobile.domain.chat.ChatMessage;
 import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
 import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.ChatMessagePageDTO;
 import com.tander.tandermobile.dto.chat.ConversationDTO;
+import com.tander.tandermobile.dto.chat.DeliveryAckRequest;
+import com.tander.tandermobile.dto.chat.MessageStatusEvent;
 import com.tander.tandermobile.dto.chat.SendMessageRequest;
-import com.tander.tandermobile.repository.user.UserRepository;
 import com.tander.tandermobile.service.chat.ChatService;
+import com.tander.tandermobile.service.chat.writebehind.ChatWriteBehindService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/chat")
@@ -21,12 +29,13 @@ import java.util.List;
 public class ChatController {
 
     private final ChatService chatService;
-    private final UserRepository userRepository;
+    private final UserIdentityCacheService userIdentityCacheService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatWriteBehindService chatWriteBehindService;
 
     @GetMapping("/conversations")
     public ResponseEntity<List<ConversationDTO>> getUserConversations(Authentication authentication) {
-        String username = authentication.getName();
-        User user = userRepository.findUserByUsername(username);
+        User user = resolveUser(authentication);
 
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -37,19 +46,20 @@ public class ChatController {
     }
 
     @GetMapping("/conversations/{conversationId}/messages")
-    public ResponseEntity<List<ChatMessageDTO>> getConversationMessages(
+    public ResponseEntity<ChatMessagePageDTO> getConversationMessages(
             @PathVariable Long conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication) {
-        String username = authentication.getName();
-        User user = userRepository.findUserByUsername(username);
+        User user = resolveUser(authentication);
 
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         try {
-            List<ChatMessageDTO> messages = chatService.getConversationMessages(conversationId, user);
-            return ResponseEntity.ok(messages);
+            ChatMessagePageDTO page = chatService.getConversationMessagesPage(conversationId, user, before, limit);
+            return ResponseEntity.ok(page);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
@@ -59,14 +69,15 @@ public class ChatController {
     public ResponseEntity<ChatMessageDTO> sendMessage(
             @RequestBody SendMessageRequest request,
             Authentication authentication) {
-        String username = authentication.getName();
-        User sender = userRepository.findUserByUsername(username);
+        User sender = resolveUser(authentication);
 
         if (sender == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        User receiver = userRepository.findById(request.getReceiverId())
+        User receiver = userIdentityCacheService.findById(request.getReceiverId())
+                .filter(UserIdentity::isUsable)
+                .map(UserIdentity::toUserReference)
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
         ChatMessage message = chatService.sendMessage(sender, receiver, request.getContent());
@@ -79,14 +90,14 @@ public class ChatController {
     public ResponseEntity<Void> markConversationAsRead(
             @PathVariable Long conversationId,
             Authentication authentication) {
-        String username = authentication.getName();
-        User user = userRepository.findUserByUsername(username);
+        User user = resolveUser(authentication);
 
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         try {
+            chatWriteBehindService.acknowledgeRead(conversationId, user.getId());
             chatService.markMessagesAsRead(conversationId, user);
             return ResponseEntity.ok().build();
         } catch (RuntimeException e) {
@@ -94,12 +105,32 @@ public class ChatController {
         }
     }
 
+    @PostMapping("/messages/delivered")
+    public ResponseEntity<Void> markMessagesAsDelivered(
+            @RequestBody DeliveryAckRequest request,
+            Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            chatWriteBehindService.acknowledgeDelivered(request, user.getId());
+            Map<String, MessageStatusEvent> events = chatService.markMessagesAsDelivered(request, user);
+            events.forEach((senderUsername, event) ->
+                    messagingTemplate.convertAndSendToUser(senderUsername, "/queue/message-status", event));
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
     @DeleteMapping("/messages/{messageId}")
     public ResponseEntity<Void> deleteMessage(
             @PathVariable Long messageId,
             Authentication authentication) {
-        String username = authentication.getName();
-        User user = userRepository.findUserByUsername(username);
+        User user = resolveUser(authentication);
 
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -117,19 +148,29 @@ public class ChatController {
     public ResponseEntity<ConversationDTO> startOrGetConversation(
             @PathVariable Long userId,
             Authentication authentication) {
-        String username = authentication.getName();
-        User currentUser = userRepository.findUserByUsername(username);
+        User currentUser = resolveUser(authentication);
 
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        User otherUser = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User otherUser = userIdentityCacheService.findById(userId)
+                .filter(UserIdentity::isUsable)
+                .map(UserIdentity::toUserReference)
+                .orElse(null);
+
+        if (otherUser == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
 
         var conversation = chatService.getOrCreateConversation(currentUser, otherUser);
         ConversationDTO conversationDTO = chatService.convertToDTO(conversation, currentUser);
 
         return ResponseEntity.ok(conversationDTO);
     }
+
+    private User resolveUser(Principal principal) {
+        UserIdentity identity = userIdentityCacheService.resolve(principal);
+        return identity != null ? identity.toUserReference() : null;
+    }
 }
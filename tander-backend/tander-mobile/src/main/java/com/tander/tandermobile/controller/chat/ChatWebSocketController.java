@@ -2,66 +2,152 @@ package com.tander.tandermobile.controller.chat;
 
 import com.tander.tandermobile.domain.chat.ChatMessage;
 import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
 import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.DeliveryAckRequest;
+import com.tander.tandermobile.dto.chat.EphemeralEventRequest;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import com.tander.tandermobile.dto.chat.MessageStatusEvent;
+import com.tander.tandermobile.dto.chat.SendGroupMessageRequest;
 import com.tander.tandermobile.dto.chat.SendMessageRequest;
-import com.tander.tandermobile.repository.user.UserRepository;
 import com.tander.tandermobile.service.chat.ChatService;
+import com.tander.tandermobile.service.chat.delivery.ChatDeliveryService;
+import com.tander.tandermobile.service.chat.delivery.ChatMessagePublisher;
+import com.tander.tandermobile.service.chat.ephemeral.EphemeralEventService;
+import com.tander.tandermobile.service.chat.group.GroupChatService;
+import com.tander.tandermobile.service.chat.group.GroupFanOutService;
+import com.tander.tandermobile.service.chat.writebehind.ChatWriteBehindService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
+import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 public class ChatWebSocketController {
 
     private final ChatService chatService;
-    private final UserRepository userRepository;
+    private final UserIdentityCacheService userIdentityCacheService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ChatWriteBehindService chatWriteBehindService;
+    private final ChatDeliveryService chatDeliveryService;
+    private final EphemeralEventService ephemeralEventService;
+    private final ChatMessagePublisher chatMessagePublisher;
+    private final GroupChatService groupChatService;
+    private final GroupFanOutService groupFanOutService;
 
     @MessageMapping("/chat.send")
     public void sendMessage(@Payload SendMessageRequest request, Principal principal) {
-        String senderUsername = principal.getName();
-        User sender = userRepository.findUserByUsername(senderUsername);
+        User sender = resolveUser(principal);
 
         if (sender == null) {
             throw new RuntimeException("Sender not found");
         }
 
-        User receiver = userRepository.findById(request.getReceiverId())
+        User receiver = userIdentityCacheService.findById(request.getReceiverId())
+                .filter(UserIdentity::isUsable)
+                .map(UserIdentity::toUserReference)
                 .orElseThrow(() -> new RuntimeException("Receiver not found"));
 
+        // Write-behind: the receiver is notified now, the sender's echo follows once the batch commits
+        ChatMessageDTO queuedDTO = chatWriteBehindService.submit(sender, receiver, request.getContent());
+        if (queuedDTO != null) {
+            chatMessagePublisher.publish(receiver.getUsername(), queuedDTO);
+            return;
+        }
+
         ChatMessage message = chatService.sendMessage(sender, receiver, request.getContent());
         ChatMessageDTO messageDTO = chatService.convertToDTO(message);
 
-        messagingTemplate.convertAndSendToUser(
-                receiver.getUsername(),
-                "/queue/messages",
-                messageDTO
-        );
-
-        messagingTemplate.convertAndSendToUser(
-                sender.getUsername(),
-                "/queue/messages",
-                messageDTO
-        );
+        // Offline receivers are skipped; they get the message through catch-up when they reconnect
+        chatMessagePublisher.publish(receiver.getUsername(), messageDTO);
+        chatMessagePublisher.publish(sender.getUsername(), messageDTO);
     }
 
     @MessageMapping("/chat.markDelivered")
-    public void markAsDelivered(@Payload Long messageId, Principal principal) {
-        chatService.markMessageAsDelivered(messageId);
+    public void markAsDelivered(@Payload Long messageId, Principal principal,
+                                @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        markAsDeliveredBatch(new DeliveryAckRequest(List.of(messageId), null, null), principal, sessionId);
+    }
+
+    @MessageMapping("/chat.markDeliveredBatch")
+    public void markAsDeliveredBatch(@Payload DeliveryAckRequest request, Principal principal,
+                                     @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        User user = resolveUser(principal);
+
+        if (user != null) {
+            // Messages still waiting in the write-behind queue first; the database update covers the rest
+            chatWriteBehindService.acknowledgeDelivered(request, user.getId());
+            Map<String, MessageStatusEvent> events = chatService.markMessagesAsDelivered(request, user);
+            events.forEach((senderUsername, event) ->
+                    messagingTemplate.convertAndSendToUser(senderUsername, "/queue/message-status", event));
+            chatDeliveryService.advanceCursor(sessionId, request);
+        }
+    }
+
+    /**
+     * Continues a catch-up that stopped at chat.delivery.catch-up-max-messages, from the cursor
+     * of the last batch received.
+     */
+    @MessageMapping("/chat.catchUp")
+    public void catchUp(@Payload Long cursor,
+                        @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+        chatDeliveryService.catchUp(sessionId, cursor);
+    }
+
+    /**
+     * Typing and recording indicators. In-memory only: no database access and no audit entry.
+     */
+    @MessageMapping("/chat.typing")
+    public void typing(@Payload EphemeralEventRequest request, Principal principal) {
+        ephemeralEventService.publish(userIdentityCacheService.resolve(principal), request);
     }
 
     @MessageMapping("/chat.markRead")
     public void markAsRead(@Payload Long conversationId, Principal principal) {
-        String username = principal.getName();
-        User user = userRepository.findUserByUsername(username);
+        User user = resolveUser(principal);
 
         if (user != null) {
+            chatWriteBehindService.acknowledgeRead(conversationId, user.getId());
             chatService.markMessagesAsRead(conversationId, user);
         }
     }
+
+    /**
+     * Group messages are stored once and fanned out after the commit to the members online now,
+     * the sender included; the others load them over REST.
+     */
+    @MessageMapping("/chat.group.send")
+    public void sendGroupMessage(@Payload SendGroupMessageRequest request, Principal principal) {
+        User sender = resolveUser(principal);
+
+        if (sender == null) {
+            throw new RuntimeException("Sender not found");
+        }
+
+        GroupMessageDTO message = groupChatService.sendMessage(request.getGroupId(), sender, request.getContent());
+        groupFanOutService.publish(message);
+    }
+
+    @MessageMapping("/chat.group.markRead")
+    public void markGroupAsRead(@Payload Long groupId, Principal principal) {
+        User user = resolveUser(principal);
+
+        if (user != null) {
+            groupChatService.markRead(groupId, user);
+        }
+    }
+
+    private User resolveUser(Principal principal) {
+        UserIdentity identity = userIdentityCacheService.resolve(principal);
+        return identity != null ? identity.toUserReference() : null;
+    }
 }
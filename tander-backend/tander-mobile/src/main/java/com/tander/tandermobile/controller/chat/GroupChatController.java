@@ -0,0 +1,189 @@
+package com.tander.tandermobile.controller.chat;
+
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.CreateGroupRequest;
+import com.tander.tandermobile.dto.chat.GroupConversationDTO;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import com.tander.tandermobile.dto.chat.GroupMembersRequest;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import com.tander.tandermobile.dto.chat.GroupMessagePageDTO;
+import com.tander.tandermobile.dto.chat.SendGroupMessageRequest;
+import com.tander.tandermobile.service.chat.group.GroupChatService;
+import com.tander.tandermobile.service.chat.group.GroupFanOutService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/chat/groups")
+@RequiredArgsConstructor
+public class GroupChatController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupChatController.class);
+
+    private final GroupChatService groupChatService;
+    private final GroupFanOutService groupFanOutService;
+    private final UserIdentityCacheService userIdentityCacheService;
+
+    @PostMapping
+    public ResponseEntity<GroupConversationDTO> createGroup(
+            @RequestBody CreateGroupRequest request,
+            Authentication authentication) {
+        User owner = resolveUser(authentication);
+
+        if (owner == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            GroupConversationDTO group = groupChatService.createGroup(owner, request.getName(), request.getMemberIds());
+            return ResponseEntity.status(HttpStatus.CREATED).body(group);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<GroupConversationDTO>> getUserGroups(Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(groupChatService.getUserGroups(user));
+    }
+
+    @GetMapping("/{groupId}/messages")
+    public ResponseEntity<GroupMessagePageDTO> getGroupMessages(
+            @PathVariable Long groupId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(groupChatService.getMessagesPage(groupId, user, before, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @PostMapping("/{groupId}/messages")
+    public ResponseEntity<GroupMessageDTO> sendGroupMessage(
+            @PathVariable Long groupId,
+            @RequestBody SendGroupMessageRequest request,
+            Authentication authentication) {
+        User sender = resolveUser(authentication);
+
+        if (sender == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        GroupMessageDTO message;
+        try {
+            message = groupChatService.sendMessage(groupId, sender, request.getContent());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        // The message is stored: a failed push must not turn into an error the client would retry
+        try {
+            groupFanOutService.publish(message);
+        } catch (RuntimeException e) {
+            LOGGER.error("[GROUP CHAT] Failed to push message {} to members of group {}", message.getId(), groupId, e);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(message);
+    }
+
+    @GetMapping("/{groupId}/members")
+    public ResponseEntity<List<GroupMemberDTO>> getMembers(
+            @PathVariable Long groupId,
+            Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(groupChatService.getMembers(groupId, user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @PostMapping("/{groupId}/members")
+    public ResponseEntity<Void> addMembers(
+            @PathVariable Long groupId,
+            @RequestBody GroupMembersRequest request,
+            Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            groupChatService.addMembers(groupId, user, request.getUserIds());
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @DeleteMapping("/{groupId}/members/{userId}")
+    public ResponseEntity<Void> removeMember(
+            @PathVariable Long groupId,
+            @PathVariable Long userId,
+            Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            groupChatService.removeMember(groupId, user, userId);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    @PostMapping("/{groupId}/mark-read")
+    public ResponseEntity<Void> markGroupAsRead(
+            @PathVariable Long groupId,
+            Authentication authentication) {
+        User user = resolveUser(authentication);
+
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            groupChatService.markRead(groupId, user);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+    }
+
+    private User resolveUser(Principal principal) {
+        UserIdentity identity = userIdentityCacheService.resolve(principal);
+        return identity != null ? identity.toUserReference() : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tander.tandermobile.domain.audit;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Runtime override of the audit policy configured for one event type ({@code audit.policy.events}).
+ * Every node reloads these rows periodically, so a change applies cluster-wide without a restart.
+ */
+@Entity
+@Table(name = "audit_event_policies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditEventPolicy implements Serializable {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", length = 50, nullable = false, updatable = false)
+    private AuditEventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "policy_mode", nullable = false, length = 20)
+    private AuditPolicyMode mode;
+
+    /**
+     * Share of events recorded under {@link AuditPolicyMode#SAMPLE}, 0 to 100.
+     */
+    @Column(name = "sample_percent")
+    private Double samplePercent;
+
+    @Column(name = "updated_by", length = 255)
+    private String updatedBy;
+
+    @Column(name = "updated_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+}
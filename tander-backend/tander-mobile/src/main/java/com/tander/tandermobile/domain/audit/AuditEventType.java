@@ -33,6 +33,9 @@ public enum AuditEventType {
     CHAT_MESSAGE_DELETED,
     CHAT_CONVERSATION_STARTED,
     CHAT_CONVERSATION_ENDED,
+    CHAT_GROUP_CREATED,
+    CHAT_GROUP_MEMBER_ADDED,
+    CHAT_GROUP_MEMBER_REMOVED,
 
     // Video Call Events (for future implementation)
     VIDEO_CALL_INITIATED,
@@ -54,5 +57,24 @@ public enum AuditEventType {
     ACCOUNT_LOCKED,
     ACCOUNT_UNLOCKED,
     ACCOUNT_SOFT_DELETED,
-    ACCOUNT_REACTIVATED
+    ACCOUNT_REACTIVATED,
+
+    // Audit Events
+    AUDIT_LOG_EXPORTED,
+    AUDIT_POLICY_CHANGED;
+
+    /**
+     * Events that must not be dropped when the audit writer is overloaded
+     * (see {@code AuditOverflowPolicy.DROP_LOW_PRIORITY}).
+     */
+    public boolean isSecurityCritical() {
+        return switch (this) {
+            case LOGIN_SUCCESS, LOGIN_FAILURE, LOGOUT,
+                 PASSWORD_RESET_REQUEST, PASSWORD_RESET_SUCCESS, PASSWORD_RESET_FAILURE,
+                 OTP_VERIFICATION_FAILURE, PROFILE_DELETE,
+                 ACCOUNT_LOCKED, ACCOUNT_UNLOCKED, ACCOUNT_SOFT_DELETED, ACCOUNT_REACTIVATED,
+                 AUDIT_LOG_EXPORTED, AUDIT_POLICY_CHANGED -> true;
+            default -> false;
+        };
+    }
 }
@@ -0,0 +1,34 @@
+package com.tander.tandermobile.domain.audit;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Journal offset up to which a node's local audit journal has been written to audit_log.
+ * Updated in the same transaction as each shipped batch.
+ */
+@Entity
+@Table(name = "audit_journal_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditJournalCheckpoint implements Serializable {
+
+    public static final int JOURNAL_ID_LENGTH = 36;
+
+    @Id
+    @Column(name = "journal_id", length = JOURNAL_ID_LENGTH, nullable = false, updatable = false)
+    private String journalId;
+
+    @Column(name = "shipped_offset", nullable = false)
+    private Long shippedOffset;
+
+    @Column(name = "updated_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+}
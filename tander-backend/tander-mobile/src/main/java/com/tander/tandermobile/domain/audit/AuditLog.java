@@ -1,5 +1,6 @@
 package com.tander.tandermobile.domain.audit;
 
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,15 +11,21 @@ import java.io.Serializable;
 import java.util.Date;
 
 @Entity
-@Table(name = "audit_log")
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_log_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_audit_log_event_created", columnList = "event_type, created_at"),
+        @Index(name = "idx_audit_log_status_created", columnList = "status, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class AuditLog implements Serializable {
 
+    public static final String ID_SEQUENCE = "audit_log_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledLoSequence(ID_SEQUENCE)
     @Column(nullable = false, updatable = false)
     private Long id;
 
@@ -63,6 +70,13 @@ public class AuditLog implements Serializable {
     @Column(name = "session_id", length = 255)
     private String sessionId;
 
+    /**
+     * Number of events the row stands for: the count of an aggregate row, 100 / percent for a
+     * sampled row. Null for rows written for every event, which count once.
+     */
+    @Column(name = "event_weight")
+    private Double eventWeight;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
     private Date createdAt;
@@ -0,0 +1,55 @@
+package com.tander.tandermobile.domain.audit;
+
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Number of audit_log rows per hour, event type and status, maintained by the audit rollup job so
+ * dashboards read a few rows per hour instead of scanning audit_log.
+ */
+@Entity
+@Table(name = "audit_log_hourly_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_audit_hourly_bucket", columnNames = {"bucket_start", "event_type", "status"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogHourlyCount implements Serializable {
+
+    public static final String ID_SEQUENCE = "audit_log_hourly_count_seq";
+
+    @Id
+    @PooledLoSequence(ID_SEQUENCE)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    /**
+     * Start of the hour (UTC) the count covers.
+     */
+    @Column(name = "bucket_start", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private AuditEventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private AuditStatus status;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    @Column(name = "updated_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+}
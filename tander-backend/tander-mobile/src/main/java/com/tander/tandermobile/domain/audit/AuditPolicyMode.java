@@ -0,0 +1,24 @@
+package com.tander.tandermobile.domain.audit;
+
+/**
+ * How the events of one {@link AuditEventType} are recorded.
+ */
+public enum AuditPolicyMode {
+    /**
+     * Every event is written to audit_log.
+     */
+    ALWAYS,
+    /**
+     * A random share of events ({@code samplePercent}) is written; each sampled row notes the rate.
+     */
+    SAMPLE,
+    /**
+     * Events are only counted per status; one row per event type and status carries the count for
+     * each aggregation window.
+     */
+    AGGREGATE,
+    /**
+     * Events are not recorded.
+     */
+    OFF
+}
@@ -0,0 +1,44 @@
+package com.tander.tandermobile.domain.chat;
+
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Highest chat message id a user's device has acknowledged as delivered.
+ * Used to send only the missed messages when the device reconnects.
+ */
+@Entity
+@Table(name = "chat_delivery_cursors", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_delivery_cursor_device", columnNames = {"user_id", "device_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatDeliveryCursor implements Serializable {
+
+    public static final String ID_SEQUENCE = "chat_delivery_cursor_seq";
+    public static final int DEVICE_ID_LENGTH = 100;
+
+    @Id
+    @PooledLoSequence(ID_SEQUENCE)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "device_id", nullable = false, length = DEVICE_ID_LENGTH)
+    private String deviceId;
+
+    @Column(name = "last_delivered_message_id")
+    private Long lastDeliveredMessageId;
+
+    @Column(name = "updated_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+}
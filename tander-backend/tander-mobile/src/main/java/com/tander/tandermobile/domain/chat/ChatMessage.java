@@ -1,35 +1,55 @@
 package com.tander.tandermobile.domain.chat;
 
 import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.Date;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_msg_conv_keyset", columnList = "conversation_id, is_deleted, sent_at, id"),
+        @Index(name = "idx_chat_msg_conv_unread", columnList = "conversation_id, receiver_id, status"),
+        @Index(name = "idx_chat_msg_receiver_id", columnList = "receiver_id, id"),
+        @Index(name = "idx_chat_msg_receiver_status", columnList = "receiver_id, status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatMessage implements Serializable {
 
+    public static final String ID_SEQUENCE = "chat_message_seq";
+
+    /**
+     * Sequence-generated (pooled-lo) rather than IDENTITY so Hibernate can batch inserts,
+     * and so the write-behind pipeline can pre-allocate ids from the same sequence.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledLoSequence(ID_SEQUENCE)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "conversation_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Conversation conversation;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sender_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User sender;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "receiver_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User receiver;
 
     @Column(name = "content", columnDefinition = "CLOB")
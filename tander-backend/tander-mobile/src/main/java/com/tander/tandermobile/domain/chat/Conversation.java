@@ -1,31 +1,48 @@
 package com.tander.tandermobile.domain.chat;
 
 import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.Serializable;
 import java.util.Date;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", uniqueConstraints = {
+        // Participants are stored in canonical order: user1_id < user2_id
+        @UniqueConstraint(name = "uk_conversation_participants", columnNames = {"user1_id", "user2_id"})
+}, indexes = {
+        @Index(name = "idx_conversation_user1", columnList = "user1_id, last_message_at"),
+        @Index(name = "idx_conversation_user2", columnList = "user2_id, last_message_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Conversation implements Serializable {
 
+    public static final String ID_SEQUENCE = "conversation_seq";
+    public static final int LAST_MESSAGE_PREVIEW_LENGTH = 255;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledLoSequence(ID_SEQUENCE)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user1_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user1;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user2_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user2;
 
     @Column(name = "created_at")
@@ -39,10 +56,54 @@ public class Conversation implements Serializable {
     @Column(name = "is_active")
     private boolean isActive;
 
+    /**
+     * Inbox summary, maintained by ChatServiceImpl on every send, read and delete
+     * so the inbox never has to scan chat_messages.
+     */
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_message_preview", length = LAST_MESSAGE_PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(name = "user1_unread")
+    private Long user1Unread;
+
+    @Column(name = "user2_unread")
+    private Long user2Unread;
+
+    /**
+     * Read watermarks: send time and id of the newest message each participant has read.
+     * Read receipts compare message send times against these instead of per-message status rows;
+     * ids are allocated in per-node blocks and do not follow send order.
+     */
+    @Column(name = "user1_last_read_message_id")
+    private Long user1LastReadMessageId;
+
+    @Column(name = "user2_last_read_message_id")
+    private Long user2LastReadMessageId;
+
+    @Column(name = "user1_last_read_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date user1LastReadAt;
+
+    @Column(name = "user2_last_read_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date user2LastReadAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = new Date();
         lastMessageAt = new Date();
         isActive = true;
+        user1Unread = 0L;
+        user2Unread = 0L;
+    }
+
+    /**
+     * Cuts message content down to what the inbox shows, so the summary column stays a short VARCHAR.
+     */
+    public static String previewOf(String content) {
+        return StringUtils.truncate(content, LAST_MESSAGE_PREVIEW_LENGTH);
     }
 }
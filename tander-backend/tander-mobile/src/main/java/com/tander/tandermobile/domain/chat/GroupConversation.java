@@ -0,0 +1,74 @@
+package com.tander.tandermobile.domain.chat;
+
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Group chat (interest groups, family circles). Members are rows in {@link GroupMember};
+ * messages are {@link GroupMessage}s, which have no receiver and no per-message status.
+ */
+@Entity
+@Table(name = "group_conversations")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupConversation implements Serializable {
+
+    public static final String ID_SEQUENCE = "group_conversation_seq";
+    public static final int NAME_LENGTH = 100;
+
+    @Id
+    @PooledLoSequence(ID_SEQUENCE)
+    private Long id;
+
+    @Column(name = "name", length = NAME_LENGTH, nullable = false)
+    private String name;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User createdBy;
+
+    @Column(name = "created_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Column(name = "last_message_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastMessageAt;
+
+    /**
+     * Inbox summary, maintained on every send like {@link Conversation}'s.
+     */
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(name = "last_message_preview", length = Conversation.LAST_MESSAGE_PREVIEW_LENGTH)
+    private String lastMessagePreview;
+
+    @Column(name = "member_count")
+    private Integer memberCount;
+
+    @Column(name = "is_active")
+    private boolean isActive;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+        lastMessageAt = createdAt;
+        isActive = true;
+        if (memberCount == null) {
+            memberCount = 0;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.tander.tandermobile.domain.chat;
+
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Membership of a user in a group. {@code lastReadAt} and {@code lastReadMessageId} are the member's
+ * read watermark, the (sentAt, id) of the last message read: unread counts and "seen by" are derived
+ * from it instead of from per-message status rows.
+ */
+@Entity
+@Table(name = "group_members", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_group_member", columnNames = {"group_id", "user_id"})
+}, indexes = {
+        @Index(name = "idx_group_member_user", columnList = "user_id, group_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMember implements Serializable {
+
+    public static final String ID_SEQUENCE = "group_member_seq";
+
+    @Id
+    @PooledLoSequence(ID_SEQUENCE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private GroupConversation group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", length = 20, nullable = false)
+    private GroupMemberRole role;
+
+    @Column(name = "joined_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date joinedAt;
+
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    @Column(name = "last_read_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastReadAt;
+
+    @PrePersist
+    protected void onCreate() {
+        joinedAt = new Date();
+    }
+}
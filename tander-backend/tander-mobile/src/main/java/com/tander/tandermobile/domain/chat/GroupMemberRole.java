@@ -0,0 +1,6 @@
+package com.tander.tandermobile.domain.chat;
+
+public enum GroupMemberRole {
+    OWNER,
+    MEMBER
+}
@@ -0,0 +1,61 @@
+package com.tander.tandermobile.domain.chat;
+
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.utils.persistence.PooledLoSequence;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * A message in a group. Stored once regardless of the member count; read state lives in the
+ * members' watermarks ({@link GroupMember#getLastReadMessageId()}).
+ */
+@Entity
+@Table(name = "group_messages", indexes = {
+        @Index(name = "idx_group_msg_keyset", columnList = "group_id, is_deleted, sent_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMessage implements Serializable {
+
+    public static final String ID_SEQUENCE = "group_message_seq";
+
+    @Id
+    @PooledLoSequence(ID_SEQUENCE)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private GroupConversation group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sender_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User sender;
+
+    @Column(name = "content", columnDefinition = "CLOB")
+    private String content;
+
+    @Column(name = "sent_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date sentAt;
+
+    @Column(name = "is_deleted")
+    private boolean isDeleted;
+
+    @PrePersist
+    protected void onCreate() {
+        sentAt = new Date();
+        isDeleted = false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tander.tandermobile.domain.user.principal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * Principal of a request authenticated with a JWT. Carries the user id from the token's claims,
+ * so handlers can identify the caller without a user lookup. {@link #getName()} is the username,
+ * which keeps {@code Authentication.getName()} and STOMP user destinations unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthenticatedUserPrincipal implements Principal, Serializable {
+    private Long id;
+    private String username;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
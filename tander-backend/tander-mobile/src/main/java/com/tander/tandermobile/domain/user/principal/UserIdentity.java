@@ -0,0 +1,43 @@
+package com.tander.tandermobile.domain.user.principal;
+
+import com.tander.tandermobile.domain.user.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Lightweight identity of a user: just the fields the chat endpoints need to authorize a request,
+ * without loading the full {@code login} entity and its profile association.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentity implements Serializable {
+    private Long id;
+    private String username;
+    private Boolean isActive;
+    private Boolean isLocked;
+    private Date softDeletedAt;
+
+    /**
+     * Whether the account may still use authenticated features.
+     * A null active flag (legacy records) counts as active.
+     */
+    public boolean isUsable() {
+        return softDeletedAt == null && !Boolean.TRUE.equals(isLocked) && !Boolean.FALSE.equals(isActive);
+    }
+
+    /**
+     * Builds a detached {@link User} carrying only the id and username. It can be used as an
+     * association target or query parameter (Hibernate only needs the id), but must never be saved.
+     */
+    public User toUserReference() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -36,6 +36,15 @@ public class UserPrincipal implements UserDetails {
         return authorities;
     }
 
+    /**
+     * Gets the id of the underlying user.
+     *
+     * @return the user id
+     */
+    public Long getId() {
+        return this.user.getId();
+    }
+
     @Override
     public String getPassword() {
         return this.user.getPassword();
@@ -0,0 +1,27 @@
+package com.tander.tandermobile.dto.audit;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Which audit entries an export covers: created in [from, to), optionally narrowed to one user,
+ * event type or status. {@code includeValues} adds the old_value and new_value CLOBs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogExportFilter {
+    private Date from;
+    private Date to;
+    private Long userId;
+    private AuditEventType eventType;
+    private AuditStatus status;
+    private boolean includeValues;
+}
@@ -0,0 +1,22 @@
+package com.tander.tandermobile.dto.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One page of audit entries, newest first.
+ * {@code nextBeforeCreatedAt} and {@code nextBeforeId} are the cursor to pass to load the next (older) page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageDTO {
+    private List<AuditLogSummaryDTO> entries;
+    private Date nextBeforeCreatedAt;
+    private Long nextBeforeId;
+    private boolean hasMore;
+}
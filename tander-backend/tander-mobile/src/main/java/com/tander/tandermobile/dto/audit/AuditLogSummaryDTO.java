@@ -0,0 +1,32 @@
+package com.tander.tandermobile.dto.audit;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * An audit_log row without its CLOB columns (old_value, new_value), for lists and pages.
+ * The full entry is loaded by id when its values are needed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogSummaryDTO {
+    private Long id;
+    private Long userId;
+    private String username;
+    private AuditEventType eventType;
+    private AuditStatus status;
+    private String entityType;
+    private Long entityId;
+    private String ipAddress;
+    private String userAgent;
+    private String description;
+    private String errorMessage;
+    private String sessionId;
+    private Date createdAt;
+}
@@ -0,0 +1,26 @@
+package com.tander.tandermobile.dto.audit;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditPolicyMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * The effective audit policy of one event type. {@code overridden} is true when it comes from a
+ * runtime override rather than configuration; {@code updatedBy} and {@code updatedAt} describe that override.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPolicyDTO {
+    private AuditEventType eventType;
+    private AuditPolicyMode mode;
+    private double samplePercent;
+    private boolean securityCritical;
+    private boolean overridden;
+    private String updatedBy;
+    private Date updatedAt;
+}
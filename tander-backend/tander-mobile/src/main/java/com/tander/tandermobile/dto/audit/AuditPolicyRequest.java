@@ -0,0 +1,15 @@
+package com.tander.tandermobile.dto.audit;
+
+import com.tander.tandermobile.domain.audit.AuditPolicyMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPolicyRequest {
+    private AuditPolicyMode mode;
+    // Required for SAMPLE, 0 to 100
+    private Double samplePercent;
+}
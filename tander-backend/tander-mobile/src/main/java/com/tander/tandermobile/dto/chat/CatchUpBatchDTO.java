@@ -0,0 +1,22 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One batch of messages missed while a device was offline, pushed on /user/queue/catch-up.
+ * Messages are in id order and may repeat ones the device already has; clients de-duplicate by id.
+ * When {@code hasMore} is set the catch-up stopped at its size limit: send {@code cursor} to
+ * /app/chat.catchUp to continue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatchUpBatchDTO {
+    private List<ChatMessageDTO> messages;
+    private Long cursor;
+    private boolean hasMore;
+}
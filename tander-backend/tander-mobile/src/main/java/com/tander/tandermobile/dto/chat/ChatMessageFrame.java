@@ -0,0 +1,43 @@
+package com.tander.tandermobile.dto.chat;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.tander.tandermobile.domain.chat.MessageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact wire form of {@link ChatMessageDTO} for /user/queue/messages-compact (CBOR).
+ * Usernames and the receiver id are left out (the client knows its peers and itself), keys are
+ * one or two characters and the send time is epoch milliseconds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatMessageFrame {
+    @JsonProperty("i")
+    private Long id;
+    @JsonProperty("c")
+    private Long conversationId;
+    @JsonProperty("s")
+    private Long senderId;
+    @JsonProperty("t")
+    private String content;
+    @JsonProperty("at")
+    private Long sentAt;
+    @JsonProperty("st")
+    private MessageStatus status;
+
+    public static ChatMessageFrame from(ChatMessageDTO message) {
+        return new ChatMessageFrame(
+                message.getId(),
+                message.getConversationId(),
+                message.getSenderId(),
+                message.getContent(),
+                message.getSentAt() != null ? message.getSentAt().getTime() : null,
+                message.getStatus()
+        );
+    }
+}
@@ -20,4 +20,11 @@ public class ConversationDTO {
     private String lastMessage;
     private Long unreadCount;
     private boolean isActive;
+    private Long peerId;
+    private String peerUsername;
+    private Long peerLastReadMessageId;
+    /**
+     * Send time of the newest message the peer has read; messages sent at or before it are read.
+     */
+    private Date peerLastReadAt;
 }
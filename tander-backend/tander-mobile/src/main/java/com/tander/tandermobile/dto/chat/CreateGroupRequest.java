@@ -0,0 +1,15 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateGroupRequest {
+    private String name;
+    private List<Long> memberIds;
+}
@@ -0,0 +1,18 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Minimal projection of a message whose delivery is being acknowledged:
+ * just enough to route the status event back to its sender.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveredMessageRef {
+    private Long messageId;
+    private Long conversationId;
+    private String senderUsername;
+}
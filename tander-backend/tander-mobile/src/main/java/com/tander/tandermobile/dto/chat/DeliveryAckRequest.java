@@ -0,0 +1,21 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch delivery acknowledgement sent by a receiver's device.
+ * Either list the delivered {@code messageIds}, or send a {@code conversationId} together with
+ * {@code upToMessageId} to acknowledge everything received in that conversation up to that message.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryAckRequest {
+    private List<Long> messageIds;
+    private Long conversationId;
+    private Long upToMessageId;
+}
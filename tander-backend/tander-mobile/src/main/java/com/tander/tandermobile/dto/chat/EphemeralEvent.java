@@ -0,0 +1,17 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Typing or recording indicator pushed on /user/queue/ephemeral. Never persisted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EphemeralEvent {
+    private Long senderId;
+    private String senderUsername;
+    private EphemeralEventType type;
+}
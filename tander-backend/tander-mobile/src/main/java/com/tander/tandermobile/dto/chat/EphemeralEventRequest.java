@@ -0,0 +1,16 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Payload of /app/chat.typing: what the sender is currently doing in the chat with {@code receiverId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EphemeralEventRequest {
+    private Long receiverId;
+    private EphemeralEventType type;
+}
@@ -0,0 +1,14 @@
+package com.tander.tandermobile.dto.chat;
+
+/**
+ * Kinds of ephemeral chat events. {@link #STOPPED} ends whichever activity was last reported.
+ */
+public enum EphemeralEventType {
+    TYPING,
+    RECORDING,
+    STOPPED;
+
+    public boolean isActivity() {
+        return this != STOPPED;
+    }
+}
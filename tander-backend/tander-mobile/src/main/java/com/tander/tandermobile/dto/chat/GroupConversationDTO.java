@@ -0,0 +1,26 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A group in the caller's inbox. {@code unreadCount} counts messages after the caller's read watermark.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupConversationDTO {
+    private Long id;
+    private String name;
+    private Integer memberCount;
+    private Date createdAt;
+    private Date lastMessageAt;
+    private Long lastMessageId;
+    private String lastMessage;
+    private Long lastReadMessageId;
+    private Date lastReadAt;
+    private Long unreadCount;
+}
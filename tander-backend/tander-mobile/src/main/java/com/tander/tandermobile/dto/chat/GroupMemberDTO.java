@@ -0,0 +1,23 @@
+package com.tander.tandermobile.dto.chat;
+
+import com.tander.tandermobile.domain.chat.GroupMemberRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A group member with their read watermark; a message was seen by every member whose
+ * ({@code lastReadAt}, {@code lastReadMessageId}) is at or after its (sentAt, id).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMemberDTO {
+    private Long userId;
+    private String username;
+    private GroupMemberRole role;
+    private Long lastReadMessageId;
+    private Date lastReadAt;
+}
@@ -0,0 +1,19 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMessageDTO {
+    private Long id;
+    private Long groupId;
+    private Long senderId;
+    private String senderUsername;
+    private String content;
+    private Date sentAt;
+}
@@ -0,0 +1,20 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of group history, oldest message first.
+ * {@code nextCursor} is the id to pass as {@code before} to load the next (older) page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMessagePageDTO {
+    private List<GroupMessageDTO> messages;
+    private Long nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.tander.tandermobile.dto.chat;
+
+import com.tander.tandermobile.domain.chat.MessageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Aggregated status change pushed to a message sender on /user/queue/message-status.
+ * Carries either the affected {@code messageIds}, or an {@code upToMessageId} watermark meaning
+ * every message in the conversation up to and including that id reached {@code status}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageStatusEvent {
+    private Long conversationId;
+    private MessageStatus status;
+    private List<Long> messageIds;
+    private Long upToMessageId;
+}
@@ -0,0 +1,21 @@
+package com.tander.tandermobile.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Online status of a conversation peer, pushed on /user/topic/presence.
+ * {@code lastSeenAt} is when the user was last active; for an online user it is the latest frame or heartbeat.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceEvent {
+    private Long userId;
+    private String username;
+    private boolean online;
+    private Date lastSeenAt;
+}
@@ -0,0 +1,10 @@
+package com.tander.tandermobile.repository.audit;
+
+import com.tander.tandermobile.domain.audit.AuditEventPolicy;
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuditEventPolicyRepository extends JpaRepository<AuditEventPolicy, AuditEventType> {
+}
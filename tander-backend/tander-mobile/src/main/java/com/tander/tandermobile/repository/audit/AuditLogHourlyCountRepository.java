@@ -0,0 +1,35 @@
+package com.tander.tandermobile.repository.audit;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLogHourlyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface AuditLogHourlyCountRepository extends JpaRepository<AuditLogHourlyCount, Long> {
+
+    @Query("SELECT c FROM AuditLogHourlyCount c WHERE c.bucketStart >= :from AND c.bucketStart < :to " +
+            "ORDER BY c.bucketStart, c.eventType, c.status")
+    List<AuditLogHourlyCount> findByBucketRange(
+            @Param("from") Date from,
+            @Param("to") Date to
+    );
+
+    @Query("SELECT c FROM AuditLogHourlyCount c WHERE c.eventType = :eventType " +
+            "AND c.bucketStart >= :from AND c.bucketStart < :to ORDER BY c.bucketStart, c.status")
+    List<AuditLogHourlyCount> findByEventTypeAndBucketRange(
+            @Param("eventType") AuditEventType eventType,
+            @Param("from") Date from,
+            @Param("to") Date to
+    );
+
+    @Modifying
+    @Query("DELETE FROM AuditLogHourlyCount c WHERE c.bucketStart = :bucketStart")
+    int deleteByBucketStart(@Param("bucketStart") Date bucketStart);
+}
@@ -3,6 +3,8 @@ package com.tander.tandermobile.repository.audit;
 import com.tander.tandermobile.domain.audit.AuditEventType;
 import com.tander.tandermobile.domain.audit.AuditLog;
 import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.dto.audit.AuditLogSummaryDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +16,19 @@ import java.util.List;
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
 
+    /**
+     * Every column except the old_value and new_value CLOBs.
+     */
+    String SUMMARY_SELECT = "SELECT new com.tander.tandermobile.dto.audit.AuditLogSummaryDTO(" +
+            "a.id, a.userId, a.username, a.eventType, a.status, a.entityType, a.entityId, a.ipAddress, " +
+            "a.userAgent, a.description, a.errorMessage, a.sessionId, a.createdAt) FROM AuditLog a ";
+
+    /**
+     * Keyset condition: entries older than the cursor entry, newest first.
+     */
+    String BEFORE_CURSOR = "AND (a.createdAt < :beforeCreatedAt OR (a.createdAt = :beforeCreatedAt AND a.id < :beforeId)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC";
+
     List<AuditLog> findByUserId(Long userId);
 
     List<AuditLog> findByUsername(String username);
@@ -43,4 +58,49 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             @Param("status") AuditStatus status,
             @Param("since") Date since
     );
+
+    @Query(SUMMARY_SELECT + "WHERE a.userId = :userId " + BEFORE_CURSOR)
+    List<AuditLogSummaryDTO> findSummariesByUserIdBefore(
+            @Param("userId") Long userId,
+            @Param("beforeCreatedAt") Date beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + "WHERE a.username = :username " + BEFORE_CURSOR)
+    List<AuditLogSummaryDTO> findSummariesByUsernameBefore(
+            @Param("username") String username,
+            @Param("beforeCreatedAt") Date beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + "WHERE a.eventType = :eventType " + BEFORE_CURSOR)
+    List<AuditLogSummaryDTO> findSummariesByEventTypeBefore(
+            @Param("eventType") AuditEventType eventType,
+            @Param("beforeCreatedAt") Date beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    @Query(SUMMARY_SELECT + "WHERE a.status = :status AND a.createdAt >= :since " + BEFORE_CURSOR)
+    List<AuditLogSummaryDTO> findSummariesByStatusSinceBefore(
+            @Param("status") AuditStatus status,
+            @Param("since") Date since,
+            @Param("beforeCreatedAt") Date beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable
+    );
+
+    /**
+     * Counts events per event type and status in [from, to), as {eventType, status, count} rows.
+     * Each row counts its event_weight, so sampled and aggregated events are scaled back up; the
+     * count is a Double because sample weights need not be whole numbers.
+     */
+    @Query("SELECT a.eventType, a.status, SUM(COALESCE(a.eventWeight, 1.0)) FROM AuditLog a " +
+            "WHERE a.createdAt >= :from AND a.createdAt < :to GROUP BY a.eventType, a.status")
+    List<Object[]> countByEventTypeAndStatus(
+            @Param("from") Date from,
+            @Param("to") Date to
+    );
 }
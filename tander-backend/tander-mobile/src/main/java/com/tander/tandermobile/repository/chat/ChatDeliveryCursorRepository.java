@@ -0,0 +1,32 @@
+package com.tander.tandermobile.repository.chat;
+
+import com.tander.tandermobile.domain.chat.ChatDeliveryCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.Optional;
+
+public interface ChatDeliveryCursorRepository extends JpaRepository<ChatDeliveryCursor, Long> {
+
+    @Query("SELECT c.lastDeliveredMessageId FROM ChatDeliveryCursor c WHERE c.userId = :userId AND c.deviceId = :deviceId")
+    Optional<Long> findCursor(@Param("userId") Long userId, @Param("deviceId") String deviceId);
+
+    /**
+     * Moves the cursor forward only; acknowledgements arriving out of order never move it back.
+     *
+     * @return 0 if the device has no cursor row yet or the cursor is already past {@code messageId}
+     */
+    @Modifying
+    @Query("UPDATE ChatDeliveryCursor c SET c.lastDeliveredMessageId = :messageId, c.updatedAt = :now " +
+            "WHERE c.userId = :userId AND c.deviceId = :deviceId " +
+            "AND (c.lastDeliveredMessageId IS NULL OR c.lastDeliveredMessageId < :messageId)")
+    int advance(@Param("userId") Long userId,
+                @Param("deviceId") String deviceId,
+                @Param("messageId") Long messageId,
+                @Param("now") Date now);
+
+    boolean existsByUserIdAndDeviceId(Long userId, String deviceId);
+}
@@ -2,25 +2,134 @@ package com.tander.tandermobile.repository.chat;
 
 import com.tander.tandermobile.domain.chat.ChatMessage;
 import com.tander.tandermobile.domain.chat.Conversation;
-import com.tander.tandermobile.domain.chat.MessageStatus;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.DeliveredMessageRef;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    List<ChatMessage> findByConversationAndIsDeletedFalseOrderBySentAtAsc(Conversation conversation);
+    /**
+     * Message reads are projected straight into {@link ChatMessageDTO}: only chat_messages plus a join
+     * to login for the two usernames, with no entity graph or profile association loaded.
+     */
+    String MESSAGE_DTO_SELECT = "SELECT new com.tander.tandermobile.dto.chat.ChatMessageDTO(" +
+            "m.id, m.conversation.id, s.id, s.username, r.id, r.username, m.content, m.sentAt, m.status) " +
+            "FROM ChatMessage m JOIN m.sender s JOIN m.receiver r ";
 
-    @Query("SELECT m FROM ChatMessage m WHERE m.conversation = :conversation AND m.isDeleted = false ORDER BY m.sentAt DESC")
-    List<ChatMessage> findRecentMessagesByConversation(@Param("conversation") Conversation conversation);
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.conversation = :conversation AND m.isDeleted = false ORDER BY m.sentAt ASC, m.id ASC")
+    List<ChatMessageDTO> findMessageDTOs(@Param("conversation") Conversation conversation);
 
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.conversation = :conversation AND m.isDeleted = false ORDER BY m.sentAt DESC, m.id DESC")
+    List<ChatMessageDTO> findLatestMessageDTOs(@Param("conversation") Conversation conversation, Pageable pageable);
+
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.conversation = :conversation AND m.isDeleted = false " +
+            "AND (m.sentAt < :beforeSentAt OR (m.sentAt = :beforeSentAt AND m.id < :beforeId)) " +
+            "ORDER BY m.sentAt DESC, m.id DESC")
+    List<ChatMessageDTO> findMessageDTOsBefore(@Param("conversation") Conversation conversation,
+                                               @Param("beforeSentAt") Date beforeSentAt,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable pageable);
+
+    /**
+     * Catch-up after a reconnect: messages the user received with an id above the device's cursor,
+     * in id order, one keyset page at a time ({@code afterId} starts at the cursor).
+     */
+    @Query(MESSAGE_DTO_SELECT + "WHERE r.id = :receiverId AND m.id > :afterId AND m.isDeleted = false ORDER BY m.id ASC")
+    List<ChatMessageDTO> findReceivedAfter(@Param("receiverId") Long receiverId,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /**
+     * Undelivered messages at or below the device's cursor. Ids from a pooled sequence are only roughly
+     * ordered across nodes, so a message can commit with an id below one that was already delivered.
+     * Reads only the receiver's SENT rows through idx_chat_msg_receiver_status, so the cost follows the
+     * number of undelivered messages rather than the length of the received history.
+     */
+    @Query(MESSAGE_DTO_SELECT + "WHERE r.id = :receiverId AND m.id > :afterId AND m.id <= :cursor " +
+            "AND m.status = com.tander.tandermobile.domain.chat.MessageStatus.SENT AND m.isDeleted = false ORDER BY m.id ASC")
+    List<ChatMessageDTO> findUndeliveredUpTo(@Param("receiverId") Long receiverId,
+                                             @Param("afterId") Long afterId,
+                                             @Param("cursor") Long cursor,
+                                             Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m WHERE m.conversation = :conversation AND m.isDeleted = false ORDER BY m.sentAt DESC, m.id DESC")
+    List<ChatMessage> findLatestPage(@Param("conversation") Conversation conversation, Pageable pageable);
+
+    @Query("SELECT m.sentAt FROM ChatMessage m WHERE m.id = :messageId AND m.conversation = :conversation")
+    Optional<Date> findSentAtInConversation(@Param("messageId") Long messageId, @Param("conversation") Conversation conversation);
+
+    /**
+     * Marks every message the user received in the conversation sent up to {@code upToSentAt} as READ
+     * in one set-based statement, regardless of how long the history is. Deleted messages are left
+     * alone since they no longer count as unread, so the result is the number of unread messages cleared.
+     * Bounded by send time, not id: ids come from per-node pooled blocks and do not follow send order.
+     */
     @Modifying
-    @Query("UPDATE ChatMessage m SET m.status = :status WHERE m.id IN :messageIds")
-    void updateMessageStatus(@Param("messageIds") List<Long> messageIds, @Param("status") MessageStatus status);
+    @Query("UPDATE ChatMessage m SET m.status = com.tander.tandermobile.domain.chat.MessageStatus.READ " +
+            "WHERE m.conversation = :conversation AND m.receiver.id = :receiverId " +
+            "AND m.status <> com.tander.tandermobile.domain.chat.MessageStatus.READ AND m.isDeleted = false " +
+            "AND m.sentAt <= :upToSentAt")
+    int markReadUpTo(@Param("conversation") Conversation conversation,
+                     @Param("receiverId") Long receiverId,
+                     @Param("upToSentAt") Date upToSentAt);
 
     @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.conversation = :conversation AND m.receiver.id = :userId AND m.status != 'READ' AND m.isDeleted = false")
     Long countUnreadMessagesInConversation(@Param("conversation") Conversation conversation, @Param("userId") Long userId);
+
+    @Query("SELECT new com.tander.tandermobile.dto.chat.DeliveredMessageRef(m.id, m.conversation.id, s.username) " +
+            "FROM ChatMessage m JOIN m.sender s WHERE m.id IN :messageIds AND m.receiver.id = :receiverId " +
+            "AND m.status = com.tander.tandermobile.domain.chat.MessageStatus.SENT")
+    List<DeliveredMessageRef> findUndeliveredRefs(@Param("messageIds") List<Long> messageIds, @Param("receiverId") Long receiverId);
+
+    /**
+     * Highest of the given ids that the user received and that is no longer SENT.
+     */
+    @Query("SELECT MAX(m.id) FROM ChatMessage m WHERE m.id IN :messageIds AND m.receiver.id = :receiverId " +
+            "AND m.status <> com.tander.tandermobile.domain.chat.MessageStatus.SENT")
+    Long findMaxDeliveredId(@Param("messageIds") List<Long> messageIds, @Param("receiverId") Long receiverId);
+
+    /**
+     * Highest id up to {@code upToMessageId} that the user received in the conversation and that is no longer SENT.
+     */
+    @Query("SELECT MAX(m.id) FROM ChatMessage m WHERE m.conversation.id = :conversationId AND m.receiver.id = :receiverId " +
+            "AND m.id <= :upToMessageId AND m.status <> com.tander.tandermobile.domain.chat.MessageStatus.SENT")
+    Long findMaxDeliveredIdUpTo(@Param("conversationId") Long conversationId,
+                                @Param("receiverId") Long receiverId,
+                                @Param("upToMessageId") Long upToMessageId);
+
+    /**
+     * Soft-deletes a message unless it is deleted already.
+     *
+     * @return 1 if this call deleted the message, 0 if it was deleted before
+     */
+    @Modifying
+    @Query("UPDATE ChatMessage m SET m.isDeleted = true, m.deletedAt = :deletedAt " +
+            "WHERE m.id = :messageId AND m.isDeleted = false")
+    int markDeleted(@Param("messageId") Long messageId, @Param("deletedAt") Date deletedAt);
+
+    @Modifying
+    @Query("UPDATE ChatMessage m SET m.status = com.tander.tandermobile.domain.chat.MessageStatus.DELIVERED " +
+            "WHERE m.id IN :messageIds AND m.receiver.id = :receiverId " +
+            "AND m.status = com.tander.tandermobile.domain.chat.MessageStatus.SENT")
+    int markDelivered(@Param("messageIds") List<Long> messageIds, @Param("receiverId") Long receiverId);
+
+    /**
+     * Marks everything the user received in the conversation up to {@code upToMessageId} as DELIVERED
+     * in one statement. Messages already READ are left untouched.
+     */
+    @Modifying
+    @Query("UPDATE ChatMessage m SET m.status = com.tander.tandermobile.domain.chat.MessageStatus.DELIVERED " +
+            "WHERE m.conversation = :conversation AND m.receiver.id = :receiverId " +
+            "AND m.status = com.tander.tandermobile.domain.chat.MessageStatus.SENT AND m.id <= :upToMessageId")
+    int markDeliveredUpTo(@Param("conversation") Conversation conversation,
+                          @Param("receiverId") Long receiverId,
+                          @Param("upToMessageId") Long upToMessageId);
 }
@@ -2,21 +2,154 @@ package com.tander.tandermobile.repository.chat;
 
 import com.tander.tandermobile.domain.chat.Conversation;
 import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.dto.chat.ConversationDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
-    @Query("SELECT c FROM Conversation c WHERE (c.user1 = :user1 AND c.user2 = :user2) OR (c.user1 = :user2 AND c.user2 = :user1)")
-    Optional<Conversation> findConversationBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
+    /**
+     * Participants are stored in canonical order (user1_id &lt; user2_id), so the lookup is a single
+     * equality match on the uk_conversation_participants unique index.
+     */
+    @Query("SELECT c FROM Conversation c WHERE c.user1.id = :user1Id AND c.user2.id = :user2Id")
+    Optional<Conversation> findByParticipants(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
+
+    @Query("SELECT c.id FROM Conversation c WHERE c.user1.id = :user1Id AND c.user2.id = :user2Id")
+    Optional<Long> findIdByParticipants(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
 
     @Query("SELECT c FROM Conversation c WHERE (c.user1 = :user OR c.user2 = :user) AND c.isActive = true ORDER BY c.lastMessageAt DESC")
     List<Conversation> findActiveConversationsByUser(@Param("user") User user);
 
+    /**
+     * Builds the whole inbox in one indexed read: each active conversation of the user together with
+     * the denormalized last message preview, the user's unread counter, the peer's username and read watermark,
+     * projected straight into {@link ConversationDTO} without touching chat_messages.
+     */
+    @Query("SELECT new com.tander.tandermobile.dto.chat.ConversationDTO(" +
+            "c.id, u1.id, u1.username, u2.id, u2.username, c.createdAt, c.lastMessageAt, c.lastMessagePreview, " +
+            "CASE WHEN u1.id = :userId THEN COALESCE(c.user1Unread, 0L) ELSE COALESCE(c.user2Unread, 0L) END, " +
+            "c.isActive, " +
+            "CASE WHEN u1.id = :userId THEN u2.id ELSE u1.id END, " +
+            "CASE WHEN u1.id = :userId THEN u2.username ELSE u1.username END, " +
+            "CASE WHEN u1.id = :userId THEN c.user2LastReadMessageId ELSE c.user1LastReadMessageId END, " +
+            "CASE WHEN u1.id = :userId THEN c.user2LastReadAt ELSE c.user1LastReadAt END) " +
+            "FROM Conversation c JOIN c.user1 u1 JOIN c.user2 u2 " +
+            "WHERE (u1.id = :userId OR u2.id = :userId) AND c.isActive = true " +
+            "ORDER BY c.lastMessageAt DESC")
+    List<ConversationDTO> findInboxByUserId(@Param("userId") Long userId);
+
+    /**
+     * Ids of the users the given user has an active conversation with.
+     */
+    @Query("SELECT CASE WHEN c.user1.id = :userId THEN c.user2.id ELSE c.user1.id END FROM Conversation c " +
+            "WHERE (c.user1.id = :userId OR c.user2.id = :userId) AND c.isActive = true")
+    List<Long> findPeerIds(@Param("userId") Long userId);
+
     @Query("SELECT c FROM Conversation c WHERE c.id = :conversationId AND (c.user1 = :user OR c.user2 = :user)")
     Optional<Conversation> findConversationByIdAndUser(@Param("conversationId") Long conversationId, @Param("user") User user);
+
+    /**
+     * Loads a conversation with SELECT ... FOR UPDATE, so sends, reads and deletes touching its
+     * summary wait until the caller's transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Conversation c WHERE c.id = :conversationId")
+    Optional<Conversation> findByIdForUpdate(@Param("conversationId") Long conversationId);
+
+    @Query("SELECT c.id FROM Conversation c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Records a new message on the summary columns and bumps the receiver's unread counter
+     * in a single row update, so concurrent sends cannot lose increments.
+     * {@code unreadIncrement} is 1 for a single send, or the number of messages to that receiver
+     * when the write-behind pipeline flushes several at once.
+     * The last message only moves forward in send time: ids come from per-node blocks and writes from
+     * different nodes or the write-behind pipeline can commit out of order, so lastMessageAt stays the
+     * newest sentAt of the conversation, which {@link #advanceReadWatermark} readers bound by.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.lastMessageId = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageAt <= :sentAt THEN :messageId ELSE c.lastMessageId END, " +
+            "c.lastMessagePreview = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageAt <= :sentAt THEN :preview ELSE c.lastMessagePreview END, " +
+            "c.lastMessageAt = CASE WHEN c.lastMessageId IS NULL OR c.lastMessageAt <= :sentAt THEN :sentAt ELSE c.lastMessageAt END, " +
+            "c.user1Unread = CASE WHEN c.user1.id = :receiverId THEN COALESCE(c.user1Unread, 0L) + :unreadIncrement ELSE c.user1Unread END, " +
+            "c.user2Unread = CASE WHEN c.user2.id = :receiverId THEN COALESCE(c.user2Unread, 0L) + :unreadIncrement ELSE c.user2Unread END " +
+            "WHERE c.id = :conversationId")
+    int applyNewMessage(@Param("conversationId") Long conversationId,
+                        @Param("messageId") Long messageId,
+                        @Param("preview") String preview,
+                        @Param("sentAt") Date sentAt,
+                        @Param("receiverId") Long receiverId,
+                        @Param("unreadIncrement") Long unreadIncrement);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.user1Unread = CASE WHEN c.user1.id = :userId THEN COALESCE(c.user1Unread, 0L) + :increment ELSE c.user1Unread END, " +
+            "c.user2Unread = CASE WHEN c.user2.id = :userId THEN COALESCE(c.user2Unread, 0L) + :increment ELSE c.user2Unread END " +
+            "WHERE c.id = :conversationId")
+    int incrementUnread(@Param("conversationId") Long conversationId,
+                        @Param("userId") Long userId,
+                        @Param("increment") Long increment);
+
+    /**
+     * Moves the user's read watermark forward to the message sent at {@code readAt}, never back, and
+     * takes the {@code readCount} messages just marked READ up to that time off their unread counter,
+     * so messages sent after the bound stay counted. The watermark is keyed on send time: message ids
+     * are allocated in per-node blocks and do not follow send order.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.user1Unread = CASE WHEN c.user1.id = :userId THEN " +
+            "CASE WHEN COALESCE(c.user1Unread, 0L) > :readCount THEN c.user1Unread - :readCount ELSE 0L END " +
+            "ELSE c.user1Unread END, " +
+            "c.user2Unread = CASE WHEN c.user2.id = :userId THEN " +
+            "CASE WHEN COALESCE(c.user2Unread, 0L) > :readCount THEN c.user2Unread - :readCount ELSE 0L END " +
+            "ELSE c.user2Unread END, " +
+            "c.user1LastReadMessageId = CASE WHEN c.user1.id = :userId AND (c.user1LastReadAt IS NULL OR c.user1LastReadAt < :readAt) " +
+            "THEN :messageId ELSE c.user1LastReadMessageId END, " +
+            "c.user1LastReadAt = CASE WHEN c.user1.id = :userId AND (c.user1LastReadAt IS NULL OR c.user1LastReadAt < :readAt) " +
+            "THEN :readAt ELSE c.user1LastReadAt END, " +
+            "c.user2LastReadMessageId = CASE WHEN c.user2.id = :userId AND (c.user2LastReadAt IS NULL OR c.user2LastReadAt < :readAt) " +
+            "THEN :messageId ELSE c.user2LastReadMessageId END, " +
+            "c.user2LastReadAt = CASE WHEN c.user2.id = :userId AND (c.user2LastReadAt IS NULL OR c.user2LastReadAt < :readAt) " +
+            "THEN :readAt ELSE c.user2LastReadAt END " +
+            "WHERE c.id = :conversationId")
+    int advanceReadWatermark(@Param("conversationId") Long conversationId,
+                             @Param("userId") Long userId,
+                             @Param("messageId") Long messageId,
+                             @Param("readAt") Date readAt,
+                             @Param("readCount") Long readCount);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+            "c.user1Unread = CASE WHEN c.user1.id = :userId AND COALESCE(c.user1Unread, 0L) > 0 THEN c.user1Unread - 1 ELSE c.user1Unread END, " +
+            "c.user2Unread = CASE WHEN c.user2.id = :userId AND COALESCE(c.user2Unread, 0L) > 0 THEN c.user2Unread - 1 ELSE c.user2Unread END " +
+            "WHERE c.id = :conversationId")
+    int decrementUnread(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessagePreview = :preview WHERE c.id = :conversationId")
+    int applyLastMessage(@Param("conversationId") Long conversationId,
+                         @Param("messageId") Long messageId,
+                         @Param("preview") String preview);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessagePreview = :preview, " +
+            "c.user1Unread = :user1Unread, c.user2Unread = :user2Unread WHERE c.id = :conversationId")
+    int applySummary(@Param("conversationId") Long conversationId,
+                     @Param("messageId") Long messageId,
+                     @Param("preview") String preview,
+                     @Param("user1Unread") Long user1Unread,
+                     @Param("user2Unread") Long user2Unread);
 }
@@ -0,0 +1,47 @@
+package com.tander.tandermobile.repository.chat;
+
+import com.tander.tandermobile.domain.chat.GroupConversation;
+import com.tander.tandermobile.dto.chat.GroupConversationDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface GroupConversationRepository extends JpaRepository<GroupConversation, Long> {
+
+    /**
+     * The user's groups, newest activity first. Unread counts are a range count over
+     * idx_group_msg_keyset after the member's (lastReadAt, lastReadMessageId) watermark.
+     */
+    @Query("SELECT new com.tander.tandermobile.dto.chat.GroupConversationDTO(" +
+            "g.id, g.name, g.memberCount, g.createdAt, g.lastMessageAt, g.lastMessageId, g.lastMessagePreview, " +
+            "m.lastReadMessageId, m.lastReadAt, " +
+            "(SELECT COUNT(gm) FROM GroupMessage gm WHERE gm.group = g AND gm.isDeleted = false " +
+            "AND (m.lastReadAt IS NULL OR gm.sentAt > m.lastReadAt " +
+            "OR (gm.sentAt = m.lastReadAt AND gm.id > m.lastReadMessageId)))) " +
+            "FROM GroupMember m JOIN m.group g " +
+            "WHERE m.user.id = :userId AND g.isActive = true " +
+            "ORDER BY g.lastMessageAt DESC")
+    List<GroupConversationDTO> findInboxByUserId(@Param("userId") Long userId);
+
+    /**
+     * Moves the last-message summary to the new message unless a later one was already applied.
+     */
+    @Modifying
+    @Query("UPDATE GroupConversation g SET " +
+            "g.lastMessageId = CASE WHEN g.lastMessageId IS NULL OR g.lastMessageAt <= :sentAt THEN :messageId ELSE g.lastMessageId END, " +
+            "g.lastMessagePreview = CASE WHEN g.lastMessageId IS NULL OR g.lastMessageAt <= :sentAt THEN :preview ELSE g.lastMessagePreview END, " +
+            "g.lastMessageAt = CASE WHEN g.lastMessageId IS NULL OR g.lastMessageAt <= :sentAt THEN :sentAt ELSE g.lastMessageAt END " +
+            "WHERE g.id = :groupId")
+    int applyNewMessage(@Param("groupId") Long groupId,
+                        @Param("messageId") Long messageId,
+                        @Param("preview") String preview,
+                        @Param("sentAt") Date sentAt);
+
+    @Modifying
+    @Query("UPDATE GroupConversation g SET g.memberCount = COALESCE(g.memberCount, 0) + :delta WHERE g.id = :groupId")
+    int adjustMemberCount(@Param("groupId") Long groupId, @Param("delta") int delta);
+}
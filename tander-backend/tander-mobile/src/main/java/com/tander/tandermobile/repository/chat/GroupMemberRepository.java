@@ -0,0 +1,45 @@
+package com.tander.tandermobile.repository.chat;
+
+import com.tander.tandermobile.domain.chat.GroupMember;
+import com.tander.tandermobile.domain.chat.GroupMemberRole;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface GroupMemberRepository extends JpaRepository<GroupMember, Long> {
+
+    @Query("SELECT m.role FROM GroupMember m WHERE m.group.id = :groupId AND m.user.id = :userId")
+    Optional<GroupMemberRole> findRole(@Param("groupId") Long groupId, @Param("userId") Long userId);
+
+    @Query("SELECT new com.tander.tandermobile.dto.chat.GroupMemberDTO(u.id, u.username, m.role, m.lastReadMessageId, m.lastReadAt) " +
+            "FROM GroupMember m JOIN m.user u WHERE m.group.id = :groupId ORDER BY m.id ASC")
+    List<GroupMemberDTO> findMembers(@Param("groupId") Long groupId);
+
+    @Query("SELECT m.user.id FROM GroupMember m WHERE m.group.id = :groupId AND m.user.id IN :userIds")
+    List<Long> findMemberIds(@Param("groupId") Long groupId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Moves the member's read watermark forward; never back. The watermark is the (sentAt, id) of the
+     * last message read, compared as a pair in the same order as the history.
+     */
+    @Modifying
+    @Query("UPDATE GroupMember m SET m.lastReadMessageId = :messageId, m.lastReadAt = :sentAt " +
+            "WHERE m.group.id = :groupId AND m.user.id = :userId " +
+            "AND (m.lastReadAt IS NULL OR m.lastReadAt < :sentAt " +
+            "OR (m.lastReadAt = :sentAt AND m.lastReadMessageId < :messageId))")
+    int advanceReadWatermark(@Param("groupId") Long groupId,
+                             @Param("userId") Long userId,
+                             @Param("messageId") Long messageId,
+                             @Param("sentAt") Date sentAt);
+
+    @Modifying
+    @Query("DELETE FROM GroupMember m WHERE m.group.id = :groupId AND m.user.id = :userId")
+    int deleteMembership(@Param("groupId") Long groupId, @Param("userId") Long userId);
+}
@@ -0,0 +1,37 @@
+package com.tander.tandermobile.repository.chat;
+
+import com.tander.tandermobile.domain.chat.GroupMessage;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+public interface GroupMessageRepository extends JpaRepository<GroupMessage, Long> {
+
+    String MESSAGE_DTO_SELECT = "SELECT new com.tander.tandermobile.dto.chat.GroupMessageDTO(" +
+            "m.id, m.group.id, s.id, s.username, m.content, m.sentAt) " +
+            "FROM GroupMessage m JOIN m.sender s ";
+
+    /**
+     * History is ordered by (sentAt, id), not by id alone: pooled sequence ids are handed out in
+     * blocks per node, so a later message can carry a lower id.
+     */
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.group.id = :groupId AND m.isDeleted = false ORDER BY m.sentAt DESC, m.id DESC")
+    List<GroupMessageDTO> findLatestMessageDTOs(@Param("groupId") Long groupId, Pageable pageable);
+
+    @Query(MESSAGE_DTO_SELECT + "WHERE m.group.id = :groupId AND m.isDeleted = false " +
+            "AND (m.sentAt < :beforeSentAt OR (m.sentAt = :beforeSentAt AND m.id < :beforeId)) " +
+            "ORDER BY m.sentAt DESC, m.id DESC")
+    List<GroupMessageDTO> findMessageDTOsBefore(@Param("groupId") Long groupId,
+                                                @Param("beforeSentAt") Date beforeSentAt,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
+
+    @Query("SELECT m.sentAt FROM GroupMessage m WHERE m.id = :messageId AND m.group.id = :groupId")
+    Optional<Date> findSentAtInGroup(@Param("messageId") Long messageId, @Param("groupId") Long groupId);
+}
@@ -1,10 +1,13 @@
 package com.tander.tandermobile.repository.user;
 
 import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * An interface to the user repository.
@@ -44,4 +47,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM login u WHERE u.profileCompleted = false AND u.softDeletedAt IS NULL")
     List<User> findIncompleteProfileUsers();
 
+    /**
+     * Loads only the identity fields of a user, without the entity or its profile association.
+     *
+     * @param username the username of the user
+     * @return the user's identity, if the user exists
+     */
+    @Query("SELECT new com.tander.tandermobile.domain.user.principal.UserIdentity(u.id, u.username, u.isActive, u.isLocked, u.softDeletedAt) " +
+            "FROM login u WHERE u.username = :username")
+    Optional<UserIdentity> findIdentityByUsername(@Param("username") String username);
+
+    /**
+     * Loads only the identity fields of a user, without the entity or its profile association.
+     *
+     * @param id the id of the user
+     * @return the user's identity, if the user exists
+     */
+    @Query("SELECT new com.tander.tandermobile.domain.user.principal.UserIdentity(u.id, u.username, u.isActive, u.isLocked, u.softDeletedAt) " +
+            "FROM login u WHERE u.id = :id")
+    Optional<UserIdentity> findIdentityById(@Param("id") Long id);
+
 }
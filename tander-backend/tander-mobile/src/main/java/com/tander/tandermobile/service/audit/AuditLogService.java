@@ -2,10 +2,15 @@ package com.tander.tandermobile.service.audit;
 
 import com.tander.tandermobile.domain.audit.AuditEventType;
 import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditLogHourlyCount;
 import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.dto.audit.AuditLogExportFilter;
+import com.tander.tandermobile.dto.audit.AuditLogPageDTO;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AuditLogService {
 
@@ -24,13 +29,58 @@ public interface AuditLogService {
 
     AuditLog createAuditLog(AuditEventType eventType, AuditStatus status, Long userId, String username);
 
+    /**
+     * @deprecated unbounded, and loads the CLOB columns of every row; use {@link #getAuditLogPageByUserId}
+     */
+    @Deprecated
     List<AuditLog> getAuditLogsByUserId(Long userId);
 
+    /**
+     * @deprecated unbounded, and loads the CLOB columns of every row; use {@link #getAuditLogPageByUsername}
+     */
+    @Deprecated
     List<AuditLog> getAuditLogsByUsername(String username);
 
+    /**
+     * @deprecated unbounded, and loads the CLOB columns of every row; use {@link #getAuditLogPageByEventType}
+     */
+    @Deprecated
     List<AuditLog> getAuditLogsByEventType(AuditEventType eventType);
 
     List<AuditLog> getAuditLogsByUserIdAndDateRange(Long userId, Date startDate, Date endDate);
 
+    /**
+     * @deprecated unbounded, and loads the CLOB columns of every row; use {@link #getFailedEventsPage}
+     */
+    @Deprecated
     List<AuditLog> getFailedEvents(Date since);
+
+    /**
+     * Hourly counts per event type and status for the hours starting in [from, to), from the rollup
+     * table instead of audit_log.
+     */
+    List<AuditLogHourlyCount> getHourlyCounts(Date from, Date to);
+
+    /**
+     * One page of a user's audit entries, newest first and without the CLOB columns. Pass null
+     * {@code beforeCreatedAt} and {@code beforeId} for the first page, then the cursor of the previous page.
+     */
+    AuditLogPageDTO getAuditLogPageByUserId(Long userId, Date beforeCreatedAt, Long beforeId, Integer limit);
+
+    AuditLogPageDTO getAuditLogPageByUsername(String username, Date beforeCreatedAt, Long beforeId, Integer limit);
+
+    AuditLogPageDTO getAuditLogPageByEventType(AuditEventType eventType, Date beforeCreatedAt, Long beforeId, Integer limit);
+
+    AuditLogPageDTO getFailedEventsPage(Date since, Date beforeCreatedAt, Long beforeId, Integer limit);
+
+    /**
+     * A single entry with its old and new values.
+     */
+    Optional<AuditLog> getAuditLog(Long id);
+
+    /**
+     * Streams the entries matching the filter, oldest first, without loading them all. The stream
+     * holds a database connection: close it when done.
+     */
+    Stream<AuditLog> streamAuditLogs(AuditLogExportFilter filter);
 }
@@ -0,0 +1,132 @@
+package com.tander.tandermobile.service.audit.export;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.dto.audit.AuditLogExportFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams audit_log rows straight from a JDBC cursor, so an export of any size holds only the rows
+ * of the current fetch in memory.
+ *
+ * Plain JDBC rather than a JPA stream: entities read through a JPA stream stay in the persistence
+ * context until the transaction ends, which would materialize the export after all. The CLOB
+ * columns are read only when the filter asks for them.
+ */
+@Service
+public class AuditLogExporter {
+
+    private static final String SUMMARY_COLUMNS = "id, user_id, username, event_type, status, entity_type, entity_id, " +
+            "ip_address, user_agent, description, error_message, session_id, created_at, event_weight";
+    private static final String VALUE_COLUMNS = ", old_value, new_value";
+
+    private final JdbcTemplate exportJdbcTemplate;
+
+    @Value("${audit.export.max-range:P31D}")
+    private Duration maxRange;
+
+    @Autowired
+    public AuditLogExporter(DataSource dataSource, @Value("${audit.export.fetch-size:500}") int fetchSize) {
+        // Own template: the fetch size applies to exports only. Oracle's driver default is 10 rows per round trip
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Opens a stream over the entries matching the filter, oldest first. The stream holds a database
+     * connection until it is closed, so callers must close it (try-with-resources).
+     *
+     * @throws IllegalArgumentException if the range is missing, empty or longer than {@code audit.export.max-range}
+     */
+    public Stream<AuditLog> stream(AuditLogExportFilter filter) {
+        validate(filter);
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS);
+        if (filter.isIncludeValues()) {
+            sql.append(VALUE_COLUMNS);
+        }
+        sql.append(" FROM audit_log WHERE created_at >= ? AND created_at < ?");
+
+        List<Object> args = new ArrayList<>();
+        args.add(filter.getFrom());
+        args.add(filter.getTo());
+        if (filter.getUserId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(filter.getUserId());
+        }
+        if (filter.getEventType() != null) {
+            sql.append(" AND event_type = ?");
+            args.add(filter.getEventType().name());
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(filter.getStatus().name());
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        return exportJdbcTemplate.queryForStream(sql.toString(), rowMapper(filter.isIncludeValues()), args.toArray());
+    }
+
+    private void validate(AuditLogExportFilter filter) {
+        if (filter.getFrom() == null || filter.getTo() == null) {
+            throw new IllegalArgumentException("An export needs both from and to");
+        }
+        Duration range = Duration.ofMillis(filter.getTo().getTime() - filter.getFrom().getTime());
+        if (range.isNegative() || range.isZero()) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (range.compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("An export covers at most " + maxRange.toDays() + " days");
+        }
+    }
+
+    private static RowMapper<AuditLog> rowMapper(boolean includeValues) {
+        return (ResultSet rs, int rowNum) -> {
+            AuditLog entry = AuditLog.builder()
+                    .id(rs.getLong("id"))
+                    .userId(getLong(rs, "user_id"))
+                    .username(rs.getString("username"))
+                    .eventType(AuditEventType.valueOf(rs.getString("event_type")))
+                    .status(AuditStatus.valueOf(rs.getString("status")))
+                    .entityType(rs.getString("entity_type"))
+                    .entityId(getLong(rs, "entity_id"))
+                    .ipAddress(rs.getString("ip_address"))
+                    .userAgent(rs.getString("user_agent"))
+                    .description(rs.getString("description"))
+                    .errorMessage(rs.getString("error_message"))
+                    .sessionId(rs.getString("session_id"))
+                    .createdAt(new Date(rs.getTimestamp("created_at").getTime()))
+                    .eventWeight(getDouble(rs, "event_weight"))
+                    .build();
+            if (includeValues) {
+                entry.setOldValue(rs.getString("old_value"));
+                entry.setNewValue(rs.getString("new_value"));
+            }
+            return entry;
+        };
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double getDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
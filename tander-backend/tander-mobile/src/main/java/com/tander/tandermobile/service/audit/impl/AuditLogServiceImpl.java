@@ -2,30 +2,67 @@ package com.tander.tandermobile.service.audit.impl;
 
 import com.tander.tandermobile.domain.audit.AuditEventType;
 import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditLogHourlyCount;
 import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.dto.audit.AuditLogExportFilter;
+import com.tander.tandermobile.dto.audit.AuditLogPageDTO;
+import com.tander.tandermobile.dto.audit.AuditLogSummaryDTO;
+import com.tander.tandermobile.repository.audit.AuditLogHourlyCountRepository;
 import com.tander.tandermobile.repository.audit.AuditLogRepository;
 import com.tander.tandermobile.service.audit.AuditLogService;
+import com.tander.tandermobile.service.audit.export.AuditLogExporter;
+import com.tander.tandermobile.service.audit.policy.AuditPolicyService;
+import com.tander.tandermobile.service.audit.writer.AuditLogWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
-@Transactional
 public class AuditLogServiceImpl implements AuditLogService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuditLogServiceImpl.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Cursor of the first page: later than any entry (and still a valid Oracle TIMESTAMP)
+    private static final Date FIRST_PAGE_CREATED_AT = Date.from(Instant.parse("9999-12-31T00:00:00Z"));
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogHourlyCountRepository hourlyCountRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditLogExporter auditLogExporter;
+    private final AuditPolicyService auditPolicyService;
 
     @Autowired
-    public AuditLogServiceImpl(AuditLogRepository auditLogRepository) {
+    public AuditLogServiceImpl(AuditLogRepository auditLogRepository,
+                               AuditLogHourlyCountRepository hourlyCountRepository,
+                               AuditLogWriter auditLogWriter,
+                               AuditLogExporter auditLogExporter,
+                               AuditPolicyService auditPolicyService) {
         this.auditLogRepository = auditLogRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.auditLogWriter = auditLogWriter;
+        this.auditLogExporter = auditLogExporter;
+        this.auditPolicyService = auditPolicyService;
+    }
+
+    /**
+     * Loads one page of a keyset query over (createdAt, id), newest first.
+     */
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<AuditLogSummaryDTO> find(Date beforeCreatedAt, Long beforeId, Pageable pageable);
     }
 
     /**
@@ -39,37 +76,38 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
 
     @Override
-    @Async
     public void logEvent(AuditEventType eventType, AuditStatus status, Long userId, String username, String description) {
         logEvent(eventType, status, userId, username, description, null, null);
     }
 
     @Override
-    @Async
     public void logEvent(AuditEventType eventType, AuditStatus status, Long userId, String username, String description,
                          String ipAddress, String userAgent) {
         logEvent(eventType, status, userId, username, description, ipAddress, userAgent, null);
     }
 
     @Override
-    @Async
     public void logEvent(AuditEventType eventType, AuditStatus status, Long userId, String username, String description,
                          String ipAddress, String userAgent, String errorMessage) {
+        if (!auditPolicyService.admit(eventType, status)) {
+            return;
+        }
         try {
             AuditLog auditLog = AuditLog.builder()
                     .userId(userId)
                     .username(truncate(username, 255))
                     .eventType(eventType)
                     .status(status)
-                    .description(truncate(description, 1000))
+                    .description(truncate(auditPolicyService.annotate(eventType, description), 1000))
                     .ipAddress(truncate(ipAddress, 45))
                     .userAgent(truncate(userAgent, 500))
                     .errorMessage(truncate(errorMessage, 1000))
+                    .eventWeight(auditPolicyService.getEventWeight(eventType))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditLogWriter.submit(auditLog);
 
-            LOGGER.info("Audit log created: {} - {} - User: {} - Status: {}",
+            LOGGER.debug("Audit log queued: {} - {} - User: {} - Status: {}",
                     eventType, truncate(description, 100), username, status);
         } catch (Exception e) {
             LOGGER.error("Failed to create audit log for event: {} - User: {} - Error: {}",
@@ -78,11 +116,13 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
 
     @Override
-    @Async
     public void logEventWithDetails(AuditEventType eventType, AuditStatus status, Long userId, String username,
                                      String entityType, Long entityId, String description, String ipAddress,
                                      String userAgent, String oldValue, String newValue, String errorMessage,
                                      String sessionId) {
+        if (!auditPolicyService.admit(eventType, status)) {
+            return;
+        }
         try {
             AuditLog auditLog = AuditLog.builder()
                     .userId(userId)
@@ -91,18 +131,19 @@ public class AuditLogServiceImpl implements AuditLogService {
                     .status(status)
                     .entityType(truncate(entityType, 100))
                     .entityId(entityId)
-                    .description(truncate(description, 1000))
+                    .description(truncate(auditPolicyService.annotate(eventType, description), 1000))
                     .ipAddress(truncate(ipAddress, 45))
                     .userAgent(truncate(userAgent, 500))
                     .oldValue(oldValue) // CLOB - no length limit
                     .newValue(newValue) // CLOB - no length limit
                     .errorMessage(truncate(errorMessage, 1000))
                     .sessionId(truncate(sessionId, 255))
+                    .eventWeight(auditPolicyService.getEventWeight(eventType))
                     .build();
 
-            auditLogRepository.save(auditLog);
+            auditLogWriter.submit(auditLog);
 
-            LOGGER.info("Detailed audit log created: {} - {} - User: {} - Entity: {} - Status: {}",
+            LOGGER.debug("Detailed audit log queued: {} - {} - User: {} - Entity: {} - Status: {}",
                     eventType, truncate(description, 100), username, entityType, status);
         } catch (Exception e) {
             LOGGER.error("Failed to create detailed audit log for event: {} - User: {} - Error: {}",
@@ -111,6 +152,7 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
 
     @Override
+    @Transactional
     public AuditLog createAuditLog(AuditEventType eventType, AuditStatus status, Long userId, String username) {
         AuditLog auditLog = AuditLog.builder()
                 .userId(userId)
@@ -122,27 +164,96 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
 
     @Override
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByUserId(Long userId) {
         return auditLogRepository.findByUserId(userId);
     }
 
     @Override
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByUsername(String username) {
         return auditLogRepository.findByUsername(username);
     }
 
     @Override
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByEventType(AuditEventType eventType) {
         return auditLogRepository.findByEventType(eventType);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AuditLog> getAuditLogsByUserIdAndDateRange(Long userId, Date startDate, Date endDate) {
         return auditLogRepository.findByUserIdAndDateRange(userId, startDate, endDate);
     }
 
     @Override
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<AuditLog> getFailedEvents(Date since) {
         return auditLogRepository.findFailedEventsSince(AuditStatus.FAILURE, since);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditLogHourlyCount> getHourlyCounts(Date from, Date to) {
+        return hourlyCountRepository.findByBucketRange(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditLogPageDTO getAuditLogPageByUserId(Long userId, Date beforeCreatedAt, Long beforeId, Integer limit) {
+        return page(beforeCreatedAt, beforeId, limit,
+                (createdAt, id, pageable) -> auditLogRepository.findSummariesByUserIdBefore(userId, createdAt, id, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditLogPageDTO getAuditLogPageByUsername(String username, Date beforeCreatedAt, Long beforeId, Integer limit) {
+        return page(beforeCreatedAt, beforeId, limit,
+                (createdAt, id, pageable) -> auditLogRepository.findSummariesByUsernameBefore(username, createdAt, id, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditLogPageDTO getAuditLogPageByEventType(AuditEventType eventType, Date beforeCreatedAt, Long beforeId, Integer limit) {
+        return page(beforeCreatedAt, beforeId, limit,
+                (createdAt, id, pageable) -> auditLogRepository.findSummariesByEventTypeBefore(eventType, createdAt, id, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuditLogPageDTO getFailedEventsPage(Date since, Date beforeCreatedAt, Long beforeId, Integer limit) {
+        return page(beforeCreatedAt, beforeId, limit, (createdAt, id, pageable) ->
+                auditLogRepository.findSummariesByStatusSinceBefore(AuditStatus.FAILURE, since, createdAt, id, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AuditLog> getAuditLog(Long id) {
+        return auditLogRepository.findById(id);
+    }
+
+    @Override
+    public Stream<AuditLog> streamAuditLogs(AuditLogExportFilter filter) {
+        return auditLogExporter.stream(filter);
+    }
+
+    private AuditLogPageDTO page(Date beforeCreatedAt, Long beforeId, Integer limit, KeysetQuery query) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether an older page exists without a COUNT query
+        List<AuditLogSummaryDTO> entries = query.find(
+                beforeCreatedAt != null ? beforeCreatedAt : FIRST_PAGE_CREATED_AT,
+                beforeId != null ? beforeId : Long.MAX_VALUE,
+                PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = entries.size() > pageSize;
+        List<AuditLogSummaryDTO> page = entries.subList(0, Math.min(pageSize, entries.size()));
+        AuditLogSummaryDTO last = hasMore ? page.get(page.size() - 1) : null;
+        return new AuditLogPageDTO(List.copyOf(page), last != null ? last.getCreatedAt() : null,
+                last != null ? last.getId() : null, hasMore);
+    }
 }
@@ -0,0 +1,65 @@
+package com.tander.tandermobile.service.audit.policy;
+
+import com.tander.tandermobile.domain.audit.AuditPolicyMode;
+
+import java.math.BigDecimal;
+
+/**
+ * The recording policy of one event type.
+ *
+ * @param mode          how events are recorded
+ * @param samplePercent share of events recorded under {@link AuditPolicyMode#SAMPLE}, 0 to 100; 100 otherwise
+ */
+public record AuditPolicy(AuditPolicyMode mode, double samplePercent) {
+
+    public static final AuditPolicy ALWAYS = new AuditPolicy(AuditPolicyMode.ALWAYS, 100);
+
+    public AuditPolicy {
+        if (mode == null) {
+            throw new IllegalArgumentException("An audit policy needs a mode");
+        }
+        if (mode == AuditPolicyMode.SAMPLE && (samplePercent <= 0 || samplePercent > 100)) {
+            throw new IllegalArgumentException("SAMPLE needs a sample percent above 0 and at most 100, got " + samplePercent);
+        }
+        if (mode != AuditPolicyMode.SAMPLE) {
+            samplePercent = 100;
+        }
+    }
+
+    public static AuditPolicy of(AuditPolicyMode mode, Double samplePercent) {
+        return new AuditPolicy(mode, samplePercent != null ? samplePercent : 0);
+    }
+
+    /**
+     * Parses the {@code audit.policy.events} form: {@code ALWAYS}, {@code OFF}, {@code AGGREGATE} or
+     * {@code SAMPLE:<percent>}.
+     */
+    public static AuditPolicy parse(String value) {
+        String[] parts = value.trim().split(":", 2);
+        AuditPolicyMode mode = AuditPolicyMode.valueOf(parts[0].trim().toUpperCase());
+        if (mode == AuditPolicyMode.SAMPLE && parts.length < 2) {
+            throw new IllegalArgumentException("SAMPLE needs a percent, e.g. SAMPLE:10");
+        }
+        return new AuditPolicy(mode, parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 100);
+    }
+
+    /**
+     * Number of events one recorded row stands for: 100 / percent under {@link AuditPolicyMode#SAMPLE},
+     * null (one) otherwise.
+     */
+    public Double eventWeight() {
+        return mode == AuditPolicyMode.SAMPLE ? 100 / samplePercent : null;
+    }
+
+    /**
+     * The sample rate as written in configuration, e.g. {@code 10} or {@code 0.5}.
+     */
+    public String formatPercent() {
+        return BigDecimal.valueOf(samplePercent).stripTrailingZeros().toPlainString();
+    }
+
+    @Override
+    public String toString() {
+        return mode == AuditPolicyMode.SAMPLE ? mode + ":" + formatPercent() : mode.name();
+    }
+}
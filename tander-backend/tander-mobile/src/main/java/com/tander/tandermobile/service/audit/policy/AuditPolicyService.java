@@ -0,0 +1,277 @@
+package com.tander.tandermobile.service.audit.policy;
+
+import com.tander.tandermobile.domain.audit.AuditEventPolicy;
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditPolicyMode;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.repository.audit.AuditEventPolicyRepository;
+import com.tander.tandermobile.service.audit.writer.AuditLogWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides per {@link AuditEventType} whether an event is written, sampled, aggregated into a counter
+ * or dropped, so high-volume events (chat messages sent, delivered, deleted) do not make audit_log
+ * grow faster than the data it audits.
+ *
+ * Policies come from {@code audit.policy.events}, overridden per event type by rows in
+ * audit_event_policies. The overrides are reloaded every {@code audit.policy.reload-interval}, so a
+ * change made on any node applies everywhere without a restart. Security-critical event types
+ * ({@link AuditEventType#isSecurityCritical()}) are always recorded, whatever is configured.
+ *
+ * Aggregated events are counted per event type and status and written as one row per pair every
+ * {@code audit.policy.aggregate-window}, with the count in the row's new_value. Sampled and
+ * aggregate rows carry the number of events they stand for in event_weight, which the hourly
+ * rollup sums instead of counting rows.
+ */
+@Service
+public class AuditPolicyService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditPolicyService.class);
+
+    public static final String AGGREGATE_ENTITY_TYPE = "AuditAggregate";
+
+    private record AggregateKey(AuditEventType eventType, AuditStatus status) {
+    }
+
+    private final AuditEventPolicyRepository policyRepository;
+    private final AuditLogWriter auditLogWriter;
+
+    @Value("${audit.policy.events:}")
+    private String[] configuredEvents;
+
+    private Map<AuditEventType, AuditPolicy> configured = Map.of();
+    private volatile Map<AuditEventType, AuditPolicy> policies = Map.of();
+    private volatile Map<AuditEventType, AuditEventPolicy> overrides = Map.of();
+
+    private final Map<AggregateKey, LongAdder> aggregates = new ConcurrentHashMap<>();
+    private volatile Instant windowStart = Instant.now();
+
+    @Autowired
+    public AuditPolicyService(AuditEventPolicyRepository policyRepository, AuditLogWriter auditLogWriter) {
+        this.policyRepository = policyRepository;
+        this.auditLogWriter = auditLogWriter;
+    }
+
+    @PostConstruct
+    public void init() {
+        Map<AuditEventType, AuditPolicy> parsed = new EnumMap<>(AuditEventType.class);
+        for (String entry : configuredEvents) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            try {
+                AuditEventType eventType = AuditEventType.valueOf(parts[0].trim());
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException("missing policy");
+                }
+                AuditPolicy policy = AuditPolicy.parse(parts[1]);
+                if (eventType.isSecurityCritical() && policy.mode() != AuditPolicyMode.ALWAYS) {
+                    throw new IllegalArgumentException(eventType + " is security critical and always recorded");
+                }
+                parsed.put(eventType, policy);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid audit.policy.events entry '" + entry.trim() + "': " + e.getMessage(), e);
+            }
+        }
+        configured = Collections.unmodifiableMap(parsed);
+        policies = merge(configured, Map.of());
+        LOGGER.info("[AUDIT POLICY] Configured policies: {}", describe(policies));
+    }
+
+    /**
+     * Applies the event type's policy to one event.
+     *
+     * @return true if the event should be written now; false if it was counted for aggregation,
+     *         not sampled, or its type is off
+     */
+    public boolean admit(AuditEventType eventType, AuditStatus status) {
+        AuditPolicy policy = getPolicy(eventType);
+        return switch (policy.mode()) {
+            case ALWAYS -> true;
+            case OFF -> false;
+            case SAMPLE -> ThreadLocalRandom.current().nextDouble(100) < policy.samplePercent();
+            case AGGREGATE -> {
+                aggregates.computeIfAbsent(new AggregateKey(eventType, status), key -> new LongAdder()).increment();
+                yield false;
+            }
+        };
+    }
+
+    /**
+     * Notes the sample rate in the description of a sampled event, so readers can scale counts back up.
+     */
+    public String annotate(AuditEventType eventType, String description) {
+        AuditPolicy policy = getPolicy(eventType);
+        if (policy.mode() != AuditPolicyMode.SAMPLE) {
+            return description;
+        }
+        String note = "[sampled " + policy.formatPercent() + "%]";
+        return description == null ? note : description + " " + note;
+    }
+
+    /**
+     * @return the event_weight of a recorded event of this type, see {@link AuditPolicy#eventWeight()}
+     */
+    public Double getEventWeight(AuditEventType eventType) {
+        return getPolicy(eventType).eventWeight();
+    }
+
+    public AuditPolicy getPolicy(AuditEventType eventType) {
+        return policies.getOrDefault(eventType, AuditPolicy.ALWAYS);
+    }
+
+    /**
+     * @return the effective policy of every event type
+     */
+    public Map<AuditEventType, AuditPolicy> getPolicies() {
+        Map<AuditEventType, AuditPolicy> all = new EnumMap<>(AuditEventType.class);
+        for (AuditEventType eventType : AuditEventType.values()) {
+            all.put(eventType, getPolicy(eventType));
+        }
+        return all;
+    }
+
+    /**
+     * @return the runtime overrides currently in effect
+     */
+    public Map<AuditEventType, AuditEventPolicy> getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Stores a runtime override for one event type. This node applies it at once, the others on
+     * their next reload.
+     *
+     * @throws IllegalArgumentException if the event type is security critical or the policy is invalid
+     */
+    @Transactional
+    public void setOverride(AuditEventType eventType, AuditPolicy policy, String updatedBy) {
+        if (eventType.isSecurityCritical() && policy.mode() != AuditPolicyMode.ALWAYS) {
+            throw new IllegalArgumentException(eventType + " is security critical and always recorded");
+        }
+        policyRepository.save(AuditEventPolicy.builder()
+                .eventType(eventType)
+                .mode(policy.mode())
+                .samplePercent(policy.mode() == AuditPolicyMode.SAMPLE ? policy.samplePercent() : null)
+                .updatedBy(updatedBy)
+                .updatedAt(new Date())
+                .build());
+        reload();
+    }
+
+    /**
+     * Removes the runtime override of one event type, returning it to the configured policy.
+     *
+     * @return false if there was no override
+     */
+    @Transactional
+    public boolean clearOverride(AuditEventType eventType) {
+        if (!policyRepository.existsById(eventType)) {
+            return false;
+        }
+        policyRepository.deleteById(eventType);
+        reload();
+        return true;
+    }
+
+    /**
+     * Reloads the runtime overrides. On failure the previous policies stay in effect.
+     */
+    @Scheduled(fixedDelayString = "${audit.policy.reload-interval:30000}")
+    public void reload() {
+        Map<AuditEventType, AuditEventPolicy> loaded = new EnumMap<>(AuditEventType.class);
+        try {
+            for (AuditEventPolicy override : policyRepository.findAll()) {
+                loaded.put(override.getEventType(), override);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("[AUDIT POLICY] Failed to reload policy overrides, keeping the current ones: {}", e.getMessage());
+            return;
+        }
+
+        Map<AuditEventType, AuditPolicy> merged = merge(configured, loaded);
+        if (!merged.equals(policies)) {
+            LOGGER.info("[AUDIT POLICY] Policies changed: {}", describe(merged));
+        }
+        overrides = Collections.unmodifiableMap(loaded);
+        policies = merged;
+    }
+
+    /**
+     * Writes one row per event type and status counted since the previous flush.
+     */
+    @Scheduled(fixedDelayString = "${audit.policy.aggregate-window:60000}")
+    public void flushAggregates() {
+        Instant start = windowStart;
+        Instant end = Instant.now();
+        windowStart = end;
+
+        for (Map.Entry<AggregateKey, LongAdder> entry : aggregates.entrySet()) {
+            // Events counted after this read land in the next window
+            long count = entry.getValue().sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            AggregateKey key = entry.getKey();
+            auditLogWriter.submit(AuditLog.builder()
+                    .eventType(key.eventType())
+                    .status(key.status())
+                    .entityType(AGGREGATE_ENTITY_TYPE)
+                    .description(count + " " + key.eventType() + " events aggregated between " + start + " and " + end)
+                    .newValue("{\"count\":" + count + ",\"windowStart\":\"" + start + "\",\"windowEnd\":\"" + end + "\"}")
+                    .eventWeight((double) count)
+                    .createdAt(Date.from(end))
+                    .build());
+        }
+    }
+
+    /**
+     * Writes the counts of the current window before the audit writer stops (it is destroyed after
+     * this bean, which depends on it).
+     */
+    @PreDestroy
+    public void stop() {
+        flushAggregates();
+    }
+
+    private static Map<AuditEventType, AuditPolicy> merge(Map<AuditEventType, AuditPolicy> configured,
+                                                          Map<AuditEventType, AuditEventPolicy> overrides) {
+        Map<AuditEventType, AuditPolicy> merged = new EnumMap<>(AuditEventType.class);
+        merged.putAll(configured);
+        for (AuditEventPolicy override : overrides.values()) {
+            try {
+                merged.put(override.getEventType(), AuditPolicy.of(override.getMode(), override.getSamplePercent()));
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("[AUDIT POLICY] Ignoring invalid override for {}: {}", override.getEventType(), e.getMessage());
+            }
+        }
+        // Security-critical types stay ALWAYS even if a row was edited by hand; ALWAYS is the default anyway
+        merged.entrySet().removeIf(entry -> entry.getKey().isSecurityCritical()
+                || Objects.equals(entry.getValue(), AuditPolicy.ALWAYS));
+        return Collections.unmodifiableMap(merged);
+    }
+
+    private static String describe(Map<AuditEventType, AuditPolicy> policies) {
+        return policies.isEmpty() ? "every event type ALWAYS" : policies + ", every other event type ALWAYS";
+    }
+}
@@ -0,0 +1,150 @@
+package com.tander.tandermobile.service.audit.rollup;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLogHourlyCount;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.repository.audit.AuditLogHourlyCountRepository;
+import com.tander.tandermobile.repository.audit.AuditLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Materializes hourly audit_log counts per event type and status into audit_log_hourly_counts.
+ * The counts are event counts, not row counts: each row counts its event_weight, so sampled and
+ * aggregated event types are scaled back to the number of events that happened (an estimate for
+ * sampled types).
+ *
+ * Each run recomputes the current hour and the {@code audit.rollup.lookback-hours} before it, one
+ * hour per transaction: the hour's counts are deleted and rewritten from one grouped range query
+ * over audit_log. Recomputing a window instead of only the last hour picks up entries that reach
+ * audit_log late (shipped from a node's journal or replayed from a spill file after an outage),
+ * since entries keep the time the event happened.
+ */
+@Service
+public class AuditRollupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditRollupService.class);
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditLogHourlyCountRepository hourlyCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${audit.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audit.rollup.lookback-hours:6}")
+    private int lookbackHours;
+
+    @Value("${audit.rollup.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${audit.rollup.backfill-days:30}")
+    private int backfillDays;
+
+    @Autowired
+    public AuditRollupService(AuditLogRepository auditLogRepository,
+                              AuditLogHourlyCountRepository hourlyCountRepository,
+                              TransactionTemplate transactionTemplate) {
+        this.auditLogRepository = auditLogRepository;
+        this.hourlyCountRepository = hourlyCountRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * One-off backfill of the hourly counts for data written before the rollup existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (enabled && backfillOnStartup) {
+            LOGGER.info("[AUDIT ROLLUP] Backfilling hourly counts for the last {} days...", backfillDays);
+            Instant to = currentHour().plus(1, ChronoUnit.HOURS);
+            int hours = rollup(to.minus(Duration.ofDays(backfillDays)), to);
+            LOGGER.info("[AUDIT ROLLUP] Backfill completed: {} hours rolled up", hours);
+        }
+    }
+
+    /**
+     * Scheduled rollup of the recent hours.
+     * Cron format: second minute hour day month weekday
+     */
+    @Scheduled(cron = "${audit.rollup.cron:0 */10 * * * *}")
+    public void rollupRecentHours() {
+        if (!enabled) {
+            return;
+        }
+        Instant to = currentHour().plus(1, ChronoUnit.HOURS);
+        int hours = rollup(to.minus(lookbackHours + 1L, ChronoUnit.HOURS), to);
+        LOGGER.debug("[AUDIT ROLLUP] Rolled up {} hours", hours);
+    }
+
+    /**
+     * Recomputes the hourly counts of every hour in [from, to); both are truncated to the hour.
+     *
+     * @return number of hours rolled up
+     */
+    public int rollup(Instant from, Instant to) {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.info("[AUDIT ROLLUP] Rollup already in progress, skipping");
+            return 0;
+        }
+        int hours = 0;
+        try {
+            for (Instant hour = from.truncatedTo(ChronoUnit.HOURS); hour.isBefore(to); hour = hour.plus(1, ChronoUnit.HOURS)) {
+                Instant bucketStart = hour;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> rollupHour(bucketStart));
+                    hours++;
+                } catch (Exception e) {
+                    // Typically another node rolling up the same hour; the next run recomputes it
+                    LOGGER.warn("[AUDIT ROLLUP] Failed to roll up hour {}: {}", bucketStart, e.getMessage());
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        return hours;
+    }
+
+    /**
+     * Replaces one hour's counts. Must run inside a transaction.
+     */
+    private void rollupHour(Instant bucketStart) {
+        Date start = Date.from(bucketStart);
+        Date end = Date.from(bucketStart.plus(1, ChronoUnit.HOURS));
+        Date now = new Date();
+
+        List<AuditLogHourlyCount> counts = new ArrayList<>();
+        for (Object[] row : auditLogRepository.countByEventTypeAndStatus(start, end)) {
+            counts.add(AuditLogHourlyCount.builder()
+                    .bucketStart(start)
+                    .eventType((AuditEventType) row[0])
+                    .status((AuditStatus) row[1])
+                    .eventCount(Math.round((Double) row[2]))
+                    .updatedAt(now)
+                    .build());
+        }
+
+        hourlyCountRepository.deleteByBucketStart(start);
+        hourlyCountRepository.saveAll(counts);
+    }
+
+    private static Instant currentHour() {
+        return Instant.now().truncatedTo(ChronoUnit.HOURS);
+    }
+}
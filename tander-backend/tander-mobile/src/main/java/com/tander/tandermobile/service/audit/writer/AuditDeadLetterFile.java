@@ -0,0 +1,58 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.tander.tandermobile.domain.audit.AuditLog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audit entries the database rejected, kept in {@code audit-dead-letter.ndjson}: one JSON document
+ * per line with the error and the entry. Nothing reads the file back; it is there to be inspected
+ * and, once the cause is fixed, inserted by hand.
+ */
+public class AuditDeadLetterFile {
+
+    static final String DEAD_LETTER_FILE = "audit-dead-letter.ndjson";
+
+    private final Path directory;
+    private final Path path;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong appended = new AtomicLong();
+
+    public AuditDeadLetterFile(Path directory) {
+        this.directory = directory;
+        this.path = directory.resolve(DEAD_LETTER_FILE);
+    }
+
+    public synchronized void append(AuditLog entry, Exception cause) throws IOException {
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("error", String.valueOf(cause.getMessage()));
+        line.set("entry", objectMapper.valueToTree(entry));
+
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.newLine();
+        }
+        appended.incrementAndGet();
+    }
+
+    /**
+     * @return entries dead-lettered since startup
+     */
+    public long getAppended() {
+        return appended.get();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
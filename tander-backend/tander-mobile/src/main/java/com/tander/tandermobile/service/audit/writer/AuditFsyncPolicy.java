@@ -0,0 +1,20 @@
+package com.tander.tandermobile.service.audit.writer;
+
+/**
+ * When appends to the audit journal are forced to disk.
+ */
+public enum AuditFsyncPolicy {
+    /**
+     * Every append is forced before it returns. Survives a host crash; costs a disk flush per event.
+     */
+    ALWAYS,
+    /**
+     * Appends are forced every {@code audit.journal.fsync-interval}. A host crash loses at most that
+     * interval; a JVM crash loses nothing, the page cache still holds the writes.
+     */
+    INTERVAL,
+    /**
+     * The operating system decides. A JVM crash loses nothing, a host crash may lose recent entries.
+     */
+    NEVER
+}
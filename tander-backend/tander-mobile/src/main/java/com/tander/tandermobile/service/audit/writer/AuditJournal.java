@@ -0,0 +1,337 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal of audit entries, in memory-mapped segment files.
+ *
+ * Each entry is one record: payload length (int), CRC32 of the payload (int), then the entry as JSON.
+ * A length of 0 marks the unused end of a segment. Segments are named after the journal offset of
+ * their first byte ({@code audit-00000000000000000000.journal}), so an offset identifies a record
+ * across segments; a new segment is started when a record does not fit in the current one.
+ *
+ * On open, the last segment is scanned and cut after the last record with a valid checksum, which
+ * drops a record torn by a crash. Segments entirely below the shipped offset are deleted by
+ * {@link #release}. When {@code maxSegments} segments exist and a new one is needed, appends fail.
+ *
+ * Appends are serialized; {@link #read} may run concurrently with them and sees every record
+ * whose append has returned.
+ */
+public class AuditJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditJournal.class);
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String JOURNAL_ID_FILE = "journal.id";
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Entries read from the journal, and the offset to continue from.
+     */
+    public record Batch(List<AuditLog> entries, long endOffset) {
+    }
+
+    private static final class Segment {
+        final long baseOffset;
+        final Path path;
+        final MappedByteBuffer buffer;
+
+        Segment(long baseOffset, Path path, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        int size() {
+            return buffer.capacity();
+        }
+
+        long endOffset() {
+            return baseOffset + size();
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final AuditFsyncPolicy fsyncPolicy;
+    private final String journalId;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService syncExecutor;
+
+    private Segment active;
+    private int syncedPosition;
+    private volatile long writeOffset;
+
+    /**
+     * @param directory    where the segments live; created if missing
+     * @param segmentSize  bytes per new segment
+     * @param maxSegments  segments kept at most; appends fail beyond that until segments are released
+     * @param fsyncPolicy  when appends are forced to disk
+     * @param fsyncInterval how often appends are forced under {@link AuditFsyncPolicy#INTERVAL}
+     */
+    public AuditJournal(Path directory, int segmentSize, int maxSegments, AuditFsyncPolicy fsyncPolicy,
+                        Duration fsyncInterval) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.fsyncPolicy = fsyncPolicy;
+
+        Files.createDirectories(directory);
+        this.journalId = readOrCreateJournalId();
+        recover();
+
+        if (fsyncPolicy == AuditFsyncPolicy.INTERVAL) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "audit-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = fsyncInterval.toMillis();
+            syncExecutor.scheduleWithFixedDelay(this::force, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncExecutor = null;
+        }
+    }
+
+    /**
+     * Identifies this journal directory; the shipped offset is stored under it.
+     */
+    public String getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * @return the offset of the oldest record still kept
+     */
+    public long getFirstOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @return the offset after the last appended record
+     */
+    public long getWriteOffset() {
+        return writeOffset;
+    }
+
+    /**
+     * Appends an entry.
+     *
+     * @throws IOException if the entry cannot be serialized, is larger than a segment, or the
+     *                     journal already has {@code maxSegments} segments
+     */
+    public synchronized void append(AuditLog entry) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(entry);
+        int recordSize = HEADER_BYTES + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IOException("Audit entry of " + payload.length + " bytes does not fit in a journal segment");
+        }
+
+        int position = (int) (writeOffset - active.baseOffset);
+        if (position + recordSize > active.size()) {
+            force();
+            roll();
+            position = 0;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        MappedByteBuffer buffer = active.buffer;
+        // Pages may reach the disk in any order; the checksum catches a record torn by a crash
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        writeOffset = active.baseOffset + position + recordSize;
+
+        if (fsyncPolicy == AuditFsyncPolicy.ALWAYS) {
+            force();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxEntries} entries starting at {@code fromOffset}, which must be a record
+     * boundary: the start of the journal or an {@link Batch#endOffset} returned earlier.
+     */
+    public Batch read(long fromOffset, int maxEntries) throws IOException {
+        List<AuditLog> entries = new ArrayList<>(Math.min(maxEntries, 1024));
+        long offset = Math.max(fromOffset, getFirstOffset());
+        long end = writeOffset;
+
+        while (entries.size() < maxEntries && offset < end) {
+            Map.Entry<Long, Segment> floor = segments.floorEntry(offset);
+            if (floor == null) {
+                break;
+            }
+            Segment segment = floor.getValue();
+            int position = (int) (offset - segment.baseOffset);
+            int length = position + HEADER_BYTES <= segment.size() ? segment.buffer.getInt(position) : 0;
+            if (length == 0) {
+                // Unused end of a full segment: continue with the next one
+                offset = segment.endOffset();
+                continue;
+            }
+
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            entries.add(objectMapper.readValue(payload, AuditLog.class));
+            offset += HEADER_BYTES + length;
+        }
+        return new Batch(entries, offset);
+    }
+
+    /**
+     * Deletes the segments that end at or below {@code shippedOffset}. The active segment is kept.
+     */
+    public synchronized void release(long shippedOffset) {
+        while (segments.size() > 1) {
+            Segment oldest = segments.firstEntry().getValue();
+            if (oldest == active || oldest.endOffset() > shippedOffset) {
+                return;
+            }
+            segments.remove(oldest.baseOffset);
+            try {
+                Files.deleteIfExists(oldest.path);
+            } catch (IOException e) {
+                LOGGER.warn("[AUDIT] Failed to delete journal segment {}: {}", oldest.path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Forces appended records to disk.
+     */
+    public void force() {
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        synchronized (this) {
+            buffer = active.buffer;
+            from = syncedPosition;
+            to = (int) (writeOffset - active.baseOffset);
+            syncedPosition = Math.max(from, to);
+        }
+        // Outside the lock, so an interval sync does not hold up appends (ALWAYS calls it with the lock held)
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+        force();
+    }
+
+    private void roll() throws IOException {
+        if (segments.size() >= maxSegments) {
+            throw new IOException("Audit journal is full (" + maxSegments + " segments not shipped)");
+        }
+        active = openSegment(active.endOffset(), segmentSize);
+        segments.put(active.baseOffset, active);
+        syncedPosition = 0;
+        writeOffset = active.baseOffset;
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(AuditJournal::isSegment).sorted().toList()) {
+                long baseOffset = Long.parseLong(path.getFileName().toString()
+                        .substring(SEGMENT_PREFIX.length(), path.getFileName().toString().length() - SEGMENT_SUFFIX.length()));
+                segments.put(baseOffset, openSegment(baseOffset, (int) Files.size(path)));
+            }
+        }
+        if (segments.isEmpty()) {
+            active = openSegment(0, segmentSize);
+            segments.put(0L, active);
+            writeOffset = 0;
+            return;
+        }
+
+        active = segments.lastEntry().getValue();
+        int position = scanValidRecords(active);
+        // Clear whatever follows the last valid record, so a torn record is never read back
+        for (int i = position; i < active.size(); i++) {
+            active.buffer.put(i, (byte) 0);
+        }
+        active.buffer.force();
+        syncedPosition = position;
+        writeOffset = active.baseOffset + position;
+        LOGGER.info("[AUDIT] Journal opened: {} segments, offsets {} to {}", segments.size(), getFirstOffset(), writeOffset);
+    }
+
+    /**
+     * @return the position after the last record with a valid checksum
+     */
+    private static int scanValidRecords(Segment segment) {
+        int position = 0;
+        CRC32 crc = new CRC32();
+        while (position + HEADER_BYTES <= segment.size()) {
+            int length = segment.buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > segment.size()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != segment.buffer.getInt(position + 4)) {
+                LOGGER.warn("[AUDIT] Dropping torn journal record at offset {}", segment.baseOffset + position);
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private Segment openSegment(long baseOffset, int size) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, baseOffset, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(baseOffset, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private String readOrCreateJournalId() throws IOException {
+        Path idFile = directory.resolve(JOURNAL_ID_FILE);
+        if (Files.exists(idFile)) {
+            return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,242 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.tander.tandermobile.domain.audit.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the {@link AuditJournal} into the database from a single thread.
+ *
+ * The shipped offset is stored by the {@link ShipmentSink} in the same transaction as the batch, so
+ * after a crash or restart the shipper continues exactly after the last committed batch: nothing is
+ * lost and nothing is inserted twice. Until it has read that offset (the database may be down at
+ * startup), the shipper ships nothing.
+ *
+ * A failed batch is retried with exponential backoff from {@code retryBackoff} up to
+ * {@code maxRetryBackoff}, so an outage costs one attempt per backoff period instead of one per event.
+ * After {@code maxAttempts} failures the entries of that batch are shipped one at a time. An entry
+ * that fails {@code maxAttempts} times on its own while the checkpoint can still be written is one
+ * the database rejects: it goes to the {@link DeadLetterSink} and the checkpoint moves past it, so a
+ * single bad entry cannot hold up the journal. If the checkpoint cannot be written either, the
+ * database is down and the entry keeps being retried.
+ */
+public class AuditJournalShipper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditJournalShipper.class);
+
+    /**
+     * Inserts a batch and stores {@code endOffset} as the journal's shipped offset, in one transaction.
+     */
+    @FunctionalInterface
+    public interface ShipmentSink {
+        void ship(String journalId, List<AuditLog> batch, long endOffset) throws Exception;
+    }
+
+    /**
+     * Takes an entry the database rejected. Must be durable before it returns: the checkpoint is
+     * moved past the entry right after.
+     */
+    @FunctionalInterface
+    public interface DeadLetterSink {
+        void deadLetter(AuditLog entry, Exception cause) throws Exception;
+    }
+
+    /**
+     * Loads the shipped offset stored for a journal, if any.
+     */
+    @FunctionalInterface
+    public interface OffsetSource {
+        OptionalLong load(String journalId) throws Exception;
+    }
+
+    private final AuditJournal journal;
+    private final ShipmentSink sink;
+    private final OffsetSource offsetSource;
+    private final DeadLetterSink deadLetterSink;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final int maxAttempts;
+    private final Thread shipper;
+    private final Object pauseLock = new Object();
+
+    private volatile boolean running;
+    private volatile long shippedOffset = -1;
+
+    private final AtomicLong shipped = new AtomicLong();
+    private final AtomicLong failedShipments = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    /**
+     * @param journal         the journal to drain
+     * @param batchSize       maximum number of entries per batch
+     * @param pollInterval    pause when the journal has nothing new
+     * @param retryBackoff    first pause after a failed batch
+     * @param maxRetryBackoff longest pause between attempts
+     * @param maxAttempts     failures of a batch before its entries are shipped one at a time
+     * @param offsetSource    reads the stored shipped offset
+     * @param sink            writes batches together with their end offset
+     * @param deadLetterSink  takes entries the database rejects
+     */
+    public AuditJournalShipper(AuditJournal journal, int batchSize, Duration pollInterval, Duration retryBackoff,
+                               Duration maxRetryBackoff, int maxAttempts, OffsetSource offsetSource,
+                               ShipmentSink sink, DeadLetterSink deadLetterSink) {
+        this.journal = journal;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollInterval.toMillis();
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.maxRetryBackoffMillis = maxRetryBackoff.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.offsetSource = offsetSource;
+        this.sink = sink;
+        this.deadLetterSink = deadLetterSink;
+        this.shipper = new Thread(this::runShipper, "audit-journal-shipper");
+        this.shipper.setDaemon(false);
+    }
+
+    public void start() {
+        running = true;
+        shipper.start();
+    }
+
+    /**
+     * Stops the shipper after its current batch; a batch in flight is not interrupted. Entries not
+     * shipped stay in the journal and are shipped after the next start.
+     *
+     * @return true if the shipper finished within the timeout
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        running = false;
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+        shipper.join(timeout.toMillis());
+        return !shipper.isAlive();
+    }
+
+    /**
+     * @return bytes appended to the journal and not yet shipped, or -1 before the shipped offset is known
+     */
+    public long getLagBytes() {
+        long offset = shippedOffset;
+        return offset < 0 ? -1 : Math.max(0, journal.getWriteOffset() - offset);
+    }
+
+    public long getShipped() {
+        return shipped.get();
+    }
+
+    public long getFailedShipments() {
+        return failedShipments.get();
+    }
+
+    public long getDeadLettered() {
+        return deadLettered.get();
+    }
+
+    private void runShipper() {
+        long backoffMillis = retryBackoffMillis;
+        int attempts = 0;
+        // Entries below this offset are shipped one at a time: their batch kept failing
+        long isolateUntil = -1;
+        while (running) {
+            AuditJournal.Batch batch = null;
+            boolean isolating = false;
+            try {
+                if (shippedOffset < 0) {
+                    shippedOffset = loadShippedOffset();
+                }
+                isolating = shippedOffset < isolateUntil;
+                batch = journal.read(shippedOffset, isolating ? 1 : batchSize);
+                if (batch.entries().isEmpty()) {
+                    shippedOffset = batch.endOffset();
+                    pause(pollIntervalMillis);
+                    continue;
+                }
+
+                sink.ship(journal.getJournalId(), batch.entries(), batch.endOffset());
+                shippedOffset = batch.endOffset();
+                shipped.addAndGet(batch.entries().size());
+                journal.release(shippedOffset);
+                attempts = 0;
+                backoffMillis = retryBackoffMillis;
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                failedShipments.incrementAndGet();
+                if (batch != null && !batch.entries().isEmpty() && ++attempts >= maxAttempts) {
+                    attempts = 0;
+                    if (!isolating) {
+                        LOGGER.warn("[AUDIT] Journal batch at offset {} still failing after {} attempts, shipping its {} entries one at a time: {}",
+                                shippedOffset, maxAttempts, batch.entries().size(), e.getMessage());
+                        isolateUntil = batch.endOffset();
+                        continue;
+                    }
+                    if (deadLetterIfRejected(batch, e)) {
+                        backoffMillis = retryBackoffMillis;
+                        continue;
+                    }
+                }
+                LOGGER.warn("[AUDIT] Failed to ship journal entries, retrying in {} ms: {}", backoffMillis, e.getMessage());
+                try {
+                    pause(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    running = false;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoffMillis);
+            }
+        }
+        LOGGER.info("[AUDIT] Journal shipper stopped after shipping {} entries; {} bytes left to ship",
+                shipped.get(), getLagBytes());
+    }
+
+    /**
+     * Dead-letters a single entry that keeps failing and moves the checkpoint past it, but only if
+     * the current checkpoint can be rewritten first: then the database is up and rejects this entry.
+     *
+     * @return false if the database is unavailable, so the entry stays and is retried after the backoff
+     */
+    private boolean deadLetterIfRejected(AuditJournal.Batch batch, Exception cause) {
+        String journalId = journal.getJournalId();
+        AuditLog entry = batch.entries().get(0);
+        try {
+            sink.ship(journalId, List.of(), shippedOffset);
+            deadLetterSink.deadLetter(entry, cause);
+            sink.ship(journalId, List.of(), batch.endOffset());
+        } catch (Exception e) {
+            LOGGER.warn("[AUDIT] Database unavailable, journal entry at offset {} stays queued: {}", shippedOffset, e.getMessage());
+            return false;
+        }
+        LOGGER.error("[AUDIT] Journal entry at offset {} ({} for user {}) rejected by the database and dead-lettered: {}",
+                shippedOffset, entry.getEventType(), entry.getUsername(), cause.getMessage());
+        deadLettered.incrementAndGet();
+        shippedOffset = batch.endOffset();
+        journal.release(shippedOffset);
+        return true;
+    }
+
+    /**
+     * Sleeps, but wakes up at once on shutdown.
+     */
+    private void pause(long millis) throws InterruptedException {
+        synchronized (pauseLock) {
+            if (running) {
+                pauseLock.wait(millis);
+            }
+        }
+    }
+
+    private long loadShippedOffset() throws Exception {
+        OptionalLong stored = offsetSource.load(journal.getJournalId());
+        long offset = Math.max(stored.orElse(0), journal.getFirstOffset());
+        LOGGER.info("[AUDIT] Shipping journal {} from offset {} ({} bytes to ship)",
+                journal.getJournalId(), offset, journal.getWriteOffset() - offset);
+        return offset;
+    }
+}
@@ -0,0 +1,384 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.tander.tandermobile.domain.audit.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded hand-off between the code paths that record audit events and a single writer thread.
+ *
+ * The queue holds at most {@code capacity} entries. When it is full the {@link AuditOverflowPolicy}
+ * decides: wait a bounded time, drop entries that are not security critical, or spill to disk. The
+ * writer drains up to {@code batchSize} entries, waiting at most {@code flushInterval} for a batch to
+ * fill, and hands each batch to the {@link BatchSink}. A failed batch is retried with a fixed backoff
+ * up to {@code maxAttempts} times ({@code shutdownRetryAttempts} once shutdown has begun), and is then
+ * written one entry at a time. An entry that fails while the database still answers is one the
+ * database rejects and goes to the dead-letter file; entries that fail because the database is
+ * unavailable are spilled (or lost without a spill file). Spilled entries are replayed the same way
+ * whenever less than a batch is queued, so one bad entry holds up neither the queue nor the replay.
+ */
+public class AuditLogBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLogBuffer.class);
+
+    /**
+     * Writes one batch durably. Throwing leaves the batch to be retried.
+     */
+    @FunctionalInterface
+    public interface BatchSink {
+        void write(List<AuditLog> batch) throws Exception;
+    }
+
+    /**
+     * Counters since start, plus flush latency since the previous snapshot.
+     */
+    public record Metrics(int queueDepth, int capacity, long written, long dropped, long spilled,
+                          long spillPending, long deadLettered, long blockedOffers, long failedFlushes,
+                          long flushes, double averageFlushMillis, double maxFlushMillis) {
+    }
+
+    private final BlockingQueue<AuditLog> queue;
+    private final int capacity;
+    private final BatchSink sink;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final AuditSpillFile spillFile;
+    private final AuditDeadLetterFile deadLetterFile;
+    private final BooleanSupplier databaseAvailable;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long blockTimeoutNanos;
+    private final long retryBackoffMillis;
+    private final int maxAttempts;
+    private final int shutdownRetryAttempts;
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong blockedOffers = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private long lastSnapshotFlushes;
+    private long lastSnapshotFlushNanos;
+
+    /**
+     * @param capacity              maximum number of entries waiting to be written
+     * @param batchSize             maximum number of entries per batch
+     * @param flushInterval         maximum time an entry waits for its batch to fill
+     * @param overflowPolicy        what to do with entries that do not fit in the queue
+     * @param blockTimeout          longest a producer waits for space under BLOCK and DROP_LOW_PRIORITY
+     * @param spillFile             overflow storage; required for SPILL_TO_DISK, optional otherwise
+     * @param retryBackoff          pause between attempts to write a failed batch
+     * @param maxAttempts           attempts per batch before it is written one entry at a time
+     * @param shutdownRetryAttempts attempts per batch once shutdown has begun
+     * @param deadLetterFile        takes entries the database rejects
+     * @param databaseAvailable     whether the database answers at all, to tell a rejected entry from an outage
+     * @param sink                  writes batches to the database
+     */
+    public AuditLogBuffer(int capacity, int batchSize, Duration flushInterval, AuditOverflowPolicy overflowPolicy,
+                          Duration blockTimeout, AuditSpillFile spillFile, Duration retryBackoff, int maxAttempts,
+                          int shutdownRetryAttempts, AuditDeadLetterFile deadLetterFile,
+                          BooleanSupplier databaseAvailable, BatchSink sink) {
+        if (overflowPolicy == AuditOverflowPolicy.SPILL_TO_DISK && spillFile == null) {
+            throw new IllegalArgumentException("SPILL_TO_DISK needs a spill file");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.spillFile = spillFile;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.deadLetterFile = deadLetterFile;
+        this.databaseAvailable = databaseAvailable;
+        this.shutdownRetryAttempts = shutdownRetryAttempts;
+        this.sink = sink;
+        this.writer = new Thread(this::runWriter, "audit-log-writer");
+        this.writer.setDaemon(false);
+    }
+
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Queues an entry, applying the overflow policy when the queue is full.
+     *
+     * @return false if the buffer is stopped and the caller must write the entry itself; true if the
+     *         entry was queued, spilled or dropped by the policy
+     */
+    public boolean offer(AuditLog entry) throws InterruptedException {
+        if (!running) {
+            return false;
+        }
+        if (queue.offer(entry)) {
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case SPILL_TO_DISK -> spill(List.of(entry));
+            case DROP_LOW_PRIORITY -> {
+                if (entry.getEventType().isSecurityCritical()) {
+                    offerBlocking(entry);
+                } else {
+                    dropped.incrementAndGet();
+                }
+            }
+            case BLOCK -> offerBlocking(entry);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting entries and waits for the writer to flush everything already queued.
+     *
+     * @return true if the writer finished within the timeout
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        running = false;
+        writer.join(timeout.toMillis());
+        if (writer.isAlive()) {
+            LOGGER.error("[AUDIT] Writer did not finish within {}; {} entries still queued", timeout, queue.size());
+            return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getSpilled() {
+        return spilled.get();
+    }
+
+    public long getDeadLettered() {
+        return deadLettered.get();
+    }
+
+    /**
+     * Takes a snapshot of the counters; the flush latency covers the flushes since the previous snapshot.
+     */
+    public synchronized Metrics snapshot() {
+        long flushCount = flushes.get();
+        long flushTotalNanos = flushNanos.get();
+        long intervalFlushes = flushCount - lastSnapshotFlushes;
+        double averageMillis = intervalFlushes == 0 ? 0
+                : (flushTotalNanos - lastSnapshotFlushNanos) / 1e6 / intervalFlushes;
+        lastSnapshotFlushes = flushCount;
+        lastSnapshotFlushNanos = flushTotalNanos;
+
+        return new Metrics(queue.size(), capacity, written.get(), dropped.get(), spilled.get(),
+                spillFile != null ? spillFile.getPending() : 0, deadLettered.get(), blockedOffers.get(), failedFlushes.get(),
+                flushCount, averageMillis, maxFlushNanos.getAndSet(0) / 1e6);
+    }
+
+    private void offerBlocking(AuditLog entry) throws InterruptedException {
+        blockedOffers.incrementAndGet();
+        if (!queue.offer(entry, blockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private boolean spill(List<AuditLog> entries) {
+        try {
+            spillFile.append(entries);
+            spilled.addAndGet(entries.size());
+            return true;
+        } catch (IOException e) {
+            dropped.addAndGet(entries.size());
+            LOGGER.error("[AUDIT] Failed to spill {} entries, dropped: {}", entries.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (queue.size() < batchSize) {
+                    replaySpill();
+                }
+                AuditLog first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                List<AuditLog> unwritten = write(batch);
+                if (!unwritten.isEmpty() && (spillFile == null || !spill(unwritten))) {
+                    LOGGER.error("[AUDIT] Giving up on {} entries the database did not take", unwritten.size());
+                }
+            } catch (InterruptedException e) {
+                LOGGER.warn("[AUDIT] Writer interrupted, draining remaining entries");
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+        LOGGER.info("[AUDIT] Writer stopped after writing {} entries", written.get());
+    }
+
+    /**
+     * Replays spilled entries while the queue holds less than a batch; stops when a full batch of
+     * new entries is waiting or shutdown begins, the rest stays on disk.
+     */
+    private void replaySpill() {
+        if (spillFile == null || spillFile.getPending() == 0 || !running) {
+            return;
+        }
+        try {
+            long replayed = spillFile.replay(batchSize, this::writeReplayed, () -> !running || queue.size() >= batchSize);
+            if (replayed > 0) {
+                LOGGER.info("[AUDIT] Replayed {} spilled entries, {} still pending", replayed, spillFile.getPending());
+            }
+        } catch (IOException e) {
+            LOGGER.error("[AUDIT] Failed to replay spilled entries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replay sink: entries of a spilled batch that were neither written nor dead-lettered are spilled
+     * again. A batch none of whose entries went in stays where it is and ends the replay.
+     */
+    private boolean writeReplayed(List<AuditLog> batch) {
+        List<AuditLog> unwritten = write(batch);
+        if (unwritten.size() == batch.size()) {
+            return false;
+        }
+        return unwritten.isEmpty() || spill(unwritten);
+    }
+
+    /**
+     * @return the entries that were neither written nor dead-lettered, because the database is unavailable
+     */
+    private List<AuditLog> write(List<AuditLog> batch) {
+        Exception failure = writeWithRetry(batch);
+        if (failure == null) {
+            return List.of();
+        }
+        LOGGER.warn("[AUDIT] Batch of {} entries still failing, writing it one entry at a time: {}",
+                batch.size(), failure.getMessage());
+
+        List<AuditLog> unwritten = new ArrayList<>();
+        for (AuditLog entry : batch) {
+            // Once the database is known to be down, the rest is not worth a round trip each
+            if (!unwritten.isEmpty() || !writeEntry(entry)) {
+                unwritten.add(entry);
+            }
+        }
+        return unwritten;
+    }
+
+    /**
+     * Writes a single entry. If it fails while the database answers, it is tried once more and then
+     * dead-lettered.
+     *
+     * @return false if the database is unavailable and the entry was not written
+     */
+    private boolean writeEntry(AuditLog entry) {
+        Exception failure = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                sink.write(List.of(entry));
+                written.incrementAndGet();
+                return true;
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                failure = e;
+                if (!databaseAvailable.getAsBoolean()) {
+                    return false;
+                }
+            }
+        }
+        try {
+            deadLetterFile.append(entry, failure);
+        } catch (IOException e) {
+            LOGGER.error("[AUDIT] Failed to dead-letter {} entry for user {}: {}",
+                    entry.getEventType(), entry.getUsername(), e.getMessage());
+            return false;
+        }
+        deadLettered.incrementAndGet();
+        LOGGER.error("[AUDIT] {} entry for user {} rejected by the database and dead-lettered: {}",
+                entry.getEventType(), entry.getUsername(), failure.getMessage());
+        return true;
+    }
+
+    /**
+     * @return null once the batch is written, or the last failure when its attempts ran out
+     */
+    private Exception writeWithRetry(List<AuditLog> batch) {
+        int attempts = 0;
+        int attemptsAfterShutdown = 0;
+        while (true) {
+            long start = System.nanoTime();
+            try {
+                sink.write(batch);
+                recordFlush(System.nanoTime() - start);
+                written.addAndGet(batch.size());
+                return null;
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                attempts++;
+                if (!running) {
+                    attemptsAfterShutdown++;
+                }
+                if (attempts >= maxAttempts || attemptsAfterShutdown >= shutdownRetryAttempts) {
+                    return e;
+                }
+                LOGGER.warn("[AUDIT] Failed to write batch of {} entries, retrying in {} ms: {}",
+                        batch.size(), retryBackoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    // Treat as a shutdown request but keep the batch: it still gets its shutdown attempts
+                    running = false;
+                }
+            }
+        }
+    }
+
+    private void recordFlush(long nanos) {
+        flushes.incrementAndGet();
+        flushNanos.addAndGet(nanos);
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
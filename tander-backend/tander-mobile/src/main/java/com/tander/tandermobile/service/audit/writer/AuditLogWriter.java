@@ -0,0 +1,347 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.utils.persistence.PooledLoSequenceAllocator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes audit entries in JDBC batches from a background thread.
+ *
+ * {@link #submit} stamps the entry's creation time and hands it off; the caller never opens a
+ * transaction or touches the connection pool. With {@code audit.journal.enabled} (the default) the
+ * entry is appended to the local {@link AuditJournal} and the {@link AuditJournalShipper} inserts it,
+ * storing the shipped journal offset in audit_journal_checkpoints in the same transaction. Without
+ * the journal, or when an append fails (journal full), the entry goes to the in-memory
+ * {@link AuditLogBuffer}, whose overflow behavior is set by {@code audit.writer.overflow-policy}.
+ *
+ * Batches hold up to {@code audit.writer.batch-size} entries. Ids come from the audit_log sequence,
+ * shared with entries saved through JPA. Before start and after shutdown, entries are written
+ * synchronously so none are lost.
+ */
+@Service
+public class AuditLogWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE audit_journal_checkpoints SET shipped_offset = ?, updated_at = ? WHERE journal_id = ?";
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO audit_journal_checkpoints (journal_id, shipped_offset, updated_at) VALUES (?, ?, ?)";
+    private static final String SELECT_CHECKPOINT_SQL =
+            "SELECT shipped_offset FROM audit_journal_checkpoints WHERE journal_id = ?";
+
+    private static final int DATABASE_CHECK_TIMEOUT_SECONDS = 5;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_log (id, user_id, username, event_type, status, entity_type, entity_id, ip_address, " +
+            "user_agent, description, old_value, new_value, error_message, session_id, created_at, event_weight) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${audit.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.writer.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.writer.flush-interval:PT0.2S}")
+    private Duration flushInterval;
+
+    @Value("${audit.writer.overflow-policy:SPILL_TO_DISK}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${audit.writer.block-timeout:PT0.05S}")
+    private Duration blockTimeout;
+
+    @Value("${audit.writer.spill-directory:./audit-spill}")
+    private String spillDirectory;
+
+    @Value("${audit.writer.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+
+    @Value("${audit.writer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${audit.writer.shutdown-retry-attempts:3}")
+    private int shutdownRetryAttempts;
+
+    @Value("${audit.writer.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    @Value("${audit.journal.enabled:true}")
+    private boolean journalEnabled;
+
+    @Value("${audit.journal.directory:./audit-journal}")
+    private String journalDirectory;
+
+    @Value("${audit.journal.segment-size:64MB}")
+    private DataSize journalSegmentSize;
+
+    @Value("${audit.journal.max-segments:32}")
+    private int journalMaxSegments;
+
+    @Value("${audit.journal.fsync-policy:INTERVAL}")
+    private AuditFsyncPolicy journalFsyncPolicy;
+
+    @Value("${audit.journal.fsync-interval:PT0.1S}")
+    private Duration journalFsyncInterval;
+
+    @Value("${audit.journal.max-retry-backoff:PT1M}")
+    private Duration journalMaxRetryBackoff;
+
+    @Value("${audit.journal.max-attempts:5}")
+    private int journalMaxAttempts;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private PooledLoSequenceAllocator idAllocator;
+    private AuditLogBuffer buffer;
+    private volatile AuditJournal journal;
+    private AuditJournalShipper shipper;
+    private volatile boolean journalFailing;
+    private final AtomicLong journalFallbacks = new AtomicLong();
+    private AuditLogBuffer.Metrics lastLoggedMetrics;
+    private long lastLoggedShipped;
+
+    @Autowired
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        idAllocator = PooledLoSequenceAllocator.forEntity(
+                jdbcTemplate,
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class),
+                AuditLog.class
+        );
+        // The spill file also takes batches that failed during shutdown, so it is used with every policy
+        AuditSpillFile spillFile = new AuditSpillFile(Path.of(spillDirectory));
+        if (spillFile.getPending() > 0) {
+            LOGGER.info("[AUDIT] {} spilled entries from a previous run will be written", spillFile.getPending());
+        }
+        buffer = new AuditLogBuffer(queueCapacity, batchSize, flushInterval, overflowPolicy, blockTimeout,
+                spillFile, retryBackoff, maxAttempts, shutdownRetryAttempts,
+                new AuditDeadLetterFile(Path.of(spillDirectory)), this::isDatabaseAvailable, this::writeBatch);
+        buffer.start();
+
+        if (journalEnabled) {
+            AuditJournal opened = new AuditJournal(Path.of(journalDirectory), (int) journalSegmentSize.toBytes(),
+                    journalMaxSegments, journalFsyncPolicy, journalFsyncInterval);
+            AuditDeadLetterFile journalDeadLetters = new AuditDeadLetterFile(Path.of(journalDirectory));
+            shipper = new AuditJournalShipper(opened, batchSize, flushInterval, retryBackoff, journalMaxRetryBackoff,
+                    journalMaxAttempts, this::loadShippedOffset, this::shipBatch, journalDeadLetters::append);
+            shipper.start();
+            journal = opened;
+        }
+        LOGGER.info("[AUDIT] Writer started: journal={}, fsyncPolicy={}, capacity={}, batchSize={}, overflowPolicy={}",
+                journalEnabled, journalFsyncPolicy, queueCapacity, batchSize, overflowPolicy);
+    }
+
+    /**
+     * Drains the queue before the application context closes, so a graceful shutdown loses nothing.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        AuditJournal closing = journal;
+        if (closing != null) {
+            // New entries go to the buffer from here on; the journal keeps whatever was not shipped
+            journal = null;
+            shipper.shutdown(shutdownTimeout);
+            closing.close();
+        }
+        if (buffer != null) {
+            LOGGER.info("[AUDIT] Shutting down, flushing {} queued entries", buffer.size());
+            buffer.shutdown(shutdownTimeout);
+            logMetrics();
+        }
+    }
+
+    /**
+     * Hands an entry off for writing. Blocks only when the journal cannot take it and the buffer is
+     * full under the BLOCK or DROP_LOW_PRIORITY policy, and then at most {@code audit.writer.block-timeout}.
+     */
+    public void submit(AuditLog entry) {
+        if (entry.getCreatedAt() == null) {
+            entry.setCreatedAt(new Date());
+        }
+        if (appendToJournal(entry)) {
+            return;
+        }
+        try {
+            if (buffer != null && buffer.offer(entry)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writeBatch(List.of(entry));
+        } catch (Exception e) {
+            LOGGER.error("[AUDIT] Failed to write audit entry {} for user {}: {}",
+                    entry.getEventType(), entry.getUsername(), e.getMessage());
+        }
+    }
+
+    private boolean appendToJournal(AuditLog entry) {
+        AuditJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.append(entry);
+            if (journalFailing) {
+                journalFailing = false;
+                LOGGER.info("[AUDIT] Journal accepts entries again");
+            }
+            return true;
+        } catch (IOException e) {
+            journalFallbacks.incrementAndGet();
+            if (!journalFailing) {
+                journalFailing = true;
+                LOGGER.warn("[AUDIT] Journal append failed, using the in-memory queue: {}", e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @return the writer's counters, or null before it has started
+     */
+    public AuditLogBuffer.Metrics getMetrics() {
+        return buffer != null ? buffer.snapshot() : null;
+    }
+
+    /**
+     * Logs queue depth, journal lag, drops, spills and flush latency when anything changed since the
+     * last report.
+     */
+    @Scheduled(fixedDelayString = "${audit.writer.stats-interval:60000}")
+    public void logMetrics() {
+        AuditLogBuffer.Metrics metrics = getMetrics();
+        if (metrics == null) {
+            return;
+        }
+        long shipped = shipper != null ? shipper.getShipped() : 0;
+        long lagBytes = shipper != null ? shipper.getLagBytes() : 0;
+        boolean idle = metrics.flushes() == 0 && metrics.queueDepth() == 0 && metrics.spillPending() == 0
+                && shipped == lastLoggedShipped && lagBytes <= 0;
+        boolean unchanged = lastLoggedMetrics != null && metrics.flushes() == lastLoggedMetrics.flushes()
+                && metrics.dropped() == lastLoggedMetrics.dropped()
+                && metrics.spillPending() == lastLoggedMetrics.spillPending()
+                && metrics.deadLettered() == lastLoggedMetrics.deadLettered()
+                && shipped == lastLoggedShipped;
+        if (idle || unchanged) {
+            return;
+        }
+        boolean newDrops = metrics.dropped() > (lastLoggedMetrics != null ? lastLoggedMetrics.dropped() : 0);
+        lastLoggedMetrics = metrics;
+        lastLoggedShipped = shipped;
+
+        StringBuilder message = new StringBuilder("[AUDIT] ");
+        if (shipper != null) {
+            message.append(String.format("journal shipped %d, lag %d bytes, failed shipments %d, dead-lettered %d, appends refused %d; ",
+                    shipped, lagBytes, shipper.getFailedShipments(), shipper.getDeadLettered(), journalFallbacks.get()));
+        }
+        message.append(String.format("queue %d/%d, written %d, dropped %d, spilled %d (%d pending), dead-lettered %d, " +
+                        "blocked offers %d, failed flushes %d, flush latency avg %.1f ms max %.1f ms",
+                metrics.queueDepth(), metrics.capacity(), metrics.written(), metrics.dropped(), metrics.spilled(),
+                metrics.spillPending(), metrics.deadLettered(), metrics.blockedOffers(), metrics.failedFlushes(),
+                metrics.averageFlushMillis(), metrics.maxFlushMillis()));
+        if (newDrops || journalFailing || metrics.queueDepth() > metrics.capacity() / 2) {
+            LOGGER.warn(message.toString());
+        } else {
+            LOGGER.info(message.toString());
+        }
+    }
+
+    /**
+     * Inserts a batch from the journal and records how far the journal has been shipped, atomically.
+     * An empty batch only moves the checkpoint, past an entry that was dead-lettered.
+     */
+    private void shipBatch(String journalId, List<AuditLog> batch, long endOffset) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                insertBatch(batch);
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, endOffset, now, journalId) == 0) {
+                jdbcTemplate.update(INSERT_CHECKPOINT_SQL, journalId, endOffset, now);
+            }
+        });
+    }
+
+    private OptionalLong loadShippedOffset(String journalId) {
+        List<Long> offsets = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, Long.class, journalId);
+        return offsets.isEmpty() ? OptionalLong.empty() : OptionalLong.of(offsets.get(0));
+    }
+
+    /**
+     * Whether the database answers at all, so the buffer can tell an entry it rejects from an outage.
+     */
+    private boolean isDatabaseAvailable() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isValid(DATABASE_CHECK_TIMEOUT_SECONDS)));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void writeBatch(List<AuditLog> batch) {
+        transactionTemplate.executeWithoutResult(status -> insertBatch(batch));
+    }
+
+    private void insertBatch(List<AuditLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+            // Assigned on the first attempt and kept for retries, which only follow a rollback
+            if (entry.getId() == null) {
+                entry.setId(idAllocator.nextId());
+            }
+            ps.setLong(1, entry.getId());
+            ps.setObject(2, entry.getUserId(), Types.BIGINT);
+            ps.setString(3, entry.getUsername());
+            ps.setString(4, entry.getEventType().name());
+            ps.setString(5, entry.getStatus().name());
+            ps.setString(6, entry.getEntityType());
+            ps.setObject(7, entry.getEntityId(), Types.BIGINT);
+            ps.setString(8, entry.getIpAddress());
+            ps.setString(9, entry.getUserAgent());
+            ps.setString(10, entry.getDescription());
+            ps.setString(11, entry.getOldValue());
+            ps.setString(12, entry.getNewValue());
+            ps.setString(13, entry.getErrorMessage());
+            ps.setString(14, entry.getSessionId());
+            ps.setTimestamp(15, new Timestamp(entry.getCreatedAt().getTime()));
+            ps.setObject(16, entry.getEventWeight(), Types.DOUBLE);
+        });
+    }
+}
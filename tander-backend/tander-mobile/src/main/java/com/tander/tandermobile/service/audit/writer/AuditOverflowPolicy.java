@@ -0,0 +1,21 @@
+package com.tander.tandermobile.service.audit.writer;
+
+/**
+ * What happens to an audit entry when the writer's queue is full.
+ */
+public enum AuditOverflowPolicy {
+    /**
+     * The caller waits up to {@code audit.writer.block-timeout} for space; entries still not queued
+     * after that are dropped.
+     */
+    BLOCK,
+    /**
+     * Entries that are not security critical are dropped at once; security-critical entries wait
+     * like {@link #BLOCK}.
+     */
+    DROP_LOW_PRIORITY,
+    /**
+     * Entries are appended to a spill file and written to the database once the queue has drained.
+     */
+    SPILL_TO_DISK
+}
@@ -0,0 +1,168 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Overflow storage for {@link AuditOverflowPolicy#SPILL_TO_DISK}: audit entries that did not fit in
+ * the writer's queue, one JSON document per line.
+ *
+ * Producers {@link #append} to {@code audit-spill.ndjson}. {@link #replay} moves that file aside to
+ * {@code audit-spill.ndjson.replay} (new spills start a fresh file) and feeds it to the database in
+ * batches; whatever is not replayed is appended back to the spill file. Lines are not fsynced, so a
+ * crash of the host (not just the JVM) can lose the last spilled entries, and a crash in the middle
+ * of a replay writes the already replayed part again on the next start.
+ */
+public class AuditSpillFile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditSpillFile.class);
+
+    static final String SPILL_FILE = "audit-spill.ndjson";
+    static final String REPLAY_FILE = SPILL_FILE + ".replay";
+
+    /**
+     * Writes one replayed batch. Returns false if the batch could not be written and must be kept.
+     */
+    @FunctionalInterface
+    public interface ReplaySink {
+        boolean write(List<AuditLog> batch);
+    }
+
+    private final Path directory;
+    private final Path spillPath;
+    private final Path replayPath;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong pending = new AtomicLong();
+
+    public AuditSpillFile(Path directory) throws IOException {
+        this.directory = directory;
+        this.spillPath = directory.resolve(SPILL_FILE);
+        this.replayPath = directory.resolve(REPLAY_FILE);
+        // Left over from a previous run
+        pending.set(countLines(replayPath) + countLines(spillPath));
+    }
+
+    public synchronized void append(List<AuditLog> entries) throws IOException {
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (AuditLog entry : entries) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+            }
+        }
+        pending.addAndGet(entries.size());
+    }
+
+    /**
+     * @return number of spilled entries not yet written to the database
+     */
+    public long getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Writes spilled entries to the sink in batches, oldest first, until the spill is empty, the sink
+     * fails or {@code stop} returns true.
+     *
+     * @return number of entries written
+     */
+    public long replay(int batchSize, ReplaySink sink, BooleanSupplier stop) throws IOException {
+        synchronized (this) {
+            // A replay file is left over when the previous replay was cut short; finish it first
+            if (!Files.exists(replayPath)) {
+                if (!Files.exists(spillPath)) {
+                    return 0;
+                }
+                Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+
+        long replayed = 0;
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditLog.class));
+                } catch (JsonProcessingException e) {
+                    // A line cut off by a crash while it was being written
+                    LOGGER.error("[AUDIT] Skipping unreadable spilled entry: {}", e.getOriginalMessage());
+                    pending.decrementAndGet();
+                    continue;
+                }
+                if (batch.size() < batchSize) {
+                    continue;
+                }
+                if (stop.getAsBoolean() || !sink.write(batch)) {
+                    putBack(batch, reader);
+                    return replayed;
+                }
+                replayed += batch.size();
+                pending.addAndGet(-batch.size());
+                batch.clear();
+            }
+            if (!batch.isEmpty()) {
+                if (stop.getAsBoolean() || !sink.write(batch)) {
+                    putBack(batch, reader);
+                    return replayed;
+                }
+                replayed += batch.size();
+                pending.addAndGet(-batch.size());
+            }
+        }
+        Files.delete(replayPath);
+        return replayed;
+    }
+
+    /**
+     * Returns an unwritten batch and the unread rest of the replay file to the spill file.
+     */
+    private void putBack(List<AuditLog> batch, BufferedReader reader) throws IOException {
+        synchronized (this) {
+            Files.createDirectories(directory);
+            try (BufferedWriter writer = Files.newBufferedWriter(spillPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditLog entry : batch) {
+                    writer.write(objectMapper.writeValueAsString(entry));
+                    writer.newLine();
+                }
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+            Files.delete(replayPath);
+        }
+    }
+
+    private static long countLines(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank()).count();
+        }
+    }
+}
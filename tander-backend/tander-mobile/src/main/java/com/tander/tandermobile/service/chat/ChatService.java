@@ -5,24 +5,42 @@ import com.tander.tandermobile.domain.chat.Conversation;
 import com.tander.tandermobile.domain.chat.MessageStatus;
 import com.tander.tandermobile.domain.user.User;
 import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.ChatMessagePageDTO;
 import com.tander.tandermobile.dto.chat.ConversationDTO;
+import com.tander.tandermobile.dto.chat.DeliveryAckRequest;
+import com.tander.tandermobile.dto.chat.MessageStatusEvent;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ChatService {
 
     Conversation getOrCreateConversation(User user1, User user2);
 
+    /**
+     * Same as {@link #getOrCreateConversation} but answers from a participant-pair cache when it can.
+     */
+    Long getOrCreateConversationId(User user1, User user2);
+
+    /**
+     * @return true if the two users have a conversation; answers from the participant-pair cache when it can
+     */
+    boolean hasConversation(Long userId, Long otherUserId);
+
     ChatMessage sendMessage(User sender, User receiver, String content);
 
     List<ChatMessageDTO> getConversationMessages(Long conversationId, User currentUser);
 
+    ChatMessagePageDTO getConversationMessagesPage(Long conversationId, User currentUser, Long beforeMessageId, Integer limit);
+
     List<ConversationDTO> getUserConversations(User user);
 
     void markMessagesAsRead(Long conversationId, User currentUser);
 
     void markMessageAsDelivered(Long messageId);
 
+    Map<String, MessageStatusEvent> markMessagesAsDelivered(DeliveryAckRequest request, User receiver);
+
     void deleteMessage(Long messageId, User currentUser);
 
     ChatMessageDTO convertToDTO(ChatMessage message);
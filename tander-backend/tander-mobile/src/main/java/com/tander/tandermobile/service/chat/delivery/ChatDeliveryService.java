@@ -0,0 +1,246 @@
+package com.tander.tandermobile.service.chat.delivery;
+
+import com.tander.tandermobile.domain.chat.ChatDeliveryCursor;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.CatchUpBatchDTO;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.DeliveryAckRequest;
+import com.tander.tandermobile.repository.chat.ChatDeliveryCursorRepository;
+import com.tander.tandermobile.repository.chat.ChatMessageRepository;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-device delivery cursors and catch-up after a reconnect.
+ *
+ * A device identifies itself with the {@value #DEVICE_ID_HEADER} CONNECT header and may send its own
+ * cursor in {@value #CURSOR_HEADER}; otherwise the stored cursor of that device is used. Delivery
+ * acknowledgements from the device move its cursor forward. When the device subscribes to
+ * /user/queue/catch-up it receives, in batches of {@code chat.delivery.catch-up-batch-size}, every
+ * message it missed across all conversations, up to {@code chat.delivery.catch-up-max-messages};
+ * beyond that it continues with /app/chat.catchUp. Devices without a cursor (first login) load
+ * history over REST instead.
+ */
+@Service
+public class ChatDeliveryService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatDeliveryService.class);
+
+    public static final String DEVICE_ID_HEADER = "device-id";
+    public static final String CURSOR_HEADER = "last-delivered-id";
+    public static final String CATCH_UP_DESTINATION = "/queue/catch-up";
+    private static final String CATCH_UP_SUBSCRIPTION = "/user" + CATCH_UP_DESTINATION;
+
+    @Value("${chat.delivery.catch-up-batch-size:100}")
+    private int batchSize;
+
+    @Value("${chat.delivery.catch-up-max-messages:1000}")
+    private int maxMessages;
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ChatDeliveryCursorRepository chatDeliveryCursorRepository;
+    private final UserIdentityCacheService userIdentityCacheService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, DeviceSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChatDeliveryService(ChatMessageRepository chatMessageRepository,
+                               ChatDeliveryCursorRepository chatDeliveryCursorRepository,
+                               UserIdentityCacheService userIdentityCacheService,
+                               SimpMessagingTemplate messagingTemplate,
+                               TransactionTemplate transactionTemplate) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.chatDeliveryCursorRepository = chatDeliveryCursorRepository;
+        this.userIdentityCacheService = userIdentityCacheService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener
+    public void onSessionConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String deviceId = StringUtils.truncate(accessor.getFirstNativeHeader(DEVICE_ID_HEADER), ChatDeliveryCursor.DEVICE_ID_LENGTH);
+        UserIdentity identity = userIdentityCacheService.resolve(event.getUser());
+        if (StringUtils.isBlank(deviceId) || identity == null || accessor.getSessionId() == null) {
+            return;
+        }
+
+        Long cursor = parseCursor(accessor.getFirstNativeHeader(CURSOR_HEADER));
+        sessions.put(accessor.getSessionId(), new DeviceSession(identity.getId(), identity.getUsername(), deviceId, cursor));
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        sessions.remove(event.getSessionId());
+    }
+
+    /**
+     * Starts the catch-up once the device is subscribed to its catch-up queue. Runs off the
+     * WebSocket thread so the database reads do not hold up the session.
+     */
+    @Async
+    @EventListener
+    public void onSessionSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String sessionId = accessor.getSessionId();
+        DeviceSession device = sessionId != null ? sessions.get(sessionId) : null;
+        if (device == null || !CATCH_UP_SUBSCRIPTION.equals(accessor.getDestination())) {
+            return;
+        }
+
+        Long cursor = device.connectCursor != null
+                ? device.connectCursor
+                : chatDeliveryCursorRepository.findCursor(device.userId, device.deviceId).orElse(null);
+        if (cursor == null) {
+            return;
+        }
+        catchUp(sessionId, cursor);
+    }
+
+    /**
+     * Sends the session every message its user received after {@code cursor}, plus older ones that
+     * were never delivered, in bounded batches. The last batch tells the client whether to continue.
+     */
+    public void catchUp(String sessionId, Long cursor) {
+        DeviceSession device = sessions.get(sessionId);
+        if (device == null || cursor == null) {
+            return;
+        }
+
+        int sent = 0;
+
+        // Stragglers: undelivered messages that committed with an id below the cursor. Only SENT rows
+        // are read (idx_chat_msg_receiver_status), so starting from id 0 does not scan delivered history
+        Long afterId = 0L;
+        while (sent < maxMessages) {
+            int pageSize = Math.min(batchSize, maxMessages - sent);
+            List<ChatMessageDTO> batch = chatMessageRepository.findUndeliveredUpTo(
+                    device.userId, afterId, cursor, PageRequest.of(0, pageSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            sendBatch(sessionId, device, new CatchUpBatchDTO(batch, cursor, true));
+            sent += batch.size();
+            afterId = batch.get(batch.size() - 1).getId();
+            if (batch.size() < pageSize) {
+                break;
+            }
+        }
+
+        // Everything received after the cursor, fetching one extra row to know whether more remain
+        afterId = cursor;
+        boolean hasMore = true;
+        boolean finalBatchSent = false;
+        while (hasMore && sent < maxMessages) {
+            int pageSize = Math.min(batchSize, maxMessages - sent);
+            List<ChatMessageDTO> page = chatMessageRepository.findReceivedAfter(
+                    device.userId, afterId, PageRequest.of(0, pageSize + 1));
+            hasMore = page.size() > pageSize;
+            List<ChatMessageDTO> batch = hasMore ? new ArrayList<>(page.subList(0, pageSize)) : page;
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+            sent += batch.size();
+            sendBatch(sessionId, device, new CatchUpBatchDTO(batch, afterId, hasMore));
+            finalBatchSent = !hasMore || sent >= maxMessages;
+        }
+        if (!finalBatchSent) {
+            // The limit was used up by stragglers
+            sendBatch(sessionId, device, new CatchUpBatchDTO(new ArrayList<>(), afterId, true));
+        }
+
+        LOGGER.debug("[CHAT DELIVERY] Caught up session {} of user {} from cursor {}: {} messages",
+                sessionId, device.userId, cursor, sent);
+    }
+
+    /**
+     * Moves the acknowledging device's cursor to the highest acknowledged message that its user
+     * received and that is now marked delivered. Ids of other users' messages, or of messages the
+     * acknowledgement did not mark, are ignored, so a client cannot skip messages it never got by
+     * acknowledging an arbitrary id. Call it after the acknowledgement has been applied.
+     */
+    public void advanceCursor(String sessionId, DeliveryAckRequest request) {
+        DeviceSession device = sessionId != null ? sessions.get(sessionId) : null;
+        if (device == null || request == null) {
+            return;
+        }
+        Long messageId = highestDeliveredId(device.userId, request);
+        if (messageId == null) {
+            return;
+        }
+
+        Date now = new Date();
+        Integer updated = transactionTemplate.execute(status ->
+                chatDeliveryCursorRepository.advance(device.userId, device.deviceId, messageId, now));
+        if (updated != null && updated > 0) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!chatDeliveryCursorRepository.existsByUserIdAndDeviceId(device.userId, device.deviceId)) {
+                    chatDeliveryCursorRepository.saveAndFlush(
+                            new ChatDeliveryCursor(null, device.userId, device.deviceId, messageId, now));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another acknowledgement created the row first
+            transactionTemplate.execute(status ->
+                    chatDeliveryCursorRepository.advance(device.userId, device.deviceId, messageId, now));
+        }
+    }
+
+    private Long highestDeliveredId(Long userId, DeliveryAckRequest request) {
+        if (request.getConversationId() != null && request.getUpToMessageId() != null) {
+            return chatMessageRepository.findMaxDeliveredIdUpTo(request.getConversationId(), userId, request.getUpToMessageId());
+        }
+        List<Long> messageIds = request.getMessageIds();
+        return messageIds == null || messageIds.isEmpty() ? null : chatMessageRepository.findMaxDeliveredId(messageIds, userId);
+    }
+
+    private void sendBatch(String sessionId, DeviceSession device, CatchUpBatchDTO batch) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(device.username, CATCH_UP_DESTINATION, batch, headers.getMessageHeaders());
+    }
+
+    private static Long parseCursor(String value) {
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record DeviceSession(Long userId, String username, String deviceId, Long connectCursor) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.tander.tandermobile.service.chat.delivery;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.ChatMessageFrame;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Pushes chat messages to a user's sessions in the encoding each one subscribed for.
+ *
+ * Clients choose the encoding by destination: /user/queue/messages receives {@link ChatMessageDTO}
+ * as JSON, /user/queue/messages-compact receives {@link ChatMessageFrame} as CBOR. The registry is
+ * multi-node aware in relay mode, so the choice holds for sessions on any node. Each encoding is
+ * serialized once per message, however many sessions use it. Users with no session are skipped;
+ * they get the message through catch-up on reconnect.
+ *
+ * CBOR frames are sent as application/octet-stream: STOMP over WebSocket only sends that content
+ * type as a binary WebSocket frame. Any other type goes out as a text frame, and CBOR bytes that
+ * are not valid UTF-8 would be replaced on the wire.
+ */
+@Service
+public class ChatMessagePublisher {
+
+    public static final String MESSAGES_DESTINATION = "/queue/messages";
+    public static final String COMPACT_MESSAGES_DESTINATION = "/queue/messages-compact";
+    private static final String MESSAGES_SUBSCRIPTION = "/user" + MESSAGES_DESTINATION;
+    private static final String COMPACT_MESSAGES_SUBSCRIPTION = "/user" + COMPACT_MESSAGES_DESTINATION;
+
+    private static final CBORMapper CBOR_MAPPER = new CBORMapper();
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+
+    @Autowired
+    public ChatMessagePublisher(SimpMessagingTemplate messagingTemplate, SimpUserRegistry simpUserRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+    }
+
+    /**
+     * @return false if the user has no session on any node
+     */
+    public boolean publish(String username, ChatMessageDTO message) {
+        SimpUser user = simpUserRegistry.getUser(username);
+        if (user == null) {
+            return false;
+        }
+
+        boolean json = false;
+        boolean compact = false;
+        for (SimpSession session : user.getSessions()) {
+            for (SimpSubscription subscription : session.getSubscriptions()) {
+                json |= MESSAGES_SUBSCRIPTION.equals(subscription.getDestination());
+                compact |= COMPACT_MESSAGES_SUBSCRIPTION.equals(subscription.getDestination());
+            }
+        }
+
+        // A user known without subscriptions (registry not yet refreshed on another node) gets JSON
+        if (json || !compact) {
+            messagingTemplate.convertAndSendToUser(username, MESSAGES_DESTINATION, message);
+        }
+        if (compact) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            headers.setLeaveMutable(true);
+            messagingTemplate.convertAndSendToUser(username, COMPACT_MESSAGES_DESTINATION,
+                    encodeCompact(message), headers.getMessageHeaders());
+        }
+        return true;
+    }
+
+    /**
+     * @return the {@link ChatMessageFrame} of the message, encoded as CBOR
+     */
+    public static byte[] encodeCompact(ChatMessageDTO message) {
+        try {
+            return CBOR_MAPPER.writeValueAsBytes(ChatMessageFrame.from(message));
+        } catch (JsonProcessingException e) {
+            throw new MessageConversionException("Failed to encode message " + message.getId() + " as CBOR", e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.tander.tandermobile.service.chat.ephemeral;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.EphemeralEvent;
+import com.tander.tandermobile.dto.chat.EphemeralEventRequest;
+import com.tander.tandermobile.dto.chat.EphemeralEventType;
+import com.tander.tandermobile.service.chat.ChatService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typing and recording indicators, handled entirely in memory.
+ *
+ * Nothing is persisted or audited. State is kept per sender and receiver, i.e. per conversation:
+ * clients may report activity on every keystroke, but an activity is forwarded only when it starts,
+ * changes (typing to recording) or has not been forwarded for {@code chat.ephemeral.refresh-interval},
+ * which serves as the keep-alive for the receiver's indicator. STOPPED is forwarded only if an activity
+ * was forwarded before it. Senders that go quiet without STOPPED (closed app, lost connection) are
+ * stopped by a sweep after {@code chat.ephemeral.idle-timeout}.
+ *
+ * Events are only relayed between users who share a conversation. That check is cached per sender
+ * and receiver for {@value #CONVERSATION_CHECK_EXPIRY_SECONDS} seconds, negative answers included,
+ * so a client cannot turn keystrokes into lookups. The receiver's username comes from the identity
+ * cache and events for receivers without a session are dropped, so the hot path makes no
+ * repository calls.
+ */
+@Service
+public class EphemeralEventService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EphemeralEventService.class);
+
+    public static final String EPHEMERAL_DESTINATION = "/queue/ephemeral";
+    private static final long CONVERSATION_CHECK_CACHE_SIZE = 10_000;
+    private static final long CONVERSATION_CHECK_EXPIRY_SECONDS = 60;
+
+    private final ChatService chatService;
+    private final UserIdentityCacheService userIdentityCacheService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final long refreshIntervalMillis;
+    private final long idleTimeoutMillis;
+
+    private final Map<ConversationKey, ActivityState> activities = new ConcurrentHashMap<>();
+
+    // Whether sender and receiver share a conversation; a pair that does not is re-checked after expiry
+    private final Cache<ConversationKey, Boolean> sharedConversations = CacheBuilder.newBuilder()
+            .maximumSize(CONVERSATION_CHECK_CACHE_SIZE)
+            .expireAfterWrite(CONVERSATION_CHECK_EXPIRY_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    @Autowired
+    public EphemeralEventService(ChatService chatService,
+                                 UserIdentityCacheService userIdentityCacheService,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 SimpUserRegistry simpUserRegistry,
+                                 @Value("${chat.ephemeral.refresh-interval:3s}") Duration refreshInterval,
+                                 @Value("${chat.ephemeral.idle-timeout:6s}") Duration idleTimeout) {
+        this.chatService = chatService;
+        this.userIdentityCacheService = userIdentityCacheService;
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.refreshIntervalMillis = refreshInterval.toMillis();
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+    }
+
+    /**
+     * Records the sender's activity and forwards it to the receiver if it is not a repeat.
+     * Events to a user the sender has no conversation with are dropped.
+     *
+     * @return true if an event was sent to the receiver
+     */
+    public boolean publish(UserIdentity sender, EphemeralEventRequest request) {
+        if (sender == null || request == null || request.getType() == null || request.getReceiverId() == null
+                || request.getReceiverId().equals(sender.getId())) {
+            return false;
+        }
+
+        EphemeralEventType type = request.getType();
+        ConversationKey key = new ConversationKey(sender.getId(), request.getReceiverId());
+        if (!sharesConversation(key)) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+
+        if (!type.isActivity()) {
+            return activities.remove(key) != null && send(key, sender.getUsername(), type);
+        }
+
+        ActivityState state = activities.computeIfAbsent(key, k -> new ActivityState(sender.getUsername()));
+        boolean forward;
+        synchronized (state) {
+            state.lastSeenMillis = now;
+            forward = state.type != type || now - state.forwardedAtMillis >= refreshIntervalMillis;
+            if (forward) {
+                state.type = type;
+                state.forwardedAtMillis = now;
+            }
+        }
+        return forward && send(key, sender.getUsername(), type);
+    }
+
+    /**
+     * Stops activities whose sender stopped reporting without sending STOPPED.
+     */
+    @Scheduled(fixedDelayString = "${chat.ephemeral.sweep-interval:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        activities.forEach((key, state) -> {
+            if (now - state.lastSeenMillis >= idleTimeoutMillis && activities.remove(key, state)) {
+                send(key, state.senderUsername, EphemeralEventType.STOPPED);
+            }
+        });
+    }
+
+    /**
+     * @return number of conversations with an ongoing activity
+     */
+    public int getActiveCount() {
+        return activities.size();
+    }
+
+    private boolean sharesConversation(ConversationKey key) {
+        Boolean shared = sharedConversations.getIfPresent(key);
+        if (shared == null) {
+            try {
+                shared = chatService.hasConversation(key.senderId(), key.receiverId());
+            } catch (Exception e) {
+                LOGGER.debug("[EPHEMERAL] Failed to check the conversation of user {} with user {}: {}",
+                        key.senderId(), key.receiverId(), e.getMessage());
+                return false;
+            }
+            sharedConversations.put(key, shared);
+        }
+        return shared;
+    }
+
+    private boolean send(ConversationKey key, String senderUsername, EphemeralEventType type) {
+        String receiverUsername = userIdentityCacheService.findById(key.receiverId())
+                .filter(UserIdentity::isUsable)
+                .map(UserIdentity::getUsername)
+                .orElse(null);
+        if (receiverUsername == null || simpUserRegistry.getUser(receiverUsername) == null) {
+            return false;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(receiverUsername, EPHEMERAL_DESTINATION,
+                    new EphemeralEvent(key.senderId(), senderUsername, type));
+            return true;
+        } catch (Exception e) {
+            LOGGER.debug("[EPHEMERAL] Failed to send {} from user {} to user {}: {}",
+                    type, key.senderId(), key.receiverId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private record ConversationKey(Long senderId, Long receiverId) {
+    }
+
+    private static final class ActivityState {
+        private final String senderUsername;
+        private EphemeralEventType type;
+        private long forwardedAtMillis;
+        private volatile long lastSeenMillis;
+
+        private ActivityState(String senderUsername) {
+            this.senderUsername = senderUsername;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.tander.tandermobile.service.chat.group;
+
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.dto.chat.GroupConversationDTO;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import com.tander.tandermobile.dto.chat.GroupMessagePageDTO;
+
+import java.util.List;
+
+public interface GroupChatService {
+
+    /**
+     * Creates a group owned by {@code owner} with the given members (the owner is always included).
+     */
+    GroupConversationDTO createGroup(User owner, String name, List<Long> memberIds);
+
+    List<GroupConversationDTO> getUserGroups(User user);
+
+    /**
+     * Stores the message once and moves the sender's read watermark to it. Delivery to the other
+     * members is done by the caller through {@link GroupFanOutService} after the commit.
+     */
+    GroupMessageDTO sendMessage(Long groupId, User sender, String content);
+
+    GroupMessagePageDTO getMessagesPage(Long groupId, User currentUser, Long beforeMessageId, Integer limit);
+
+    List<GroupMemberDTO> getMembers(Long groupId, User currentUser);
+
+    /**
+     * Adds users to the group. Only the owner may add members.
+     */
+    void addMembers(Long groupId, User actor, List<Long> userIds);
+
+    /**
+     * Removes a member. The owner may remove anyone else; members may remove themselves (leave).
+     */
+    void removeMember(Long groupId, User actor, Long userId);
+
+    /**
+     * Moves the user's read watermark to the group's latest message.
+     */
+    void markRead(Long groupId, User currentUser);
+}
@@ -0,0 +1,115 @@
+package com.tander.tandermobile.service.chat.group;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import com.tander.tandermobile.repository.chat.GroupMemberRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers group messages to the members' /user/queue/group-messages.
+ *
+ * The payload is serialized once per message and the same bytes are handed to every online member;
+ * only the destination headers differ. Members without a session on any node are skipped, they load
+ * the history over REST. Member usernames are cached per group for {@code chat.group.member-cache-ttl};
+ * membership changes on this node invalidate the entry, changes on other nodes show after the TTL.
+ */
+@Service
+public class GroupFanOutService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupFanOutService.class);
+
+    public static final String GROUP_MESSAGES_DESTINATION = "/queue/group-messages";
+    private static final long MEMBER_CACHE_SIZE = 10_000;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+    private final GroupMemberRepository groupMemberRepository;
+    private final Cache<Long, List<String>> memberUsernames;
+
+    @Autowired
+    public GroupFanOutService(SimpMessagingTemplate messagingTemplate,
+                              SimpUserRegistry simpUserRegistry,
+                              GroupMemberRepository groupMemberRepository,
+                              @Value("${chat.group.member-cache-ttl:30s}") Duration memberCacheTtl) {
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+        this.groupMemberRepository = groupMemberRepository;
+        this.memberUsernames = CacheBuilder.newBuilder()
+                .maximumSize(MEMBER_CACHE_SIZE)
+                .expireAfterWrite(memberCacheTtl.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * @return number of members the message was sent to
+     */
+    public int publish(GroupMessageDTO message) {
+        List<String> usernames = getMemberUsernames(message.getGroupId());
+        Message<?> serialized = null;
+        int sent = 0;
+
+        for (String username : usernames) {
+            if (simpUserRegistry.getUser(username) == null) {
+                continue;
+            }
+            if (serialized == null) {
+                serialized = serialize(message);
+            }
+            messagingTemplate.send(userDestination(username), serialized);
+            sent++;
+        }
+        return sent;
+    }
+
+    /**
+     * Drops the cached member list after a membership change.
+     */
+    public void invalidate(Long groupId) {
+        memberUsernames.invalidate(groupId);
+    }
+
+    private List<String> getMemberUsernames(Long groupId) {
+        try {
+            return memberUsernames.get(groupId, () -> groupMemberRepository.findMembers(groupId).stream()
+                    .map(GroupMemberDTO::getUsername)
+                    .toList());
+        } catch (ExecutionException e) {
+            LOGGER.error("[GROUP CHAT] Failed to load members of group {}", groupId, e);
+            return List.of();
+        }
+    }
+
+    private Message<?> serialize(Object payload) {
+        // Immutable headers: each send copies them and sets its own destination, the payload is shared
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(payload, headers.getMessageHeaders());
+        if (message == null) {
+            throw new MessageConversionException("No converter for " + payload.getClass().getName());
+        }
+        return message;
+    }
+
+    /**
+     * Same destination {@link SimpMessagingTemplate#convertAndSendToUser} builds.
+     */
+    private String userDestination(String username) {
+        return messagingTemplate.getUserDestinationPrefix() + username.replace("/", "%2F") + GROUP_MESSAGES_DESTINATION;
+    }
+}
@@ -0,0 +1,290 @@
+package com.tander.tandermobile.service.chat.group.impl;
+
+import com.google.common.collect.Lists;
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.domain.chat.Conversation;
+import com.tander.tandermobile.domain.chat.GroupConversation;
+import com.tander.tandermobile.domain.chat.GroupMember;
+import com.tander.tandermobile.domain.chat.GroupMemberRole;
+import com.tander.tandermobile.domain.chat.GroupMessage;
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.GroupConversationDTO;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import com.tander.tandermobile.dto.chat.GroupMessageDTO;
+import com.tander.tandermobile.dto.chat.GroupMessagePageDTO;
+import com.tander.tandermobile.repository.chat.GroupConversationRepository;
+import com.tander.tandermobile.repository.chat.GroupMemberRepository;
+import com.tander.tandermobile.repository.chat.GroupMessageRepository;
+import com.tander.tandermobile.service.audit.AuditLogService;
+import com.tander.tandermobile.service.chat.group.GroupChatService;
+import com.tander.tandermobile.service.chat.group.GroupFanOutService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class GroupChatServiceImpl implements GroupChatService {
+
+    private static final int DEFAULT_PAGE_SIZE = 30;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Oracle rejects IN lists longer than 1000 elements
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
+    private final GroupConversationRepository groupConversationRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final GroupMessageRepository groupMessageRepository;
+    private final UserIdentityCacheService userIdentityCacheService;
+    private final GroupFanOutService groupFanOutService;
+    private final AuditLogService auditLogService;
+
+    @Value("${chat.group.max-members:1000}")
+    private int maxMembers;
+
+    @Override
+    @Transactional
+    public GroupConversationDTO createGroup(User owner, String name, List<Long> memberIds) {
+        String groupName = StringUtils.truncate(StringUtils.trimToNull(name), GroupConversation.NAME_LENGTH);
+        if (groupName == null) {
+            throw new RuntimeException("Group name is required");
+        }
+
+        Set<Long> userIds = new LinkedHashSet<>();
+        userIds.add(owner.getId());
+        if (memberIds != null) {
+            memberIds.stream().filter(Objects::nonNull).forEach(userIds::add);
+        }
+        if (userIds.size() > maxMembers) {
+            throw new RuntimeException("A group can have at most " + maxMembers + " members");
+        }
+        List<User> users = resolveUsers(userIds);
+
+        GroupConversation group = new GroupConversation();
+        group.setName(groupName);
+        group.setCreatedBy(owner);
+        group.setMemberCount(users.size());
+        GroupConversation saved = groupConversationRepository.save(group);
+
+        List<GroupMember> members = new ArrayList<>(users.size());
+        for (User user : users) {
+            GroupMemberRole role = user.getId().equals(owner.getId()) ? GroupMemberRole.OWNER : GroupMemberRole.MEMBER;
+            members.add(newMember(saved, user, role));
+        }
+        groupMemberRepository.saveAll(members);
+
+        audit(AuditEventType.CHAT_GROUP_CREATED, owner, "GroupConversation", saved.getId(),
+                "Created group with " + users.size() + " members");
+
+        return new GroupConversationDTO(saved.getId(), saved.getName(), saved.getMemberCount(), saved.getCreatedAt(),
+                saved.getLastMessageAt(), null, null, null, null, 0L);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GroupConversationDTO> getUserGroups(User user) {
+        return groupConversationRepository.findInboxByUserId(user.getId());
+    }
+
+    @Override
+    @Transactional
+    public GroupMessageDTO sendMessage(Long groupId, User sender, String content) {
+        requireRole(groupId, sender.getId());
+
+        GroupMessage message = new GroupMessage();
+        message.setGroup(groupConversationRepository.getReferenceById(groupId));
+        message.setSender(sender);
+        message.setContent(content);
+        GroupMessage saved = groupMessageRepository.save(message);
+
+        groupConversationRepository.applyNewMessage(groupId, saved.getId(), Conversation.previewOf(content), saved.getSentAt());
+        // The sender has read everything up to their own message
+        groupMemberRepository.advanceReadWatermark(groupId, sender.getId(), saved.getId(), saved.getSentAt());
+
+        audit(AuditEventType.CHAT_MESSAGE_SENT, sender, "GroupMessage", saved.getId(),
+                "Message sent to group: " + groupId);
+
+        return new GroupMessageDTO(saved.getId(), groupId, sender.getId(), sender.getUsername(), content, saved.getSentAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GroupMessagePageDTO getMessagesPage(Long groupId, User currentUser, Long beforeMessageId, Integer limit) {
+        requireRole(groupId, currentUser.getId());
+
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether an older page exists without a COUNT query
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+
+        List<GroupMessageDTO> messages;
+        if (beforeMessageId == null) {
+            messages = groupMessageRepository.findLatestMessageDTOs(groupId, pageRequest);
+        } else {
+            Date beforeSentAt = groupMessageRepository.findSentAtInGroup(beforeMessageId, groupId)
+                    .orElseThrow(() -> new RuntimeException("Cursor message not found in group"));
+            messages = groupMessageRepository.findMessageDTOsBefore(groupId, beforeSentAt, beforeMessageId, pageRequest);
+        }
+
+        boolean hasMore = messages.size() > pageSize;
+        List<GroupMessageDTO> page = new ArrayList<>(messages.subList(0, Math.min(pageSize, messages.size())));
+        Collections.reverse(page);
+
+        Long nextCursor = hasMore && !page.isEmpty() ? page.get(0).getId() : null;
+        return new GroupMessagePageDTO(page, nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GroupMemberDTO> getMembers(Long groupId, User currentUser) {
+        requireRole(groupId, currentUser.getId());
+        return groupMemberRepository.findMembers(groupId);
+    }
+
+    @Override
+    @Transactional
+    public void addMembers(Long groupId, User actor, List<Long> userIds) {
+        if (requireRole(groupId, actor.getId()) != GroupMemberRole.OWNER) {
+            throw new RuntimeException("Only the group owner can add members");
+        }
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> newIds = new LinkedHashSet<>();
+        userIds.stream().filter(Objects::nonNull).forEach(newIds::add);
+        newIds.removeAll(findExistingMemberIds(groupId, newIds));
+        if (newIds.isEmpty()) {
+            return;
+        }
+
+        GroupConversation group = groupConversationRepository.findById(groupId)
+                .orElseThrow(() -> new RuntimeException("Group not found or access denied"));
+        if (group.getMemberCount() + newIds.size() > maxMembers) {
+            throw new RuntimeException("A group can have at most " + maxMembers + " members");
+        }
+
+        List<GroupMember> members = new ArrayList<>(newIds.size());
+        for (User user : resolveUsers(newIds)) {
+            members.add(newMember(group, user, GroupMemberRole.MEMBER));
+        }
+        groupMemberRepository.saveAll(members);
+        groupConversationRepository.adjustMemberCount(groupId, members.size());
+        invalidateMembersAfterCommit(groupId);
+
+        audit(AuditEventType.CHAT_GROUP_MEMBER_ADDED, actor, "GroupConversation", groupId,
+                "Added " + members.size() + " members");
+    }
+
+    @Override
+    @Transactional
+    public void removeMember(Long groupId, User actor, Long userId) {
+        GroupMemberRole actorRole = requireRole(groupId, actor.getId());
+        boolean leaving = actor.getId().equals(userId);
+
+        if (leaving && actorRole == GroupMemberRole.OWNER) {
+            throw new RuntimeException("The group owner cannot leave the group");
+        }
+        if (!leaving && actorRole != GroupMemberRole.OWNER) {
+            throw new RuntimeException("Only the group owner can remove members");
+        }
+        if (groupMemberRepository.deleteMembership(groupId, userId) == 0) {
+            throw new RuntimeException("Group member not found");
+        }
+        groupConversationRepository.adjustMemberCount(groupId, -1);
+        invalidateMembersAfterCommit(groupId);
+
+        audit(AuditEventType.CHAT_GROUP_MEMBER_REMOVED, actor, "GroupConversation", groupId,
+                leaving ? "Left group" : "Removed member: " + userId);
+    }
+
+    @Override
+    @Transactional
+    public void markRead(Long groupId, User currentUser) {
+        requireRole(groupId, currentUser.getId());
+
+        groupConversationRepository.findById(groupId)
+                .filter(group -> group.getLastMessageId() != null)
+                .ifPresent(group -> groupMemberRepository.advanceReadWatermark(groupId, currentUser.getId(),
+                        group.getLastMessageId(), group.getLastMessageAt()));
+    }
+
+    private GroupMemberRole requireRole(Long groupId, Long userId) {
+        return groupMemberRepository.findRole(groupId, userId)
+                .orElseThrow(() -> new RuntimeException("Group not found or access denied"));
+    }
+
+    private List<User> resolveUsers(Collection<Long> userIds) {
+        List<User> users = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            users.add(userIdentityCacheService.findById(userId)
+                    .filter(UserIdentity::isUsable)
+                    .map(UserIdentity::toUserReference)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + userId)));
+        }
+        return users;
+    }
+
+    private Set<Long> findExistingMemberIds(Long groupId, Collection<Long> userIds) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> chunk : Lists.partition(new ArrayList<>(userIds), MAX_IN_LIST_SIZE)) {
+            existing.addAll(groupMemberRepository.findMemberIds(groupId, chunk));
+        }
+        return existing;
+    }
+
+    private static GroupMember newMember(GroupConversation group, User user, GroupMemberRole role) {
+        GroupMember member = new GroupMember();
+        member.setGroup(group);
+        member.setUser(user);
+        member.setRole(role);
+        return member;
+    }
+
+    /**
+     * Drops the fan-out member cache once the change is visible, so a concurrent reload
+     * cannot cache the old member list for the whole TTL.
+     */
+    private void invalidateMembersAfterCommit(Long groupId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                groupFanOutService.invalidate(groupId);
+            }
+        });
+    }
+
+    private void audit(AuditEventType eventType, User user, String entityType, Long entityId, String description) {
+        auditLogService.logEventWithDetails(
+            eventType,
+            AuditStatus.SUCCESS,
+            user.getId(),
+            user.getUsername(),
+            entityType,
+            entityId,
+            description,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+    }
+}
@@ -7,62 +7,144 @@ import com.tander.tandermobile.domain.chat.Conversation;
 import com.tander.tandermobile.domain.chat.MessageStatus;
 import com.tander.tandermobile.domain.user.User;
 import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.ChatMessagePageDTO;
 import com.tander.tandermobile.dto.chat.ConversationDTO;
+import com.tander.tandermobile.dto.chat.DeliveredMessageRef;
+import com.tander.tandermobile.dto.chat.DeliveryAckRequest;
+import com.tander.tandermobile.dto.chat.MessageStatusEvent;
 import com.tander.tandermobile.repository.chat.ChatMessageRepository;
 import com.tander.tandermobile.repository.chat.ConversationRepository;
 import com.tander.tandermobile.service.audit.AuditLogService;
 import com.tander.tandermobile.service.chat.ChatService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ChatServiceImpl implements ChatService {
 
+    private static final int DEFAULT_PAGE_SIZE = 30;
+    private static final int MAX_PAGE_SIZE = 100;
+    // Oracle rejects IN lists longer than 1000 elements
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    private static final long CONVERSATION_ID_CACHE_SIZE = 10_000;
+    private static final long CONVERSATION_ID_CACHE_EXPIRY_MINUTES = 60;
+
     private final ConversationRepository conversationRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final AuditLogService auditLogService;
+    private final PlatformTransactionManager transactionManager;
+
+    // Conversation id by participant pair, so repeat sends skip the lookup; a pair never changes conversation
+    private final Cache<String, Long> conversationIdsByParticipants = CacheBuilder.newBuilder()
+            .maximumSize(CONVERSATION_ID_CACHE_SIZE)
+            .expireAfterAccess(CONVERSATION_ID_CACHE_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
 
     @Override
     @Transactional
     public Conversation getOrCreateConversation(User user1, User user2) {
-        return conversationRepository.findConversationBetweenUsers(user1, user2)
-                .orElseGet(() -> {
-                    Conversation conversation = new Conversation();
-                    conversation.setUser1(user1);
-                    conversation.setUser2(user2);
-                    conversation.setActive(true);
-                    Conversation saved = conversationRepository.save(conversation);
-
-                    auditLogService.logEventWithDetails(
-                        AuditEventType.CHAT_CONVERSATION_STARTED,
-                        AuditStatus.SUCCESS,
-                        user1.getId(),
-                        user1.getUsername(),
-                        "Conversation",
-                        saved.getId(),
-                        "Started conversation with user: " + user2.getUsername(),
-                        null,
-                        null,
-                        null,
-                        null,
-                        null,
-                        null
-                    );
-
-                    return saved;
-                });
+        User first = user1.getId() <= user2.getId() ? user1 : user2;
+        User second = first == user1 ? user2 : user1;
+
+        Conversation conversation = conversationRepository.findByParticipants(first.getId(), second.getId())
+                .orElseGet(() -> createConversation(first, second, user1, user2));
+        conversationIdsByParticipants.put(participantKey(first.getId(), second.getId()), conversation.getId());
+        return conversation;
+    }
+
+    @Override
+    @Transactional
+    public Long getOrCreateConversationId(User user1, User user2) {
+        Long cachedId = conversationIdsByParticipants.getIfPresent(participantKey(user1.getId(), user2.getId()));
+        return cachedId != null ? cachedId : getOrCreateConversation(user1, user2).getId();
+    }
+
+    @Override
+    public boolean hasConversation(Long userId, Long otherUserId) {
+        String key = participantKey(userId, otherUserId);
+        if (conversationIdsByParticipants.getIfPresent(key) != null) {
+            return true;
+        }
+        Optional<Long> conversationId = conversationRepository.findIdByParticipants(
+                Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+        conversationId.ifPresent(id -> conversationIdsByParticipants.put(key, id));
+        return conversationId.isPresent();
+    }
+
+    /**
+     * Inserts the conversation in its own transaction, so losing a race against a concurrent first
+     * message (unique constraint on the participant pair) does not roll back the caller's transaction.
+     * The loser re-reads the row the winner committed.
+     */
+    private Conversation createConversation(User first, User second, User initiator, User other) {
+        Conversation saved;
+        try {
+            saved = requiresNewTransaction().execute(status -> {
+                Conversation conversation = new Conversation();
+                conversation.setUser1(first);
+                conversation.setUser2(second);
+                conversation.setActive(true);
+                return conversationRepository.saveAndFlush(conversation);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return conversationRepository.findByParticipants(first.getId(), second.getId())
+                    .orElseThrow(() -> e);
+        }
+
+        auditLogService.logEventWithDetails(
+            AuditEventType.CHAT_CONVERSATION_STARTED,
+            AuditStatus.SUCCESS,
+            initiator.getId(),
+            initiator.getUsername(),
+            "Conversation",
+            saved.getId(),
+            "Started conversation with user: " + other.getUsername(),
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+
+        return saved;
+    }
+
+    private TransactionTemplate requiresNewTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static String participantKey(Long userId, Long otherUserId) {
+        return Math.min(userId, otherUserId) + ":" + Math.max(userId, otherUserId);
     }
 
     @Override
     @Transactional
     public ChatMessage sendMessage(User sender, User receiver, String content) {
-        Conversation conversation = getOrCreateConversation(sender, receiver);
+        Conversation conversation = conversationRepository.getReferenceById(getOrCreateConversationId(sender, receiver));
 
         ChatMessage message = new ChatMessage();
         message.setConversation(conversation);
@@ -73,8 +155,14 @@ public class ChatServiceImpl implements ChatService {
 
         ChatMessage savedMessage = chatMessageRepository.save(message);
 
-        conversation.setLastMessageAt(new Date());
-        conversationRepository.save(conversation);
+        conversationRepository.applyNewMessage(
+                conversation.getId(),
+                savedMessage.getId(),
+                Conversation.previewOf(content),
+                savedMessage.getSentAt(),
+                receiver.getId(),
+                1L
+        );
 
         auditLogService.logEventWithDetails(
             AuditEventType.CHAT_MESSAGE_SENT,
@@ -101,21 +189,40 @@ public class ChatServiceImpl implements ChatService {
         Conversation conversation = conversationRepository.findConversationByIdAndUser(conversationId, currentUser)
                 .orElseThrow(() -> new RuntimeException("Conversation not found or access denied"));
 
-        List<ChatMessage> messages = chatMessageRepository.findByConversationAndIsDeletedFalseOrderBySentAtAsc(conversation);
+        return chatMessageRepository.findMessageDTOs(conversation);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChatMessagePageDTO getConversationMessagesPage(Long conversationId, User currentUser, Long beforeMessageId, Integer limit) {
+        Conversation conversation = conversationRepository.findConversationByIdAndUser(conversationId, currentUser)
+                .orElseThrow(() -> new RuntimeException("Conversation not found or access denied"));
+
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether an older page exists without a COUNT query
+        PageRequest pageRequest = PageRequest.of(0, pageSize + 1);
+
+        List<ChatMessageDTO> messages;
+        if (beforeMessageId == null) {
+            messages = chatMessageRepository.findLatestMessageDTOs(conversation, pageRequest);
+        } else {
+            Date beforeSentAt = chatMessageRepository.findSentAtInConversation(beforeMessageId, conversation)
+                    .orElseThrow(() -> new RuntimeException("Cursor message not found in conversation"));
+            messages = chatMessageRepository.findMessageDTOsBefore(conversation, beforeSentAt, beforeMessageId, pageRequest);
+        }
 
-        return messages.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        boolean hasMore = messages.size() > pageSize;
+        List<ChatMessageDTO> page = new ArrayList<>(messages.subList(0, Math.min(pageSize, messages.size())));
+        Collections.reverse(page);
+
+        Long nextCursor = hasMore && !page.isEmpty() ? page.get(0).getId() : null;
+        return new ChatMessagePageDTO(page, nextCursor, hasMore);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ConversationDTO> getUserConversations(User user) {
-        List<Conversation> conversations = conversationRepository.findActiveConversationsByUser(user);
-
-        return conversations.stream()
-                .map(conv -> convertToDTO(conv, user))
-                .collect(Collectors.toList());
+        return conversationRepository.findInboxByUserId(user.getId());
     }
 
     @Override
@@ -124,15 +231,14 @@ public class ChatServiceImpl implements ChatService {
         Conversation conversation = conversationRepository.findConversationByIdAndUser(conversationId, currentUser)
                 .orElseThrow(() -> new RuntimeException("Conversation not found or access denied"));
 
-        List<ChatMessage> unreadMessages = chatMessageRepository.findByConversationAndIsDeletedFalseOrderBySentAtAsc(conversation)
-                .stream()
-                .filter(msg -> msg.getReceiver().getId().equals(currentUser.getId()) && msg.getStatus() != MessageStatus.READ)
-                .collect(Collectors.toList());
-
-        if (!unreadMessages.isEmpty()) {
-            List<Long> messageIds = unreadMessages.stream().map(ChatMessage::getId).collect(Collectors.toList());
-            chatMessageRepository.updateMessageStatus(messageIds, MessageStatus.READ);
+        // One bound for both updates: messages sent after the conversation's last message stay unread
+        if (conversation.getLastMessageId() == null) {
+            return;
         }
+        Date upToSentAt = conversation.getLastMessageAt();
+        int read = chatMessageRepository.markReadUpTo(conversation, currentUser.getId(), upToSentAt);
+        conversationRepository.advanceReadWatermark(conversation.getId(), currentUser.getId(),
+                conversation.getLastMessageId(), upToSentAt, (long) read);
     }
 
     @Override
@@ -163,6 +269,68 @@ public class ChatServiceImpl implements ChatService {
         }
     }
 
+    @Override
+    @Transactional
+    public Map<String, MessageStatusEvent> markMessagesAsDelivered(DeliveryAckRequest request, User receiver) {
+        Map<String, MessageStatusEvent> eventsBySender = new LinkedHashMap<>();
+        int delivered = 0;
+
+        if (request.getConversationId() != null && request.getUpToMessageId() != null) {
+            Conversation conversation = conversationRepository.findConversationByIdAndUser(request.getConversationId(), receiver)
+                    .orElseThrow(() -> new RuntimeException("Conversation not found or access denied"));
+            // Bounded by id, not by looking the message up: it may still be waiting in the write-behind queue
+            delivered = chatMessageRepository.markDeliveredUpTo(conversation, receiver.getId(), request.getUpToMessageId());
+            if (delivered > 0) {
+                User sender = conversation.getUser1().getId().equals(receiver.getId())
+                        ? conversation.getUser2()
+                        : conversation.getUser1();
+                eventsBySender.put(sender.getUsername(), new MessageStatusEvent(
+                        conversation.getId(), MessageStatus.DELIVERED, null, request.getUpToMessageId()));
+            }
+        } else if (request.getMessageIds() != null && !request.getMessageIds().isEmpty()) {
+            List<Long> messageIds = request.getMessageIds().stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            for (List<Long> chunk : Lists.partition(messageIds, MAX_IN_LIST_SIZE)) {
+                List<DeliveredMessageRef> refs = chatMessageRepository.findUndeliveredRefs(chunk, receiver.getId());
+                if (refs.isEmpty()) {
+                    continue;
+                }
+                List<Long> undeliveredIds = refs.stream().map(DeliveredMessageRef::getMessageId).collect(Collectors.toList());
+                delivered += chatMessageRepository.markDelivered(undeliveredIds, receiver.getId());
+
+                for (DeliveredMessageRef ref : refs) {
+                    eventsBySender.computeIfAbsent(ref.getSenderUsername(), sender -> new MessageStatusEvent(
+                                    ref.getConversationId(), MessageStatus.DELIVERED, new ArrayList<>(), null))
+                            .getMessageIds()
+                            .add(ref.getMessageId());
+                }
+            }
+        }
+
+        if (delivered > 0) {
+            auditLogService.logEventWithDetails(
+                AuditEventType.CHAT_MESSAGE_RECEIVED,
+                AuditStatus.SUCCESS,
+                receiver.getId(),
+                receiver.getUsername(),
+                "ChatMessage",
+                request.getUpToMessageId(),
+                delivered + " message(s) delivered",
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+            );
+        }
+
+        return eventsBySender;
+    }
+
     @Override
     @Transactional
     public void deleteMessage(Long messageId, User currentUser) {
@@ -173,9 +341,24 @@ public class ChatServiceImpl implements ChatService {
             throw new RuntimeException("Cannot delete message from another user");
         }
 
-        message.setDeleted(true);
-        message.setDeletedAt(new Date());
-        chatMessageRepository.save(message);
+        // A repeated or concurrent delete must not decrement the unread counter a second time
+        if (message.isDeleted() || chatMessageRepository.markDeleted(messageId, new Date()) == 0) {
+            return;
+        }
+
+        Conversation conversation = message.getConversation();
+        if (message.getStatus() != MessageStatus.READ) {
+            conversationRepository.decrementUnread(conversation.getId(), message.getReceiver().getId());
+        }
+        if (messageId.equals(conversation.getLastMessageId())) {
+            List<ChatMessage> latest = chatMessageRepository.findLatestPage(conversation, PageRequest.of(0, 1));
+            ChatMessage newLast = latest.isEmpty() ? null : latest.get(0);
+            conversationRepository.applyLastMessage(
+                    conversation.getId(),
+                    newLast != null ? newLast.getId() : null,
+                    newLast != null ? Conversation.previewOf(newLast.getContent()) : null
+            );
+        }
 
         auditLogService.logEventWithDetails(
             AuditEventType.CHAT_MESSAGE_DELETED,
@@ -221,13 +404,16 @@ public class ChatServiceImpl implements ChatService {
         dto.setLastMessageAt(conversation.getLastMessageAt());
         dto.setActive(conversation.isActive());
 
-        List<ChatMessage> recentMessages = chatMessageRepository.findRecentMessagesByConversation(conversation);
-        if (!recentMessages.isEmpty()) {
-            dto.setLastMessage(recentMessages.get(0).getContent());
-        }
+        boolean currentIsUser1 = conversation.getUser1().getId().equals(currentUser.getId());
+        User peer = currentIsUser1 ? conversation.getUser2() : conversation.getUser1();
+        dto.setPeerId(peer.getId());
+        dto.setPeerUsername(peer.getUsername());
+        dto.setPeerLastReadMessageId(currentIsUser1 ? conversation.getUser2LastReadMessageId() : conversation.getUser1LastReadMessageId());
+        dto.setPeerLastReadAt(currentIsUser1 ? conversation.getUser2LastReadAt() : conversation.getUser1LastReadAt());
 
-        Long unreadCount = chatMessageRepository.countUnreadMessagesInConversation(conversation, currentUser.getId());
-        dto.setUnreadCount(unreadCount);
+        dto.setLastMessage(conversation.getLastMessagePreview());
+        Long unreadCount = currentIsUser1 ? conversation.getUser1Unread() : conversation.getUser2Unread();
+        dto.setUnreadCount(unreadCount != null ? unreadCount : 0L);
 
         return dto;
     }
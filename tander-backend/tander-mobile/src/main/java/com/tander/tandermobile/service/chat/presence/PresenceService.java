@@ -0,0 +1,250 @@
+package com.tander.tandermobile.service.chat.presence;
+
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.PresenceEvent;
+import com.tander.tandermobile.repository.chat.ConversationRepository;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Presence of users connected over STOMP, on this node or any other.
+ *
+ * Status changes are detected per node, fed by session connect/disconnect events and by every inbound frame, heartbeats included
+ * ({@link #touch}). Status changes are not pushed as they happen: they are marked dirty and
+ * published by a periodic flush, at most once per {@code chat.presence.min-publish-interval} per user,
+ * and only if the status actually differs from the last one published. A mobile connection that
+ * flaps offline and back within the interval therefore produces no event at all.
+ *
+ * Whether a user is online is answered by the {@link SimpUserRegistry}, not by this node's sessions
+ * alone. In relay mode that is the multi-server registry, which also holds the sessions the other
+ * nodes broadcast every few seconds: a node losing a user's last local session reports them offline
+ * only if no other node has one. Events go to /user/topic/presence of the user's online conversation
+ * peers only, wherever they are connected; the relay forwards user destinations to the node holding
+ * the session. Subscribing to that destination returns the current status of every online peer.
+ */
+@Service
+public class PresenceService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PresenceService.class);
+
+    public static final String PRESENCE_DESTINATION = "/topic/presence";
+    private static final String PRESENCE_SUBSCRIPTION = "/user" + PRESENCE_DESTINATION;
+
+    @Value("${chat.presence.min-publish-interval:10000}")
+    private long minPublishIntervalMillis;
+
+    private final ConversationRepository conversationRepository;
+    private final UserIdentityCacheService userIdentityCacheService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry simpUserRegistry;
+
+    private final Map<Long, UserPresence> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> sessionUsers = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyUserIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public PresenceService(ConversationRepository conversationRepository,
+                           UserIdentityCacheService userIdentityCacheService,
+                           SimpMessagingTemplate messagingTemplate,
+                           SimpUserRegistry simpUserRegistry) {
+        this.conversationRepository = conversationRepository;
+        this.userIdentityCacheService = userIdentityCacheService;
+        this.messagingTemplate = messagingTemplate;
+        this.simpUserRegistry = simpUserRegistry;
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        UserIdentity identity = userIdentityCacheService.resolve(event.getUser());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (identity == null || sessionId == null) {
+            return;
+        }
+
+        // compute() is atomic per user, so the cleanup in flush() cannot drop a presence being reconnected
+        users.compute(identity.getId(), (id, existing) -> {
+            UserPresence presence = existing != null ? existing : new UserPresence(id, identity.getUsername());
+            presence.sessionIds.add(sessionId);
+            presence.lastSeenMillis = System.currentTimeMillis();
+            return presence;
+        });
+        sessionUsers.put(sessionId, identity.getId());
+        dirtyUserIds.add(identity.getId());
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        Long userId = sessionUsers.remove(event.getSessionId());
+        UserPresence presence = userId != null ? users.get(userId) : null;
+        if (presence != null) {
+            presence.sessionIds.remove(event.getSessionId());
+            presence.lastSeenMillis = System.currentTimeMillis();
+            dirtyUserIds.add(userId);
+        }
+    }
+
+    @EventListener
+    public void onSessionSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if (!PRESENCE_SUBSCRIPTION.equals(accessor.getDestination())) {
+            return;
+        }
+        UserIdentity identity = userIdentityCacheService.resolve(event.getUser());
+        if (identity == null) {
+            return;
+        }
+        for (Long peerId : conversationRepository.findPeerIds(identity.getId())) {
+            UserPresence peer = users.get(peerId);
+            if (peer != null && peer.isOnline()) {
+                messagingTemplate.convertAndSendToUser(identity.getUsername(), PRESENCE_DESTINATION, peer.toEvent());
+                continue;
+            }
+            // Connected to another node only
+            String peerUsername = connectedUsername(peerId);
+            if (peerUsername != null) {
+                messagingTemplate.convertAndSendToUser(identity.getUsername(), PRESENCE_DESTINATION,
+                        new PresenceEvent(peerId, peerUsername, true, new Date()));
+            }
+        }
+    }
+
+    /**
+     * Records activity on a session. Called for every inbound frame, so it only updates a timestamp.
+     */
+    public void touch(String sessionId) {
+        Long userId = sessionUsers.get(sessionId);
+        UserPresence presence = userId != null ? users.get(userId) : null;
+        if (presence != null) {
+            presence.lastSeenMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * @return true if the user has at least one STOMP session on any node
+     */
+    public boolean isOnline(Long userId) {
+        UserPresence presence = users.get(userId);
+        if (presence != null) {
+            return isOnline(presence);
+        }
+        return connectedUsername(userId) != null;
+    }
+
+    /**
+     * Publishes coalesced status changes. Users still inside their rate-limit window stay dirty
+     * and are published by a later flush, with whatever their status is by then.
+     */
+    @Scheduled(fixedDelayString = "${chat.presence.flush-interval:2000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<UserPresence> toPublish = new ArrayList<>();
+
+        for (Long userId : new ArrayList<>(dirtyUserIds)) {
+            // Clear the flag before reading the status, so a change racing with this flush marks it dirty again
+            dirtyUserIds.remove(userId);
+            UserPresence presence = users.get(userId);
+            if (presence == null) {
+                continue;
+            }
+            boolean online = isOnline(presence);
+            if (presence.publishedOnline != null && presence.publishedOnline == online) {
+                continue;
+            }
+            if (now - presence.publishedAtMillis < minPublishIntervalMillis) {
+                dirtyUserIds.add(userId);
+                continue;
+            }
+            presence.publishedOnline = online;
+            presence.publishedAtMillis = now;
+            toPublish.add(presence);
+        }
+
+        for (UserPresence presence : toPublish) {
+            try {
+                publish(presence);
+            } catch (Exception e) {
+                LOGGER.warn("[PRESENCE] Failed to publish status of user {}: {}", presence.userId, e.getMessage());
+            }
+        }
+
+        // Forget offline users once their rate-limit window has passed
+        for (Long userId : users.keySet()) {
+            users.computeIfPresent(userId, (id, presence) -> !presence.isOnline()
+                    && !dirtyUserIds.contains(id)
+                    && now - presence.publishedAtMillis >= minPublishIntervalMillis ? null : presence);
+        }
+    }
+
+    private void publish(UserPresence presence) {
+        PresenceEvent event = new PresenceEvent(presence.userId, presence.username, presence.publishedOnline,
+                new Date(presence.lastSeenMillis));
+        for (Long peerId : conversationRepository.findPeerIds(presence.userId)) {
+            UserPresence peer = users.get(peerId);
+            String peerUsername = peer != null && peer.isOnline() ? peer.username : connectedUsername(peerId);
+            if (peerUsername != null) {
+                messagingTemplate.convertAndSendToUser(peerUsername, PRESENCE_DESTINATION, event);
+            }
+        }
+    }
+
+    private boolean isOnline(UserPresence presence) {
+        return presence.isOnline() || isConnected(presence.username);
+    }
+
+    /**
+     * @return the username of the user if they have a session on any node, else null
+     */
+    private String connectedUsername(Long userId) {
+        return userIdentityCacheService.findById(userId)
+                .map(UserIdentity::getUsername)
+                .filter(this::isConnected)
+                .orElse(null);
+    }
+
+    private boolean isConnected(String username) {
+        SimpUser user = simpUserRegistry.getUser(username);
+        return user != null && user.hasSessions();
+    }
+
+    private static final class UserPresence {
+        private final Long userId;
+        private final String username;
+        private final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+        private volatile long lastSeenMillis;
+        private volatile Boolean publishedOnline;
+        private volatile long publishedAtMillis;
+
+        private UserPresence(Long userId, String username) {
+            this.userId = userId;
+            this.username = username;
+        }
+
+        private boolean isOnline() {
+            return !sessionIds.isEmpty();
+        }
+
+        private PresenceEvent toEvent() {
+            return new PresenceEvent(userId, username, isOnline(), new Date(lastSeenMillis));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.tander.tandermobile.service.chat.summary;
+
+import com.tander.tandermobile.domain.chat.ChatMessage;
+import com.tander.tandermobile.domain.chat.Conversation;
+import com.tander.tandermobile.repository.chat.ChatMessageRepository;
+import com.tander.tandermobile.repository.chat.ConversationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the denormalized inbox summary on {@link Conversation}
+ * (last message id/preview and per-participant unread counters).
+ *
+ * Provides a one-off backfill for rows created before the summary columns existed and a
+ * background consistency checker that recomputes summaries from chat_messages and repairs drift.
+ * Both walk the table in id order, one short transaction per conversation that holds the
+ * conversation row lock while its summary is recomputed.
+ */
+@Service
+public class ConversationSummaryService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConversationSummaryService.class);
+
+    @Value("${chat.summary.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    @Value("${chat.summary.batch-size:500}")
+    private int batchSize;
+
+    private final ConversationRepository conversationRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Autowired
+    public ConversationSummaryService(ConversationRepository conversationRepository,
+                                      ChatMessageRepository chatMessageRepository,
+                                      TransactionTemplate transactionTemplate) {
+        this.conversationRepository = conversationRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Runs the one-off backfill once the application is up, if enabled with
+     * {@code chat.summary.backfill-on-startup}. Turn it off again after the first successful run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            LOGGER.info("[CHAT SUMMARY] Backfilling conversation summaries on startup...");
+            int updated = recomputeAll();
+            LOGGER.info("[CHAT SUMMARY] Backfill completed: {} conversations updated", updated);
+        }
+    }
+
+    /**
+     * Scheduled consistency check: recomputes every summary and repairs the ones that drifted.
+     * Cron format: second minute hour day month weekday
+     */
+    @Scheduled(cron = "${chat.summary.consistency-check-cron:0 30 3 * * *}")
+    public void checkConsistency() {
+        LOGGER.info("[CHAT SUMMARY] Starting consistency check...");
+        int repaired = recomputeAll();
+        if (repaired > 0) {
+            LOGGER.warn("[CHAT SUMMARY] Consistency check repaired {} conversation summaries", repaired);
+        } else {
+            LOGGER.info("[CHAT SUMMARY] Consistency check completed: no drift found");
+        }
+    }
+
+    /**
+     * Recomputes the summary of every conversation in batches.
+     *
+     * @return number of conversations whose stored summary differed and was rewritten
+     */
+    public int recomputeAll() {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.info("[CHAT SUMMARY] Recompute already in progress, skipping");
+            return 0;
+        }
+        try {
+            int updated = 0;
+            long afterId = 0L;
+            while (true) {
+                List<Long> ids = conversationRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (Long id : ids) {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> recompute(id)))) {
+                        updated++;
+                    }
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            return updated;
+        } catch (Exception e) {
+            LOGGER.error("[CHAT SUMMARY] Recompute failed: {}", e.getMessage(), e);
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Recomputes one conversation's summary from chat_messages. Must run inside a transaction.
+     *
+     * The conversation row is locked first: sends, reads and deletes update that row in the same
+     * transaction as their messages, so none of them can commit between the counts below and the
+     * rewrite, which would otherwise overwrite their counter change with a stale value.
+     *
+     * @return true if the stored summary was out of date and has been rewritten
+     */
+    private boolean recompute(Long conversationId) {
+        Conversation conversation = conversationRepository.findByIdForUpdate(conversationId).orElse(null);
+        if (conversation == null) {
+            return false;
+        }
+
+        List<ChatMessage> latest = chatMessageRepository.findLatestPage(conversation, PageRequest.of(0, 1));
+        ChatMessage last = latest.isEmpty() ? null : latest.get(0);
+        Long lastMessageId = last != null ? last.getId() : null;
+        String preview = last != null ? Conversation.previewOf(last.getContent()) : null;
+        Long user1Unread = chatMessageRepository.countUnreadMessagesInConversation(conversation, conversation.getUser1().getId());
+        Long user2Unread = chatMessageRepository.countUnreadMessagesInConversation(conversation, conversation.getUser2().getId());
+
+        boolean consistent = Objects.equals(lastMessageId, conversation.getLastMessageId())
+                && Objects.equals(preview, conversation.getLastMessagePreview())
+                && Objects.equals(user1Unread, conversation.getUser1Unread())
+                && Objects.equals(user2Unread, conversation.getUser2Unread());
+        if (consistent) {
+            return false;
+        }
+
+        LOGGER.debug("[CHAT SUMMARY] Repairing conversation {}: lastMessageId {} -> {}, unread ({}, {}) -> ({}, {})",
+                conversationId, conversation.getLastMessageId(), lastMessageId,
+                conversation.getUser1Unread(), conversation.getUser2Unread(), user1Unread, user2Unread);
+        conversationRepository.applySummary(conversationId, lastMessageId, preview, user1Unread, user2Unread);
+        return true;
+    }
+}
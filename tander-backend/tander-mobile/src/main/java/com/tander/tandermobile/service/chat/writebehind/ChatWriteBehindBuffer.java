@@ -0,0 +1,255 @@
+package com.tander.tandermobile.service.chat.writebehind;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, back-pressured hand-off between the chat send path and a single writer thread.
+ *
+ * Producers {@link #offer} messages and wait at most the given timeout for space; when the queue
+ * stays full they get {@code false} back and must persist synchronously instead, so memory use is
+ * capped by the capacity. The writer drains up to {@code batchSize} messages, waiting at most
+ * {@code flushInterval} for a batch to fill, and hands each batch to the {@link BatchSink}.
+ * A failed batch is retried with a fixed backoff up to {@code maxAttempts} times. If it still fails,
+ * it is split in halves and each half is written on its own, down to single messages, so one message
+ * the database rejects cannot hold back the rest. A single message that exhausts its own attempts
+ * goes to the {@link DeadLetterSink}. On {@link #shutdown} the writer drains everything still queued
+ * before it exits.
+ */
+public class ChatWriteBehindBuffer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatWriteBehindBuffer.class);
+
+    /**
+     * Writes one batch durably. Throwing leaves the batch to be retried.
+     */
+    @FunctionalInterface
+    public interface BatchSink {
+        void write(List<PendingChatMessage> batch) throws Exception;
+    }
+
+    /**
+     * Takes a message that could not be written, so it can be inspected and replayed by hand.
+     */
+    @FunctionalInterface
+    public interface DeadLetterSink {
+        void deadLetter(PendingChatMessage message, Exception cause) throws Exception;
+    }
+
+    private final BlockingQueue<PendingChatMessage> queue;
+    private final BatchSink sink;
+    private final DeadLetterSink deadLetterSink;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long retryBackoffMillis;
+    private final int maxAttempts;
+    private final int shutdownRetryAttempts;
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong flushedMessages = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong rejectedOffers = new AtomicLong();
+    private final AtomicLong deadLetteredMessages = new AtomicLong();
+
+    /**
+     * @param capacity              maximum number of messages waiting to be written
+     * @param batchSize             maximum number of messages per batch
+     * @param flushInterval         maximum time a message waits for its batch to fill
+     * @param retryBackoff          pause between attempts to write a failed batch
+     * @param maxAttempts           attempts per batch, and per single message once a batch is split
+     * @param shutdownRetryAttempts attempts per batch once shutdown has begun, if fewer than {@code maxAttempts} remain
+     * @param sink                  writes batches to the database
+     * @param deadLetterSink        takes single messages that could not be written
+     */
+    public ChatWriteBehindBuffer(int capacity, int batchSize, Duration flushInterval, Duration retryBackoff,
+                                 int maxAttempts, int shutdownRetryAttempts, BatchSink sink, DeadLetterSink deadLetterSink) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.maxAttempts = maxAttempts;
+        this.shutdownRetryAttempts = shutdownRetryAttempts;
+        this.sink = sink;
+        this.deadLetterSink = deadLetterSink;
+        this.writer = new Thread(this::runWriter, "chat-write-behind");
+        this.writer.setDaemon(false);
+    }
+
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * Queues a message for writing, waiting up to {@code timeout} for space.
+     *
+     * @return false if the buffer is stopped or stayed full; the caller must then write synchronously
+     */
+    public boolean offer(PendingChatMessage message, Duration timeout) throws InterruptedException {
+        if (!running) {
+            return false;
+        }
+        boolean accepted = queue.offer(message, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        if (!accepted) {
+            rejectedOffers.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    /**
+     * Stops accepting messages and waits for the writer to flush everything already queued.
+     *
+     * @return true if the writer finished within the timeout
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        running = false;
+        writer.join(timeout.toMillis());
+        if (writer.isAlive()) {
+            LOGGER.error("[CHAT WRITE-BEHIND] Writer did not finish within {}; {} messages still queued",
+                    timeout, queue.size());
+            return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long getFlushedMessages() {
+        return flushedMessages.get();
+    }
+
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    public long getRejectedOffers() {
+        return rejectedOffers.get();
+    }
+
+    public long getDeadLetteredMessages() {
+        return deadLetteredMessages.get();
+    }
+
+    private void runWriter() {
+        List<PendingChatMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingChatMessage first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    PendingChatMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                LOGGER.warn("[CHAT WRITE-BEHIND] Writer interrupted, draining remaining messages");
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+        LOGGER.info("[CHAT WRITE-BEHIND] Writer stopped after flushing {} messages", flushedMessages.get());
+    }
+
+    private void write(List<PendingChatMessage> batch) {
+        Exception failure = writeWithRetry(batch);
+        if (failure == null) {
+            return;
+        }
+        if (batch.size() == 1) {
+            deadLetter(batch.get(0), failure);
+            return;
+        }
+        LOGGER.warn("[CHAT WRITE-BEHIND] Batch of {} messages still failing after {} attempts, writing it in parts: {}",
+                batch.size(), maxAttempts, failure.getMessage());
+        writeSplit(batch);
+    }
+
+    /**
+     * Writes each half of a failing batch with a single attempt, splitting further while it fails.
+     * Only single messages get the full retries, so a batch with one bad message costs a few
+     * extra statements rather than {@code maxAttempts} backoffs per level.
+     */
+    private void writeSplit(List<PendingChatMessage> batch) {
+        int middle = batch.size() / 2;
+        for (List<PendingChatMessage> half : List.of(batch.subList(0, middle), batch.subList(middle, batch.size()))) {
+            if (half.size() == 1) {
+                write(half);
+                continue;
+            }
+            try {
+                sink.write(half);
+                flushedMessages.addAndGet(half.size());
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                writeSplit(half);
+            }
+        }
+    }
+
+    /**
+     * @return null once the batch is written, or the last failure when its attempts ran out
+     */
+    private Exception writeWithRetry(List<PendingChatMessage> batch) {
+        int attempts = 0;
+        int attemptsAfterShutdown = 0;
+        while (true) {
+            try {
+                sink.write(batch);
+                flushedMessages.addAndGet(batch.size());
+                return null;
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                attempts++;
+                if (!running) {
+                    attemptsAfterShutdown++;
+                }
+                if (attempts >= maxAttempts || attemptsAfterShutdown >= shutdownRetryAttempts) {
+                    return e;
+                }
+                LOGGER.warn("[CHAT WRITE-BEHIND] Failed to write batch of {} messages, retrying in {} ms: {}",
+                        batch.size(), retryBackoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMillis);
+                } catch (InterruptedException interrupted) {
+                    // Treat as a shutdown request but keep the batch: it still gets its shutdown attempts
+                    running = false;
+                }
+            }
+        }
+    }
+
+    private void deadLetter(PendingChatMessage message, Exception cause) {
+        deadLetteredMessages.incrementAndGet();
+        try {
+            deadLetterSink.deadLetter(message, cause);
+        } catch (Exception e) {
+            LOGGER.error("[CHAT WRITE-BEHIND] Failed to dead-letter message {}, message lost: {}",
+                    message.getId(), e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.tander.tandermobile.service.chat.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.domain.chat.ChatMessage;
+import com.tander.tandermobile.domain.chat.Conversation;
+import com.tander.tandermobile.domain.chat.MessageStatus;
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.DeliveryAckRequest;
+import com.tander.tandermobile.repository.chat.ChatMessageRepository;
+import com.tander.tandermobile.repository.chat.ConversationRepository;
+import com.tander.tandermobile.service.audit.AuditLogService;
+import com.tander.tandermobile.service.chat.ChatService;
+import com.tander.tandermobile.service.chat.delivery.ChatMessagePublisher;
+import com.tander.tandermobile.utils.persistence.PooledLoSequenceAllocator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind persistence for chat messages sent over WebSocket.
+ *
+ * {@link #submit} allocates the message id up front from the chat_messages sequence, queues the
+ * message and returns its DTO so the receiver can be notified immediately. A single writer thread
+ * inserts queued messages in JDBC batches and applies the conversation summary updates in the same
+ * transaction; only after that commit is the message echoed back to the sender, which is the
+ * client's durable acknowledgement.
+ *
+ * Delivery and read acknowledgements can arrive before a message is written. Callers pass them to
+ * {@link #acknowledgeDelivered} and {@link #acknowledgeRead} before updating chat_messages: a message
+ * still waiting is then inserted with the acknowledged status and left out of the unread counter,
+ * and one acknowledged while its batch was being written is updated right after the commit. A message
+ * the database keeps rejecting is appended to the dead-letter file instead of blocking the writer.
+ *
+ * When disabled, or when the queue stays full, {@link #submit} returns null and the caller persists
+ * synchronously through {@link ChatService#sendMessage}. See CHAT_WRITE_BEHIND_GUIDE.md for the
+ * durability guarantees.
+ */
+@Service
+public class ChatWriteBehindService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatWriteBehindService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO chat_messages (id, conversation_id, sender_id, receiver_id, content, sent_at, status, is_deleted) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String DEAD_LETTER_FILE = "chat-dead-letter.ndjson";
+
+    @Value("${chat.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${chat.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${chat.write-behind.flush-interval:PT0.05S}")
+    private Duration flushInterval;
+
+    @Value("${chat.write-behind.offer-timeout:PT0.01S}")
+    private Duration offerTimeout;
+
+    @Value("${chat.write-behind.retry-backoff:PT1S}")
+    private Duration retryBackoff;
+
+    @Value("${chat.write-behind.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${chat.write-behind.dead-letter-directory:./chat-dead-letter}")
+    private String deadLetterDirectory;
+
+    @Value("${chat.write-behind.shutdown-retry-attempts:3}")
+    private int shutdownRetryAttempts;
+
+    @Value("${chat.write-behind.shutdown-timeout:PT30S}")
+    private Duration shutdownTimeout;
+
+    private final ChatService chatService;
+    private final ConversationRepository conversationRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final AuditLogService auditLogService;
+    private final ChatMessagePublisher chatMessagePublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private PooledLoSequenceAllocator idAllocator;
+    private ChatWriteBehindBuffer buffer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, PendingChatMessage> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChatWriteBehindService(ChatService chatService,
+                                  ConversationRepository conversationRepository,
+                                  ChatMessageRepository chatMessageRepository,
+                                  AuditLogService auditLogService,
+                                  ChatMessagePublisher chatMessagePublisher,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.chatService = chatService;
+        this.conversationRepository = conversationRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.auditLogService = auditLogService;
+        this.chatMessagePublisher = chatMessagePublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            LOGGER.info("[CHAT WRITE-BEHIND] Disabled, chat messages are persisted synchronously");
+            return;
+        }
+        idAllocator = PooledLoSequenceAllocator.forEntity(
+                jdbcTemplate,
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class),
+                ChatMessage.class
+        );
+        buffer = new ChatWriteBehindBuffer(queueCapacity, batchSize, flushInterval, retryBackoff,
+                maxAttempts, shutdownRetryAttempts, this::writeBatch, this::deadLetter);
+        buffer.start();
+        LOGGER.info("[CHAT WRITE-BEHIND] Enabled: capacity={}, batchSize={}, flushInterval={}",
+                queueCapacity, batchSize, flushInterval);
+    }
+
+    /**
+     * Drains the queue before the application context closes, so a graceful shutdown loses nothing.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (buffer != null) {
+            LOGGER.info("[CHAT WRITE-BEHIND] Shutting down, flushing {} queued messages", buffer.size());
+            buffer.shutdown(shutdownTimeout);
+            LOGGER.info("[CHAT WRITE-BEHIND] Flushed {} messages in total, {} failed batch attempts, {} rejected offers, {} dead-lettered",
+                    buffer.getFlushedMessages(), buffer.getFailedFlushes(), buffer.getRejectedOffers(),
+                    buffer.getDeadLetteredMessages());
+        }
+    }
+
+    /**
+     * Queues a message for write-behind persistence.
+     *
+     * @return the message as the receiver should see it, or null if it was not queued and
+     *         must be persisted synchronously
+     */
+    public ChatMessageDTO submit(User sender, User receiver, String content) {
+        if (buffer == null) {
+            return null;
+        }
+
+        PendingChatMessage message = new PendingChatMessage(
+                idAllocator.nextId(),
+                chatService.getOrCreateConversationId(sender, receiver),
+                sender.getId(),
+                sender.getUsername(),
+                receiver.getId(),
+                receiver.getUsername(),
+                content,
+                new Date()
+        );
+
+        // Registered before it is queued, so the writer cannot finish with it first
+        pending.put(message.getId(), message);
+        try {
+            if (buffer.offer(message, offerTimeout)) {
+                return message.toDTO();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pending.remove(message.getId());
+        LOGGER.warn("[CHAT WRITE-BEHIND] Queue full, persisting message synchronously");
+        return null;
+    }
+
+    /**
+     * Records a delivery acknowledgement against messages that are still waiting to be written.
+     * Call before {@link ChatService#markMessagesAsDelivered}, which covers the ones already written.
+     */
+    public void acknowledgeDelivered(DeliveryAckRequest request, Long receiverId) {
+        if (pending.isEmpty() || request == null) {
+            return;
+        }
+        if (request.getConversationId() != null && request.getUpToMessageId() != null) {
+            acknowledgeInConversation(request.getConversationId(), receiverId, request.getUpToMessageId(), MessageStatus.DELIVERED);
+        } else if (request.getMessageIds() != null) {
+            for (Long messageId : request.getMessageIds()) {
+                PendingChatMessage message = messageId != null ? pending.get(messageId) : null;
+                if (message != null && message.getReceiverId().equals(receiverId)) {
+                    message.acknowledge(MessageStatus.DELIVERED);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that the reader has read the conversation, for messages to them that are still waiting
+     * to be written. Call before {@link ChatService#markMessagesAsRead}, which covers the ones already written.
+     */
+    public void acknowledgeRead(Long conversationId, Long readerId) {
+        if (!pending.isEmpty()) {
+            acknowledgeInConversation(conversationId, readerId, Long.MAX_VALUE, MessageStatus.READ);
+        }
+    }
+
+    /**
+     * Scans the waiting messages: at most the queue capacity, normally a flush interval's worth.
+     */
+    private void acknowledgeInConversation(Long conversationId, Long receiverId, Long upToMessageId, MessageStatus status) {
+        for (PendingChatMessage message : pending.values()) {
+            if (message.getConversationId().equals(conversationId) && message.getReceiverId().equals(receiverId)
+                    && message.getId() <= upToMessageId) {
+                message.acknowledge(status);
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingChatMessage> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, message) -> {
+                ps.setLong(1, message.getId());
+                ps.setLong(2, message.getConversationId());
+                ps.setLong(3, message.getSenderId());
+                ps.setLong(4, message.getReceiverId());
+                ps.setString(5, message.getContent());
+                ps.setTimestamp(6, new Timestamp(message.getSentAt().getTime()));
+                ps.setString(7, message.takeStatusForWrite().name());
+                ps.setBoolean(8, false);
+            });
+            applySummaries(batch);
+        });
+
+        // Committed: the sender's echo is their acknowledgement that the message is stored
+        // Failures from here on must not reach the buffer, or it would retry an insert that already committed
+        for (PendingChatMessage message : batch) {
+            try {
+                if (message.isAcknowledgedAfterWrite()) {
+                    applyLateAcknowledgement(message);
+                }
+                chatMessagePublisher.publish(message.getSenderUsername(), message.toDTO());
+                audit(message);
+            } catch (Exception e) {
+                LOGGER.warn("[CHAT WRITE-BEHIND] Failed to acknowledge message {}: {}", message.getId(), e.getMessage());
+            } finally {
+                pending.remove(message.getId());
+            }
+        }
+    }
+
+    /**
+     * An acknowledgement that arrived between binding the insert and the commit: the acknowledging
+     * caller updated chat_messages before the row was visible, so it is applied here. Both updates
+     * only move the status forward, so it does not matter which of them runs second.
+     */
+    private void applyLateAcknowledgement(PendingChatMessage message) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (message.getStatus() == MessageStatus.READ) {
+                int read = chatMessageRepository.markReadUpTo(
+                        conversationRepository.getReferenceById(message.getConversationId()),
+                        message.getReceiverId(), message.getSentAt());
+                conversationRepository.advanceReadWatermark(message.getConversationId(), message.getReceiverId(),
+                        message.getId(), message.getSentAt(), (long) read);
+            } else {
+                chatMessageRepository.markDelivered(List.of(message.getId()), message.getReceiverId());
+            }
+        });
+    }
+
+    /**
+     * One summary update per conversation in the batch: the newest message becomes the last message,
+     * and each participant's unread counter grows by the number of messages they received and have
+     * not read yet. Messages written as READ move the reader's watermark instead.
+     */
+    private void applySummaries(List<PendingChatMessage> batch) {
+        Map<Long, List<PendingChatMessage>> byConversation = batch.stream()
+                .collect(Collectors.groupingBy(PendingChatMessage::getConversationId, LinkedHashMap::new, Collectors.toList()));
+
+        byConversation.forEach((conversationId, messages) -> {
+            PendingChatMessage last = messages.get(0);
+            for (PendingChatMessage message : messages) {
+                if (!message.getSentAt().before(last.getSentAt())) {
+                    last = message;
+                }
+            }
+            Map<Long, Long> unreadCounts = messages.stream()
+                    .filter(message -> message.getWrittenStatus() != MessageStatus.READ)
+                    .collect(Collectors.groupingBy(PendingChatMessage::getReceiverId, Collectors.counting()));
+            Long lastReceiverUnread = unreadCounts.remove(last.getReceiverId());
+
+            conversationRepository.applyNewMessage(
+                    conversationId,
+                    last.getId(),
+                    Conversation.previewOf(last.getContent()),
+                    last.getSentAt(),
+                    last.getReceiverId(),
+                    lastReceiverUnread != null ? lastReceiverUnread : 0L
+            );
+            // Both participants wrote in this batch: the other side's counter is bumped separately
+            unreadCounts.forEach((receiverId, count) ->
+                    conversationRepository.incrementUnread(conversationId, receiverId, count));
+
+            messages.stream()
+                    .filter(message -> message.getWrittenStatus() == MessageStatus.READ)
+                    .collect(Collectors.toMap(PendingChatMessage::getReceiverId, Function.identity(),
+                            BinaryOperator.maxBy(Comparator.comparing(PendingChatMessage::getSentAt))))
+                    .forEach((readerId, read) -> conversationRepository.advanceReadWatermark(
+                            conversationId, readerId, read.getId(), read.getSentAt(), 0L));
+        });
+    }
+
+    /**
+     * Appends a message the database would not take to the dead-letter file, one JSON document per
+     * line, so it can be inspected and inserted by hand. Its sender never gets the echo.
+     */
+    private synchronized void deadLetter(PendingChatMessage message, Exception cause) throws IOException {
+        pending.remove(message.getId());
+        Path directory = Paths.get(deadLetterDirectory);
+        Files.createDirectories(directory);
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(DEAD_LETTER_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(message));
+            writer.newLine();
+        }
+        LOGGER.error("[CHAT WRITE-BEHIND] Message {} from user {} could not be written and was dead-lettered: {}",
+                message.getId(), message.getSenderId(), cause.getMessage());
+    }
+
+    private void audit(PendingChatMessage message) {
+        auditLogService.logEventWithDetails(
+            AuditEventType.CHAT_MESSAGE_SENT,
+            AuditStatus.SUCCESS,
+            message.getSenderId(),
+            message.getSenderUsername(),
+            "ChatMessage",
+            message.getId(),
+            "Message sent to user: " + message.getReceiverUsername(),
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+    }
+}
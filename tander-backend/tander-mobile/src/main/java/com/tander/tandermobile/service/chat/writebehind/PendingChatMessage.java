@@ -0,0 +1,78 @@
+package com.tander.tandermobile.service.chat.writebehind;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.tander.tandermobile.domain.chat.MessageStatus;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A chat message that has been accepted and delivered, but not yet written to chat_messages.
+ *
+ * {@code status} starts as SENT and is moved forward by delivery and read acknowledgements that
+ * arrive while the message waits; the writer inserts the row with the status it finds when it
+ * takes the message ({@link #takeStatusForWrite}), and applies anything acknowledged after that
+ * once the row has committed.
+ */
+@Data
+@NoArgsConstructor
+public class PendingChatMessage {
+    private Long id;
+    private Long conversationId;
+    private Long senderId;
+    private String senderUsername;
+    private Long receiverId;
+    private String receiverUsername;
+    private String content;
+    private Date sentAt;
+    private MessageStatus status = MessageStatus.SENT;
+    private MessageStatus writtenStatus;
+
+    public PendingChatMessage(Long id, Long conversationId, Long senderId, String senderUsername,
+                              Long receiverId, String receiverUsername, String content, Date sentAt) {
+        this.id = id;
+        this.conversationId = conversationId;
+        this.senderId = senderId;
+        this.senderUsername = senderUsername;
+        this.receiverId = receiverId;
+        this.receiverUsername = receiverUsername;
+        this.content = content;
+        this.sentAt = sentAt;
+    }
+
+    /**
+     * Moves the status forward to {@code acknowledged}; never moves it back.
+     *
+     * @return true if the status changed
+     */
+    public synchronized boolean acknowledge(MessageStatus acknowledged) {
+        if (acknowledged.ordinal() <= status.ordinal()) {
+            return false;
+        }
+        status = acknowledged;
+        return true;
+    }
+
+    /**
+     * Records the status the row is about to be inserted with, and returns it.
+     */
+    public synchronized MessageStatus takeStatusForWrite() {
+        writtenStatus = status;
+        return status;
+    }
+
+    /**
+     * @return true if an acknowledgement arrived after the row was written, which the row does not reflect yet
+     */
+    @JsonIgnore
+    public synchronized boolean isAcknowledgedAfterWrite() {
+        return writtenStatus != null && status != writtenStatus;
+    }
+
+    public synchronized ChatMessageDTO toDTO() {
+        return new ChatMessageDTO(id, conversationId, senderId, senderUsername, receiverId, receiverUsername,
+                content, sentAt, status);
+    }
+}
@@ -2,6 +2,7 @@ package com.tander.tandermobile.service.retention;
 
 import com.tander.tandermobile.domain.user.User;
 import com.tander.tandermobile.repository.user.UserRepository;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,6 +43,9 @@ public class DataRetentionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserIdentityCacheService userIdentityCacheService;
+
     /**
      * Scheduled task: Runs daily at 2 AM to clean up old data.
      * Cron format: second minute hour day month weekday
@@ -145,6 +149,7 @@ public class DataRetentionService {
 
                 // Delete user record
                 userRepository.delete(user);
+                userIdentityCacheService.invalidateDeleted(user);
                 deletedCount++;
 
                 LOGGER.info("Permanently deleted user: {} (soft-deleted on: {})",
@@ -2,6 +2,7 @@ package com.tander.tandermobile.service.scheduler;
 
 import com.tander.tandermobile.domain.user.User;
 import com.tander.tandermobile.repository.user.UserRepository;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,10 +24,12 @@ public class UserCleanupScheduler {
     private static final long SEVEN_DAYS_IN_MILLIS = TimeUnit.DAYS.toMillis(7);
 
     private final UserRepository userRepository;
+    private final UserIdentityCacheService userIdentityCacheService;
 
     @Autowired
-    public UserCleanupScheduler(UserRepository userRepository) {
+    public UserCleanupScheduler(UserRepository userRepository, UserIdentityCacheService userIdentityCacheService) {
         this.userRepository = userRepository;
+        this.userIdentityCacheService = userIdentityCacheService;
     }
 
     /**
@@ -49,6 +52,7 @@ public class UserCleanupScheduler {
                     user.setSoftDeletedAt(now);
                     user.setIsActive(false);
                     userRepository.save(user);
+                    userIdentityCacheService.invalidate(user);
                     softDeletedCount++;
                     LOGGER.info("Soft deleted user '{}' due to incomplete profile after 7 days", user.getUsername());
                 }
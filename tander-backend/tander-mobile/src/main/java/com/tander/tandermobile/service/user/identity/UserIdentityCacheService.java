@@ -0,0 +1,177 @@
+package com.tander.tandermobile.service.user.identity;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.AuthenticatedUserPrincipal;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.repository.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, TTL-evicting cache of {@link UserIdentity} keyed by username and by id.
+ * Used by the chat endpoints instead of loading the full user entity on every request.
+ * Entries must be invalidated whenever a user's username or account flags change.
+ *
+ * Invalidation only reaches the node that made the change. Other nodes pick up a lock, deactivation
+ * or deletion when their entry expires, so the account status consulted for id-carrying tokens is
+ * cached for a much shorter time than the identities.
+ */
+@Service
+public class UserIdentityCacheService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserIdentityCacheService.class);
+
+    private final UserRepository userRepository;
+    private final LoadingCache<String, Optional<UserIdentity>> identitiesByUsername;
+    private final LoadingCache<Long, Optional<UserIdentity>> identitiesById;
+
+    /**
+     * Whether each account is usable (active, not locked, not soft deleted), re-read from the database
+     * after {@code statusTtl}. Lets the token-only path reject accounts disabled on any node.
+     */
+    private final LoadingCache<Long, Boolean> usableById;
+
+    /**
+     * Initializes the identity and account status caches with the configured size bound and time-to-live.
+     *
+     * @param userRepository repository used to load identities on a cache miss
+     * @param maximumSize maximum number of entries per cache
+     * @param expireAfterWrite time after which an identity is reloaded
+     * @param statusTtl time after which an account status is reloaded; bounds how long an account
+     *                  disabled on another node is still accepted here
+     */
+    @Autowired
+    public UserIdentityCacheService(UserRepository userRepository,
+                                    @Value("${user-identity-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${user-identity-cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                    @Value("${user-identity-cache.status-ttl:30s}") Duration statusTtl) {
+        this.userRepository = userRepository;
+        this.identitiesByUsername = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<UserIdentity> load(String username) {
+                        return userRepository.findIdentityByUsername(username);
+                    }
+                });
+        this.identitiesById = CacheBuilder.newBuilder()
+                .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<UserIdentity> load(Long id) {
+                        return userRepository.findIdentityById(id);
+                    }
+                });
+        this.usableById = CacheBuilder.newBuilder()
+                .expireAfterWrite(statusTtl.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Boolean load(Long id) {
+                        return userRepository.findIdentityById(id).map(UserIdentity::isUsable).orElse(false);
+                    }
+                });
+    }
+
+    /**
+     * Resolves the caller of an authenticated request. Tokens that carry the user id are resolved
+     * from the token and the cached account status; older tokens fall back to the username cache.
+     *
+     * @param principal the authenticated principal (an {@link Authentication} or STOMP user)
+     * @return the caller's identity, or null if unknown, locked or soft deleted
+     */
+    public UserIdentity resolve(Principal principal) {
+        if (principal == null) {
+            return null;
+        }
+        Object inner = principal instanceof Authentication authentication ? authentication.getPrincipal() : principal;
+        if (inner instanceof AuthenticatedUserPrincipal tokenUser && tokenUser.getId() != null) {
+            if (!isUsable(tokenUser.getId())) {
+                return null;
+            }
+            return new UserIdentity(tokenUser.getId(), tokenUser.getUsername(), true, false, null);
+        }
+        return findByUsername(principal.getName()).filter(UserIdentity::isUsable).orElse(null);
+    }
+
+    public Optional<UserIdentity> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        try {
+            return identitiesByUsername.get(username);
+        } catch (ExecutionException e) {
+            LOGGER.error("Failed to load identity for user: {}", username, e);
+            return Optional.empty();
+        }
+    }
+
+    public Optional<UserIdentity> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        try {
+            return identitiesById.get(id);
+        } catch (ExecutionException e) {
+            LOGGER.error("Failed to load identity for user id: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isUsable(Long id) {
+        try {
+            return usableById.get(id);
+        } catch (ExecutionException e) {
+            LOGGER.error("Failed to load account status for user id: {}", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Drops cached identities of the user on this node. Call after any change to the username or account flags
+     * (lock, activation, soft delete) and after deleting the user.
+     *
+     * @param user the updated or deleted user
+     */
+    public void invalidate(User user) {
+        if (user == null) {
+            return;
+        }
+        if (user.getUsername() != null) {
+            identitiesByUsername.invalidate(user.getUsername());
+        }
+        if (user.getId() != null) {
+            identitiesById.invalidate(user.getId());
+            usableById.invalidate(user.getId());
+        }
+    }
+
+    /**
+     * Drops cached identities of a user that no longer exists.
+     *
+     * @param user the deleted user
+     */
+    public void invalidateDeleted(User user) {
+        if (user == null) {
+            return;
+        }
+        invalidate(user);
+        if (user.getId() != null) {
+            usableById.put(user.getId(), Boolean.FALSE);
+        }
+    }
+}
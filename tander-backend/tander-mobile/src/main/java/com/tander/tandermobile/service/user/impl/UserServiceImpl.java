@@ -13,6 +13,7 @@ import com.tander.tandermobile.service.audit.AuditLogService;
 import com.tander.tandermobile.service.email.EmailService;
 import com.tander.tandermobile.service.login.attempt.LoginAttemptService;
 import com.tander.tandermobile.service.user.UserService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
 import com.tander.tandermobile.service.verification.IdVerificationService;
 import com.tander.tandermobile.utils.security.enumeration.Role;
 import org.springframework.web.multipart.MultipartFile;
@@ -50,6 +51,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     private EmailService emailService;
     private AuditLogService auditLogService;
     private IdVerificationService idVerificationService;
+    private UserIdentityCacheService userIdentityCacheService;
 
     /**
      * Constructor for injecting UserService and EmailService.
@@ -61,6 +63,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
      * @param emailService the service used for sending emails
      * @param auditLogService the service used for audit logging
      * @param idVerificationService the service used for automated ID verification
+     * @param userIdentityCacheService the cache of user identities used by the chat endpoints
      */
     @Autowired
     public UserServiceImpl(UserRepository userRepository,
@@ -69,7 +72,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                            LoginAttemptService loginAttemptService,
                            EmailService emailService,
                            AuditLogService auditLogService,
-                           IdVerificationService idVerificationService) {
+                           IdVerificationService idVerificationService,
+                           UserIdentityCacheService userIdentityCacheService) {
         this.userRepository = userRepository;
         this.profileRepository = profileRepository;
         this.passwordEncoder = passwordEncoder;
@@ -77,6 +81,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         this.emailService = emailService;
         this.auditLogService = auditLogService;
         this.idVerificationService = idVerificationService;
+        this.userIdentityCacheService = userIdentityCacheService;
     }
 
 
@@ -90,6 +95,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         validateLoginAttempt(user);
         user.setLastLoginDate(new Date());
         this.userRepository.save(user);
+        userIdentityCacheService.invalidate(user);
         UserPrincipal userPrincipal = new UserPrincipal(user);
         LOGGER.info("User information found...");
         return userPrincipal;
@@ -218,6 +224,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
             }
 
             User updatedUser = userRepository.save(user);
+            userIdentityCacheService.invalidate(updatedUser);
 
             String action = markAsComplete ? "completed" : "updated";
             LOGGER.info("Profile {} for user: {}", action, username);
@@ -0,0 +1,32 @@
+package com.tander.tandermobile.utils.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the annotated id from a database sequence with {@link PooledLoSequenceGenerator}.
+ * Replaces {@code @GeneratedValue}.
+ *
+ * Usage:
+ * <pre>
+ * &#64;Id
+ * &#64;PooledLoSequence("my_seq")
+ * private Long id;
+ * </pre>
+ */
+@IdGeneratorType(PooledLoSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface PooledLoSequence {
+
+    /**
+     * @return the database sequence
+     */
+    String value();
+}
@@ -0,0 +1,76 @@
+package com.tander.tandermobile.utils.persistence;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Hands out ids from a database sequence outside of Hibernate, using the same pooled-lo scheme as
+ * Hibernate's optimizer: each sequence value {@code v} reserves the block {@code [v, v + allocationSize)}.
+ * Because every block comes from its own {@code NEXTVAL}, ids allocated here never collide with ids
+ * Hibernate allocates from the same sequence, on this node or any other.
+ */
+public class PooledLoSequenceAllocator {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+    private final int allocationSize;
+
+    private long next;
+    private long limit;
+
+    /**
+     * @param jdbcTemplate   used to fetch the next sequence value
+     * @param dialect        the Hibernate dialect, to render the sequence NEXTVAL statement
+     * @param sequenceName   the database sequence
+     * @param allocationSize the sequence increment; must match the entity's generator
+     */
+    public PooledLoSequenceAllocator(JdbcTemplate jdbcTemplate, Dialect dialect, String sequenceName, int allocationSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(sequenceName);
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * Creates an allocator sharing the sequence and allocation size of an entity mapped with
+     * {@link PooledLoSequenceGenerator}, so both always agree on the block size.
+     *
+     * @param jdbcTemplate   used to fetch the next sequence value
+     * @param sessionFactory the Hibernate session factory
+     * @param entityClass    an entity whose id comes from a sequence generator
+     * @return an allocator for the entity's id sequence
+     */
+    public static PooledLoSequenceAllocator forEntity(JdbcTemplate jdbcTemplate, SessionFactoryImplementor sessionFactory,
+                                                      Class<?> entityClass) {
+        if (!(sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass).getGenerator()
+                instanceof SequenceStyleGenerator generator)) {
+            throw new IllegalArgumentException(entityClass.getSimpleName() + " does not use a sequence generator");
+        }
+        DatabaseStructure sequence = generator.getDatabaseStructure();
+        return new PooledLoSequenceAllocator(
+                jdbcTemplate,
+                sessionFactory.getJdbcServices().getDialect(),
+                sequence.getPhysicalName().render(),
+                sequence.getIncrementSize()
+        );
+    }
+
+    /**
+     * Returns the next id, fetching a new block from the sequence when the current one is used up.
+     *
+     * @return a unique id
+     */
+    public synchronized long nextId() {
+        if (next >= limit) {
+            Long low = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+            if (low == null) {
+                throw new IllegalStateException("Sequence returned no value: " + nextValueSql);
+            }
+            next = low;
+            limit = low + allocationSize;
+        }
+        return next++;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tander.tandermobile.utils.persistence;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator using the pooled-lo optimizer, with the allocation size taken from the
+ * {@value #ALLOCATION_SIZE_SETTING} Hibernate setting instead of the mapping annotation, so it can
+ * be tuned per environment ({@code spring.jpa.properties.tander.id.allocation_size}).
+ *
+ * The database sequence must be created with {@code INCREMENT BY} equal to the allocation size;
+ * Hibernate refuses to start if they differ.
+ *
+ * Mapped with {@link PooledLoSequence} on the id attribute.
+ */
+public class PooledLoSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "tander.id.allocation_size";
+    public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    private final String sequenceName;
+
+    /**
+     * Called by Hibernate for ids annotated with {@link PooledLoSequence}.
+     */
+    public PooledLoSequenceGenerator(PooledLoSequence config) {
+        this.sequenceName = config.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        int allocationSize = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(ALLOCATION_SIZE_SETTING, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        if (allocationSize < 1) {
+            throw new MappingException(ALLOCATION_SIZE_SETTING + " must be at least 1, was " + allocationSize);
+        }
+
+        parameters.put(SEQUENCE_PARAM, sequenceName);
+        parameters.put(INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -4,5 +4,11 @@ package com.tander.tandermobile.utils.security.constant;
  */
 public class Authority {
     
+    public static final String AUDIT_READ = "audit:read";
+    public static final String AUDIT_EXPORT = "audit:export";
+    public static final String AUDIT_POLICY = "audit:policy";
+
     public static final String[] USER_AUTHORITIES = {"user:read", "user:create", "user:update", "user:delete"};
+    public static final String[] ADMIN_AUTHORITIES = {"user:read", "user:create", "user:update", "user:delete",
+            AUDIT_READ, AUDIT_EXPORT, AUDIT_POLICY};
 }
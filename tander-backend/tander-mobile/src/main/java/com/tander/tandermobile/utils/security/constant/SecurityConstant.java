@@ -26,6 +26,9 @@ public class SecurityConstant {
     /** Key for storing authorities in JWT claims. */
     public static final String AUTHORITIES = "authorities";
 
+    /** Key for storing the user id in JWT claims. */
+    public static final String USER_ID = "uid";
+
     /** Error message for unauthorized access (login required). */
     public static final String FORBIDDEN_MESSAGE = "You need to log in to access this page";
 
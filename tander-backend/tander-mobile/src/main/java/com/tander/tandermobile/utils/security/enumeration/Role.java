@@ -7,7 +7,8 @@ import static com.tander.tandermobile.utils.security.constant.Authority.*;
  */
 public enum Role {
 
-    ROLE_USER(USER_AUTHORITIES);
+    ROLE_USER(USER_AUTHORITIES),
+    ROLE_ADMIN(ADMIN_AUTHORITIES);
 
     /** Authorities associated with the role. */
     private final String[] authorities;
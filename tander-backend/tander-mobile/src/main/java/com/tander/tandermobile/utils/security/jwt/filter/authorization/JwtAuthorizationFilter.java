@@ -1,11 +1,13 @@
 package com.tander.tandermobile.utils.security.jwt.filter.authorization;
 
 
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.tander.tandermobile.utils.security.jwt.provider.token.JWTTokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -48,10 +50,13 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
                 return;
             }
            String token = authorizationHeader.substring(TOKEN_PREFIX.length());
-            String username = jwtTokenProvider.getSubject(token);
-            if(jwtTokenProvider.isTokenValid(username, token) && SecurityContextHolder.getContext().getAuthentication()==null) {
-                List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(token);
-                Authentication authentication = jwtTokenProvider.getAuthentication(username, authorities, request);
+            // One signature verification; subject, authorities and user id are read from the decoded token
+            DecodedJWT jwt = jwtTokenProvider.verifyToken(token);
+            String username = jwt.getSubject();
+            if(StringUtils.isNotEmpty(username) && SecurityContextHolder.getContext().getAuthentication()==null) {
+                List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(jwt);
+                Long userId = jwtTokenProvider.getUserId(jwt);
+                Authentication authentication = jwtTokenProvider.getAuthentication(username, userId, authorities, request);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             } else {
                 SecurityContextHolder.clearContext();
@@ -4,6 +4,8 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.tander.tandermobile.domain.user.principal.AuthenticatedUserPrincipal;
 import com.tander.tandermobile.domain.user.principal.UserPrincipal;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
@@ -33,6 +35,9 @@ public class JWTTokenProvider {
     @Value("${jwt.secret}")
     private String secret;
 
+    // JWTVerifier is immutable and thread-safe, so one instance serves every request
+    private volatile JWTVerifier verifier;
+
     /**
      * Generates JWT token
      * @param userPrincipal whenever a user logs in, details are extracted from the user principal
@@ -45,10 +50,41 @@ public class JWTTokenProvider {
 
         return JWT.create().withIssuer(TANDER).withAudience(TANDER_ADMINISTRATION)
                 .withIssuedAt(new Date()).withSubject(userPrincipal.getUsername()).withArrayClaim(AUTHORITIES, claims)
+                .withClaim(USER_ID, userPrincipal.getId())
                 .withExpiresAt(new Date(System.currentTimeMillis()+EXPIRATION_TIME))
                 .sign(Algorithm.HMAC512(secret.getBytes()));
     }
 
+    /**
+     * Verifies the token's signature, issuer and expiry once and returns its decoded claims.
+     * Read subject, user id and authorities from the result instead of verifying again per claim.
+     * @param token the jwt token
+     * @return the verified, decoded token
+     * @throws JWTVerificationException if the token is invalid or expired
+     * */
+    public DecodedJWT verifyToken(String token) {
+        return getJWTVerifier().verify(token);
+    }
+
+    /**
+     * Get authorities from a verified token.
+     * @param jwt the decoded token from {@link #verifyToken(String)}
+     * @return the list of authorities from the token
+     * */
+    public List<GrantedAuthority> getAuthorities(DecodedJWT jwt) {
+        String[] claims = jwt.getClaim(AUTHORITIES).asArray(String.class);
+        return claims == null ? new ArrayList<>() : stream(claims).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the user id from a verified token.
+     * @param jwt the decoded token from {@link #verifyToken(String)}
+     * @return the user id, or null if the token was issued without one.
+     * */
+    public Long getUserId(DecodedJWT jwt) {
+        return jwt.getClaim(USER_ID).asLong();
+    }
+
     /**
      * Get authorities from the token.
      * @param token the jwt token
@@ -68,7 +104,20 @@ public class JWTTokenProvider {
      * @return the authentication of the user.
      * */
     public Authentication getAuthentication(String username, List<GrantedAuthority> authorities, HttpServletRequest request) {
-        UsernamePasswordAuthenticationToken userPassAuthToken = new UsernamePasswordAuthenticationToken(username, null, authorities);
+        return getAuthentication(username, null, authorities, request);
+    }
+
+    /**
+     * Gets the authentication of the user, with a principal that also carries the user id from the token.
+     * @param username the username of the user.
+     * @param userId the user id from the token, or null for tokens issued before the claim existed.
+     * @param authorities list of authorities of the user.
+     * @param request the user request
+     * @return the authentication of the user.
+     * */
+    public Authentication getAuthentication(String username, Long userId, List<GrantedAuthority> authorities, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken userPassAuthToken = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUserPrincipal(userId, username), null, authorities);
         userPassAuthToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         return userPassAuthToken;
     }
@@ -94,6 +143,16 @@ public class JWTTokenProvider {
         return verifier.verify(token).getSubject();
     }
 
+    /**
+     * Gets the user id from the token.
+     * @param token the jwt token
+     * @return the user id, or null if the token was issued without one.
+     * */
+    public Long getUserId(String token) {
+        JWTVerifier verifier = getJWTVerifier();
+        return verifier.verify(token).getClaim(USER_ID).asLong();
+    }
+
     private String[] getClaimsFromUser(UserPrincipal user) {
         List<String> authorities = new ArrayList<>();
         for(GrantedAuthority grantedAuthority: user.getAuthorities()) {
@@ -108,14 +167,17 @@ public class JWTTokenProvider {
     }
 
     private JWTVerifier getJWTVerifier() {
-        JWTVerifier verifier;
-        try {
-            Algorithm algorithm = Algorithm.HMAC512(secret);
-            verifier = JWT.require(algorithm).withIssuer(TANDER).build();
-        } catch (JWTVerificationException e) {
-            throw new JWTVerificationException(TOKEN_CANNOT_BE_VERIFIED);
+        JWTVerifier cached = verifier;
+        if (cached == null) {
+            try {
+                Algorithm algorithm = Algorithm.HMAC512(secret);
+                cached = JWT.require(algorithm).withIssuer(TANDER).build();
+            } catch (JWTVerificationException e) {
+                throw new JWTVerificationException(TOKEN_CANNOT_BE_VERIFIED);
+            }
+            verifier = cached;
         }
-        return verifier;
+        return cached;
     }
 
     private boolean isTokenExpired(JWTVerifier verifier, String token) {
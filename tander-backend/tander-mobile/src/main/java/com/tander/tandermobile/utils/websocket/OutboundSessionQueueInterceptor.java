@@ -0,0 +1,169 @@
+package com.tander.tandermobile.utils.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-session accounting and back-pressure for the client outbound channel.
+ *
+ * Counts the messages each session has waiting on the outbound executor. When a slow client
+ * (e.g. on a poor mobile connection) already has {@code websocket.session.max-pending-outbound}
+ * messages waiting, the session is closed and MESSAGE frames still arriving for it are dropped
+ * instead of queued, so one slow consumer cannot grow server memory and the client reconnects and
+ * resyncs rather than silently missing messages. Control frames (CONNECTED, RECEIPT, ERROR) are
+ * never dropped. Sessions that fall behind on the socket itself are closed by the transport send
+ * limits configured in {@link WebSocketConfig}.
+ *
+ * Sessions are tracked from connection to {@link SessionDisconnectEvent}, through the handler
+ * decorator registered in {@link WebSocketConfig}; frames for other session ids are not counted.
+ */
+@Component
+public class OutboundSessionQueueInterceptor implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboundSessionQueueInterceptor.class);
+
+    @Value("${websocket.session.max-pending-outbound:500}")
+    private int maxPendingOutbound;
+
+    private final Map<String, SessionQueueStats> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null) {
+            return message;
+        }
+
+        SessionQueueStats stats = sessions.get(sessionId);
+        if (stats == null) {
+            return message;
+        }
+        long pending = stats.pending.incrementAndGet();
+        if (pending > maxPendingOutbound
+                && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            stats.pending.decrementAndGet();
+            stats.dropped.incrementAndGet();
+            close(sessionId, stats);
+            return null;
+        }
+        stats.maxPending.accumulateAndGet(pending, Math::max);
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Not handed to the executor (rejected or failed), so afterMessageHandled will not run
+        if (!sent || ex != null) {
+            release(message, false);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        release(message, ex == null);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), new SessionQueueStats(session));
+                super.afterConnectionEstablished(session);
+            }
+        };
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        SessionQueueStats stats = sessions.remove(event.getSessionId());
+        if (stats != null && stats.dropped.get() > 0) {
+            LOGGER.warn("[WEBSOCKET] Session {} closed: {} sent, {} dropped, max {} pending",
+                    event.getSessionId(), stats.sent.get(), stats.dropped.get(), stats.maxPending.get());
+        }
+    }
+
+    /**
+     * @return live outbound queue statistics by STOMP session id
+     */
+    public Map<String, SessionQueueStats> getSessionStats() {
+        return Collections.unmodifiableMap(sessions);
+    }
+
+    private void close(String sessionId, SessionQueueStats stats) {
+        if (!stats.closing.compareAndSet(false, true)) {
+            return;
+        }
+        LOGGER.warn("[WEBSOCKET] Session {} has {} outbound messages pending, closing it", sessionId, maxPendingOutbound);
+        try {
+            stats.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            LOGGER.warn("[WEBSOCKET] Failed to close session {}", sessionId, e);
+        }
+    }
+
+    private void release(Message<?> message, boolean delivered) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        SessionQueueStats stats = sessionId != null ? sessions.get(sessionId) : null;
+        if (stats != null) {
+            stats.pending.decrementAndGet();
+            if (delivered) {
+                stats.sent.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Outbound counters for one session.
+     */
+    public static class SessionQueueStats {
+        private final WebSocketSession session;
+        private final AtomicBoolean closing = new AtomicBoolean();
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong maxPending = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private SessionQueueStats(WebSocketSession session) {
+            this.session = session;
+        }
+
+        public long getPending() {
+            return pending.get();
+        }
+
+        public long getMaxPending() {
+            return maxPending.get();
+        }
+
+        public long getSent() {
+            return sent.get();
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.tander.tandermobile.utils.websocket;
+
+import com.tander.tandermobile.service.chat.presence.PresenceService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Marks the sending session as active on every inbound frame, STOMP heartbeats included,
+ * so presence knows when each user was last seen.
+ */
+@Component
+public class PresenceChannelInterceptor implements ChannelInterceptor {
+
+    private final PresenceService presenceService;
+
+    // Lazy: PresenceService needs the messaging template, which is built from WebSocketConfig
+    public PresenceChannelInterceptor(@Lazy PresenceService presenceService) {
+        this.presenceService = presenceService;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null) {
+            presenceService.touch(sessionId);
+        }
+        return message;
+    }
+}
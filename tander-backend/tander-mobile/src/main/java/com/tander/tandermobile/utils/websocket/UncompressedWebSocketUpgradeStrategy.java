@@ -0,0 +1,73 @@
+package com.tander.tandermobile.utils.websocket;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.WebSocketContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.server.standard.StandardWebSocketUpgradeStrategy;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upgrade strategy used with websocket.compression.enabled=false.
+ *
+ * Withholding permessage-deflate from the extensions Spring negotiates is not enough: the container
+ * negotiates again from the request's Sec-WebSocket-Extensions header against its own installed
+ * extensions. The header is therefore hidden from the container as well. permessage-deflate is the
+ * only extension the container implements, so no other extension is lost.
+ */
+public class UncompressedWebSocketUpgradeStrategy extends StandardWebSocketUpgradeStrategy {
+
+    public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    @Override
+    protected List<WebSocketExtension> getInstalledExtensions(WebSocketContainer container) {
+        return withoutDeflate(super.getInstalledExtensions(container));
+    }
+
+    @Override
+    protected void upgradeHttpToWebSocket(HttpServletRequest request, HttpServletResponse response,
+                                          ServerEndpointConfig endpointConfig, Map<String, String> pathParams) throws Exception {
+        super.upgradeHttpToWebSocket(new WithoutExtensionsRequest(request), response, endpointConfig, pathParams);
+    }
+
+    public static List<WebSocketExtension> withoutDeflate(List<WebSocketExtension> extensions) {
+        return extensions.stream()
+                .filter(extension -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName()))
+                .toList();
+    }
+
+    private static final class WithoutExtensionsRequest extends HttpServletRequestWrapper {
+
+        private WithoutExtensionsRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isExtensionsHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isExtensionsHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isExtensionsHeader(name))
+                    .toList());
+        }
+
+        private static boolean isExtensionsHeader(String name) {
+            return WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.equalsIgnoreCase(name);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.tander.tandermobile.utils.websocket;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.tander.tandermobile.domain.user.principal.AuthenticatedUserPrincipal;
 import com.tander.tandermobile.utils.security.jwt.provider.token.JWTTokenProvider;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.event.EventListener;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
@@ -12,48 +17,105 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.tander.tandermobile.utils.security.constant.SecurityConstant.TOKEN_PREFIX;
 
+/**
+ * Authenticates STOMP sessions from the JWT sent with CONNECT.
+ *
+ * The token is verified once, on CONNECT, and the resulting authentication is kept for the session's
+ * lifetime together with the token's expiry. Later frames on the session are only checked against
+ * that expiry; the signature is not verified again. A session whose token has expired is refused
+ * further frames and has to reconnect with a fresh token.
+ */
 @Component
 @RequiredArgsConstructor
 public class WebSocketAuthChannelInterceptor implements ChannelInterceptor {
 
     private final JWTTokenProvider jwtTokenProvider;
 
+    private final Map<String, SessionAuthentication> sessionAuthentications = new ConcurrentHashMap<>();
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
-        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-            List<String> authorization = accessor.getNativeHeader("Authorization");
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
 
-            if (authorization != null && !authorization.isEmpty()) {
-                String token = authorization.get(0);
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            authenticate(accessor);
+        } else if (StompCommand.DISCONNECT.equals(accessor.getCommand())) {
+            sessionAuthentications.remove(accessor.getSessionId());
+        } else {
+            checkExpiry(accessor);
+        }
 
-                if (token.startsWith(TOKEN_PREFIX)) {
-                    token = token.substring(TOKEN_PREFIX.length());
-                }
+        return message;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        sessionAuthentications.remove(event.getSessionId());
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        List<String> authorization = accessor.getNativeHeader("Authorization");
+
+        if (authorization != null && !authorization.isEmpty()) {
+            String token = authorization.get(0);
+
+            if (token.startsWith(TOKEN_PREFIX)) {
+                token = token.substring(TOKEN_PREFIX.length());
+            }
 
-                try {
-                    String username = jwtTokenProvider.getSubject(token);
+            try {
+                DecodedJWT jwt = jwtTokenProvider.verifyToken(token);
+                String username = jwt.getSubject();
 
-                    if (jwtTokenProvider.isTokenValid(username, token)) {
-                        List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(token);
-                        UsernamePasswordAuthenticationToken authentication =
-                                new UsernamePasswordAuthenticationToken(username, null, authorities);
+                if (StringUtils.isNotEmpty(username)) {
+                    List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(jwt);
+                    Long userId = jwtTokenProvider.getUserId(jwt);
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            new AuthenticatedUserPrincipal(userId, username), null, authorities);
 
-                        SecurityContextHolder.getContext().setAuthentication(authentication);
-                        accessor.setUser(authentication);
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException("Invalid JWT token");
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    accessor.setUser(authentication);
+                    sessionAuthentications.put(accessor.getSessionId(),
+                            new SessionAuthentication(authentication, jwt.getExpiresAt()));
                 }
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid JWT token");
             }
         }
+    }
 
-        return message;
+    private void checkExpiry(StompHeaderAccessor accessor) {
+        String sessionId = accessor.getSessionId();
+        SessionAuthentication session = sessionId != null ? sessionAuthentications.get(sessionId) : null;
+
+        if (session == null) {
+            return;
+        }
+        if (session.isExpired()) {
+            throw new MessageDeliveryException("JWT token expired, reconnect with a new token");
+        }
+        if (accessor.getUser() == null) {
+            accessor.setUser(session.authentication());
+        }
+    }
+
+    private record SessionAuthentication(UsernamePasswordAuthenticationToken authentication, Date expiresAt) {
+
+        boolean isExpired() {
+            return expiresAt != null && expiresAt.before(new Date());
+        }
     }
 }
@@ -1,39 +1,279 @@
 package com.tander.tandermobile.utils.websocket;
 
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.HandshakeHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    public static final String BROKER_MODE_SIMPLE = "simple";
+    public static final String BROKER_MODE_RELAY = "relay";
+
     private final WebSocketAuthChannelInterceptor webSocketAuthChannelInterceptor;
+    private final OutboundSessionQueueInterceptor outboundSessionQueueInterceptor;
+    private final PresenceChannelInterceptor presenceChannelInterceptor;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${websocket.heartbeat-interval:10s}")
+    private Duration heartbeatInterval;
+
+    @Value("${websocket.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${websocket.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.inbound.virtual-concurrency-limit:1000}")
+    private int inboundVirtualConcurrencyLimit;
+
+    @Value("${websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:5000}")
+    private int outboundQueueCapacity;
+
+    @Value("${websocket.outbound.virtual-concurrency-limit:5000}")
+    private int outboundVirtualConcurrencyLimit;
+
+    @Value("${websocket.channel-keep-alive-seconds:60}")
+    private int channelKeepAliveSeconds;
+
+    @Value("${websocket.transport.send-buffer-size-limit:512KB}")
+    private DataSize sendBufferSizeLimit;
+
+    @Value("${websocket.transport.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    @Value("${websocket.transport.message-size-limit:64KB}")
+    private DataSize messageSizeLimit;
+
+    @Value("${websocket.transport.time-to-first-message:30s}")
+    private Duration timeToFirstMessage;
+
+    @Value("${websocket.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${websocket.sockjs.stream-bytes-limit:128KB}")
+    private DataSize sockJsStreamBytesLimit;
+
+    @Value("${websocket.sockjs.heartbeat-time:25s}")
+    private Duration sockJsHeartbeatTime;
+
+    @Value("${websocket.sockjs.disconnect-delay:5s}")
+    private Duration sockJsDisconnectDelay;
+
+    @Value("${websocket.sockjs.http-message-cache-size:100}")
+    private int sockJsHttpMessageCacheSize;
 
+    @Value("${websocket.sockjs.websocket-enabled:true}")
+    private boolean sockJsWebSocketEnabled;
+
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${chat.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${chat.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${chat.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${chat.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${chat.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler taskScheduler) {
+        this.messageBrokerTaskScheduler = taskScheduler;
+    }
+
+    /**
+     * simple: in-memory broker, user queues live in this JVM only (single node).
+     * relay: destinations are relayed to an external STOMP broker (RabbitMQ, ActiveMQ Artemis, ...).
+     * Nodes share their connected users over the broker and forward user messages they cannot
+     * resolve locally, so /user/queue/** reaches a user connected to any node.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (BROKER_MODE_RELAY.equalsIgnoreCase(brokerMode)) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayClientLogin)
+                    .setClientPasscode(relayClientPasscode)
+                    .setSystemLogin(relaySystemLogin)
+                    .setSystemPasscode(relaySystemPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (StringUtils.isNotBlank(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            LOGGER.info("[WEBSOCKET] Relaying broker destinations to {}:{}", relayHost, relayPort);
+        } else {
+            // Heartbeats let the broker close dead mobile connections, which presence relies on
+            long heartbeat = heartbeatInterval.toMillis();
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[]{heartbeat, heartbeat})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
 
+    /**
+     * /ws is served twice: raw WebSocket for the mobile app, and SockJS (WebSocket with HTTP
+     * streaming/polling fallbacks) for browsers behind proxies that block WebSocket.
+     */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
+        HandshakeHandler handshakeHandler = handshakeHandler();
+
         registry.addEndpoint("/ws")
+                .setHandshakeHandler(handshakeHandler)
                 .setAllowedOriginPatterns("*")
-                .withSockJS();
+                .withSockJS()
+                .setWebSocketEnabled(sockJsWebSocketEnabled)
+                .setStreamBytesLimit((int) sockJsStreamBytesLimit.toBytes())
+                .setHeartbeatTime(sockJsHeartbeatTime.toMillis())
+                .setDisconnectDelay(sockJsDisconnectDelay.toMillis())
+                .setHttpMessageCacheSize(sockJsHttpMessageCacheSize);
 
         registry.addEndpoint("/ws")
+                .setHandshakeHandler(handshakeHandler)
                 .setAllowedOriginPatterns("*");
     }
 
+    /**
+     * permessage-deflate is negotiated by the container whenever the client offers it. With
+     * websocket.compression.enabled=false the extension is dropped from the client's offer before
+     * either Spring or the container negotiates, so the handshake response carries no
+     * Sec-WebSocket-Extensions header and frames go uncompressed.
+     */
+    private HandshakeHandler handshakeHandler() {
+        if (compressionEnabled) {
+            return new DefaultHandshakeHandler();
+        }
+        return new DefaultHandshakeHandler(new UncompressedWebSocketUpgradeStrategy()) {
+            @Override
+            protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                         List<WebSocketExtension> requestedExtensions,
+                                                                         List<WebSocketExtension> supportedExtensions) {
+                return super.filterRequestedExtensions(request,
+                        UncompressedWebSocketUpgradeStrategy.withoutDeflate(requestedExtensions), supportedExtensions);
+            }
+        };
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(webSocketAuthChannelInterceptor);
+        registration.interceptors(webSocketAuthChannelInterceptor, presenceChannelInterceptor);
+        registration.executor(channelExecutor("ws-inbound-",
+                inboundCorePoolSize, inboundMaxPoolSize, inboundQueueCapacity, inboundVirtualConcurrencyLimit));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(outboundSessionQueueInterceptor);
+        registration.executor(channelExecutor("ws-outbound-",
+                outboundCorePoolSize, outboundMaxPoolSize, outboundQueueCapacity, outboundVirtualConcurrencyLimit));
+    }
+
+    /**
+     * Per-session limits. A session whose unsent data exceeds the send buffer, or whose current send
+     * takes longer than the send time limit, is closed rather than buffered without bound. Sessions
+     * with too many messages waiting for the outbound executor are closed by {@link OutboundSessionQueueInterceptor}.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes())
+                .setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setMessageSizeLimit((int) messageSizeLimit.toBytes())
+                .setTimeToFirstMessage((int) timeToFirstMessage.toMillis())
+                .addDecoratorFactory(outboundSessionQueueInterceptor);
+    }
+
+    /**
+     * With virtual threads each task gets a new virtual thread, capped at {@code virtualConcurrencyLimit}
+     * in flight; pooling virtual threads in a fixed-size pool would only bring back the pool's limits.
+     * Otherwise a bounded platform thread pool.
+     *
+     * Neither executor throws when full. The virtual-thread executor blocks the submitting thread
+     * until a task completes, and the pool runs the task on the submitting thread (caller-runs). On
+     * the inbound channel that is the transport thread, which stops reading from that connection
+     * until the task is done; on the outbound channel it is the broker or inbound thread that
+     * produced the message, bounded per session by the send time limit.
+     */
+    private TaskExecutor channelExecutor(String threadNamePrefix, int corePoolSize, int maxPoolSize, int queueCapacity,
+                                         int virtualConcurrencyLimit) {
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+                executor.setVirtualThreads(true);
+                executor.setConcurrencyLimit(virtualConcurrencyLimit);
+                return executor;
+            }
+            LOGGER.warn("[WEBSOCKET] websocket.virtual-threads requires Java 21+, using platform threads");
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(channelKeepAliveSeconds);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
     }
 }
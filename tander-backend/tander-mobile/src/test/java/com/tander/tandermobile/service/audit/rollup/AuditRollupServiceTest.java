@@ -0,0 +1,79 @@
+package com.tander.tandermobile.service.audit.rollup;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditLogHourlyCount;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import com.tander.tandermobile.repository.audit.AuditLogHourlyCountRepository;
+import com.tander.tandermobile.repository.audit.AuditLogRepository;
+import com.tander.tandermobile.service.audit.policy.AuditPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the rollup query against the in-memory H2 database of the test profile.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AuditRollupServiceTest {
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private AuditLogHourlyCountRepository hourlyCountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void countsEventsRatherThanRowsForSampledAndAggregatedTypes() {
+        // Three logins recorded one row each, three rows of a 30% sample and one aggregate of 250
+        for (int i = 0; i < 3; i++) {
+            save(AuditEventType.LOGIN_SUCCESS, null);
+        }
+        Double sampleWeight = AuditPolicy.parse("SAMPLE:30").eventWeight();
+        for (int i = 0; i < 3; i++) {
+            save(AuditEventType.CHAT_MESSAGE_SENT, sampleWeight);
+        }
+        save(AuditEventType.CHAT_MESSAGE_RECEIVED, 250.0);
+
+        // Entries are stamped with the current time; rolling up the previous hour too covers an hour boundary
+        Instant to = Instant.now().truncatedTo(ChronoUnit.HOURS).plus(1, ChronoUnit.HOURS);
+        Instant from = to.minus(2, ChronoUnit.HOURS);
+        AuditRollupService rollupService = new AuditRollupService(auditLogRepository, hourlyCountRepository,
+                new TransactionTemplate(transactionManager));
+        assertEquals(2, rollupService.rollup(from, to));
+
+        Map<AuditEventType, Long> counts = hourlyCountRepository.findByBucketRange(Date.from(from), Date.from(to)).stream()
+                .collect(Collectors.groupingBy(AuditLogHourlyCount::getEventType,
+                        Collectors.summingLong(AuditLogHourlyCount::getEventCount)));
+        assertEquals(Map.of(
+                AuditEventType.LOGIN_SUCCESS, 3L,
+                AuditEventType.CHAT_MESSAGE_SENT, 10L,
+                AuditEventType.CHAT_MESSAGE_RECEIVED, 250L), counts);
+    }
+
+    private void save(AuditEventType eventType, Double eventWeight) {
+        auditLogRepository.save(AuditLog.builder()
+                .eventType(eventType)
+                .status(AuditStatus.SUCCESS)
+                .username("alice")
+                .eventWeight(eventWeight)
+                .build());
+    }
+}
@@ -0,0 +1,188 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path journalDirectory;
+
+    @Test
+    void readsAcrossSegmentsAndDropsTornRecordOnReopen() throws Exception {
+        long writeOffset;
+        try (AuditJournal journal = journal(64)) {
+            for (int i = 0; i < 30; i++) {
+                journal.append(entry("user" + i));
+            }
+            assertTrue(segments().size() > 1);
+
+            AuditJournal.Batch first = journal.read(0, 10);
+            AuditJournal.Batch rest = journal.read(first.endOffset(), 100);
+            assertEquals("user0", first.entries().get(0).getUsername());
+            assertEquals(20, rest.entries().size());
+            assertEquals("user29", rest.entries().get(19).getUsername());
+            writeOffset = journal.getWriteOffset();
+            assertEquals(writeOffset, rest.endOffset());
+        }
+
+        // Corrupt the payload of the last record, as a crash in the middle of an append would
+        Path last = segments().get(segments().size() - 1);
+        long baseOffset = Long.parseLong(last.getFileName().toString().replaceAll("\\D", ""));
+        try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+            file.seek(writeOffset - baseOffset - 3);
+            file.write(new byte[] {1, 2, 3});
+        }
+
+        try (AuditJournal journal = journal(64)) {
+            List<AuditLog> entries = journal.read(0, 100).entries();
+            assertEquals(29, entries.size());
+            assertEquals("user28", entries.get(28).getUsername());
+
+            journal.append(entry("after"));
+            assertEquals("after", journal.read(0, 100).entries().get(29).getUsername());
+        }
+    }
+
+    @Test
+    void refusesAppendsWhenFullUntilSegmentsAreReleased() throws Exception {
+        try (AuditJournal journal = journal(2)) {
+            assertThrows(IOException.class, () -> {
+                for (int i = 0; i < 100; i++) {
+                    journal.append(entry("user" + i));
+                }
+            });
+
+            journal.release(journal.read(0, 1000).endOffset());
+            assertEquals(1, segments().size());
+            journal.append(entry("after"));
+        }
+    }
+
+    @Test
+    void shipsEachEntryOnceAcrossRestart() throws Exception {
+        List<String> shipped = Collections.synchronizedList(new ArrayList<>());
+        long[] storedOffset = {-1};
+        int[] failuresLeft = {2};
+        AuditJournalShipper.ShipmentSink sink = (journalId, batch, endOffset) -> {
+            if (failuresLeft[0]-- > 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            batch.forEach(entry -> shipped.add(entry.getUsername()));
+            storedOffset[0] = endOffset;
+        };
+
+        try (AuditJournal journal = journal(64)) {
+            for (int i = 0; i < 25; i++) {
+                journal.append(entry("user" + i));
+            }
+            AuditJournalShipper shipper = shipper(journal, OptionalLong.empty(), sink);
+            shipper.start();
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (shipper.getLagBytes() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(shipper.shutdown(TIMEOUT));
+            assertEquals(2, shipper.getFailedShipments());
+            assertEquals(25, shipped.size());
+
+            journal.append(entry("tail"));
+        }
+
+        try (AuditJournal journal = journal(64)) {
+            AuditJournalShipper shipper = shipper(journal, OptionalLong.of(storedOffset[0]), sink);
+            shipper.start();
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (shipper.getLagBytes() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(shipper.shutdown(TIMEOUT));
+        }
+
+        assertEquals(26, shipped.size());
+        assertEquals("tail", shipped.get(25));
+    }
+
+    @Test
+    void deadLettersAnEntryTheDatabaseRejectsAndShipsTheRest() throws Exception {
+        List<String> shipped = Collections.synchronizedList(new ArrayList<>());
+        List<String> deadLettered = Collections.synchronizedList(new ArrayList<>());
+        long[] storedOffset = {-1};
+        AuditJournalShipper.ShipmentSink sink = (journalId, batch, endOffset) -> {
+            if (batch.stream().anyMatch(entry -> entry.getUsername().equals("user7"))) {
+                throw new IllegalStateException("value too large for column");
+            }
+            batch.forEach(entry -> shipped.add(entry.getUsername()));
+            storedOffset[0] = endOffset;
+        };
+
+        try (AuditJournal journal = journal(64)) {
+            for (int i = 0; i < 25; i++) {
+                journal.append(entry("user" + i));
+            }
+            AuditJournalShipper shipper = new AuditJournalShipper(journal, 10, Duration.ofMillis(10), Duration.ofMillis(10),
+                    Duration.ofMillis(40), 3, journalId -> OptionalLong.empty(), sink,
+                    (entry, cause) -> deadLettered.add(entry.getUsername()));
+            shipper.start();
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (shipper.getLagBytes() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(shipper.shutdown(TIMEOUT));
+
+            assertEquals(List.of("user7"), deadLettered);
+            assertEquals(24, shipped.size());
+            assertEquals(journal.getWriteOffset(), storedOffset[0]);
+            assertEquals(1, shipper.getDeadLettered());
+        }
+    }
+
+    private AuditJournal journal(int maxSegments) throws IOException {
+        return new AuditJournal(journalDirectory, SEGMENT_SIZE, maxSegments, AuditFsyncPolicy.NEVER, Duration.ofMillis(100));
+    }
+
+    private static AuditJournalShipper shipper(AuditJournal journal, OptionalLong storedOffset,
+                                               AuditJournalShipper.ShipmentSink sink) {
+        return new AuditJournalShipper(journal, 10, Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(40), 3,
+                journalId -> storedOffset, sink, (entry, cause) -> {
+                    throw new AssertionError("Entry " + entry.getUsername() + " dead-lettered", cause);
+                });
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static AuditLog entry(String username) {
+        return AuditLog.builder()
+                .eventType(AuditEventType.PROFILE_VIEW)
+                .status(AuditStatus.SUCCESS)
+                .username(username)
+                .createdAt(new Date())
+                .build();
+    }
+}
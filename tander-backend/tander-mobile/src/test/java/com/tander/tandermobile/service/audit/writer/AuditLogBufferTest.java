@@ -0,0 +1,156 @@
+package com.tander.tandermobile.service.audit.writer;
+
+import com.tander.tandermobile.domain.audit.AuditEventType;
+import com.tander.tandermobile.domain.audit.AuditLog;
+import com.tander.tandermobile.domain.audit.AuditStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogBufferTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void flushesEverythingQueuedOnShutdown() throws Exception {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        AuditLogBuffer buffer = buffer(1000, 50, AuditOverflowPolicy.BLOCK, null,
+                batch -> batch.forEach(entry -> written.add(entry.getUsername())));
+        buffer.start();
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(buffer.offer(entry(AuditEventType.PROFILE_VIEW, "user" + i)));
+        }
+
+        assertTrue(buffer.shutdown(TIMEOUT));
+        assertEquals(500, written.size());
+        assertEquals(500, buffer.getWritten());
+        assertFalse(buffer.offer(entry(AuditEventType.PROFILE_VIEW, "late")));
+    }
+
+    @Test
+    void dropsOnlyLowPriorityEntriesWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<AuditEventType> written = Collections.synchronizedList(new ArrayList<>());
+        AuditLogBuffer buffer = buffer(1, 1, AuditOverflowPolicy.DROP_LOW_PRIORITY, null, batch -> {
+            release.await(5, TimeUnit.SECONDS);
+            batch.forEach(entry -> written.add(entry.getEventType()));
+        });
+        buffer.start();
+
+        // The writer takes the first entry and blocks on it; the second fills the queue
+        buffer.offer(entry(AuditEventType.PROFILE_VIEW, "a"));
+        Thread.sleep(100);
+        buffer.offer(entry(AuditEventType.PROFILE_VIEW, "b"));
+        buffer.offer(entry(AuditEventType.CHAT_MESSAGE_SENT, "c"));
+        assertEquals(1, buffer.getDropped());
+
+        // Security-critical entries wait for space instead
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            release.countDown();
+        });
+        releaser.start();
+        buffer.offer(entry(AuditEventType.LOGIN_FAILURE, "d"));
+        releaser.join();
+
+        assertTrue(buffer.shutdown(TIMEOUT));
+        assertEquals(1, buffer.getDropped());
+        assertTrue(written.contains(AuditEventType.LOGIN_FAILURE));
+    }
+
+    @Test
+    void spillsWhenFullAndReplaysOnceDrained() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        AuditSpillFile spillFile = new AuditSpillFile(spillDirectory);
+        AuditLogBuffer buffer = buffer(2, 10, AuditOverflowPolicy.SPILL_TO_DISK, spillFile, batch -> {
+            release.await(5, TimeUnit.SECONDS);
+            batch.forEach(entry -> written.add(entry.getUsername()));
+        });
+        buffer.start();
+
+        buffer.offer(entry(AuditEventType.PROFILE_VIEW, "first"));
+        Thread.sleep(100);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(buffer.offer(entry(AuditEventType.PROFILE_VIEW, "user" + i)));
+        }
+        assertEquals(18, buffer.getSpilled());
+        assertEquals(18, spillFile.getPending());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (spillFile.getPending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(buffer.shutdown(TIMEOUT));
+        assertEquals(0, spillFile.getPending());
+        assertEquals(21, written.size());
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    void deadLettersOnlyTheEntryTheDatabaseRejects() throws Exception {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        AuditDeadLetterFile deadLetterFile = new AuditDeadLetterFile(spillDirectory);
+        AuditLogBuffer buffer = new AuditLogBuffer(100, 20, Duration.ofSeconds(1), AuditOverflowPolicy.BLOCK,
+                Duration.ofSeconds(2), null, Duration.ofMillis(1), 3, 3, deadLetterFile, () -> true, batch -> {
+                    if (batch.stream().anyMatch(entry -> entry.getUsername().equals("user7"))) {
+                        throw new IllegalStateException("value too large for column");
+                    }
+                    batch.forEach(entry -> written.add(entry.getUsername()));
+                });
+        buffer.start();
+
+        for (int i = 0; i < 20; i++) {
+            buffer.offer(entry(AuditEventType.PROFILE_VIEW, "user" + i));
+        }
+        assertTrue(buffer.shutdown(TIMEOUT));
+
+        assertEquals(19, written.size());
+        assertFalse(written.contains("user7"));
+        assertEquals(1, buffer.getDeadLettered());
+        assertEquals(1, Files.readAllLines(deadLetterFile.getPath()).size());
+        assertEquals(0, buffer.getDropped());
+    }
+
+    private AuditLogBuffer buffer(int capacity, int batchSize, AuditOverflowPolicy policy, AuditSpillFile spillFile,
+                                  AuditLogBuffer.BatchSink sink) {
+        return new AuditLogBuffer(capacity, batchSize, Duration.ofMillis(10), policy, Duration.ofSeconds(2),
+                spillFile, Duration.ofMillis(10), 3, 3, new AuditDeadLetterFile(spillDirectory), () -> true, sink);
+    }
+
+    private static AuditLog entry(AuditEventType eventType, String username) {
+        return AuditLog.builder()
+                .eventType(eventType)
+                .status(AuditStatus.SUCCESS)
+                .username(username)
+                .createdAt(new Date())
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.tander.tandermobile.service.chat.group.impl;
+
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserIdentity;
+import com.tander.tandermobile.dto.chat.GroupConversationDTO;
+import com.tander.tandermobile.dto.chat.GroupMemberDTO;
+import com.tander.tandermobile.repository.chat.GroupConversationRepository;
+import com.tander.tandermobile.repository.chat.GroupMemberRepository;
+import com.tander.tandermobile.repository.chat.GroupMessageRepository;
+import com.tander.tandermobile.service.audit.AuditLogService;
+import com.tander.tandermobile.service.chat.group.GroupFanOutService;
+import com.tander.tandermobile.service.user.identity.UserIdentityCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs the group service against the in-memory H2 database of the test profile. The persistence
+ * context is flushed and cleared after each service call, as each call is its own transaction in production.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class GroupChatServiceImplTest {
+
+    @Autowired
+    private GroupConversationRepository groupConversationRepository;
+
+    @Autowired
+    private GroupMemberRepository groupMemberRepository;
+
+    @Autowired
+    private GroupMessageRepository groupMessageRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private GroupChatServiceImpl service;
+    private User owner;
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        UserIdentityCacheService identities = Mockito.mock(UserIdentityCacheService.class);
+        owner = persistUser("owner", identities);
+        alice = persistUser("alice", identities);
+        bob = persistUser("bob", identities);
+        carol = persistUser("carol", identities);
+
+        service = new GroupChatServiceImpl(groupConversationRepository, groupMemberRepository, groupMessageRepository,
+                identities, Mockito.mock(GroupFanOutService.class), Mockito.mock(AuditLogService.class));
+        ReflectionTestUtils.setField(service, "maxMembers", 1000);
+    }
+
+    @Test
+    void onlyTheOwnerCanAddMembers() {
+        Long groupId = createGroup(alice);
+
+        assertThrows(RuntimeException.class, () -> service.addMembers(groupId, alice, List.of(carol.getId())));
+        assertThrows(RuntimeException.class, () -> service.addMembers(groupId, carol, List.of(carol.getId())));
+        endTransaction();
+
+        // Existing members are skipped
+        service.addMembers(groupId, owner, List.of(alice.getId(), carol.getId()));
+        endTransaction();
+
+        assertEquals(List.of("alice", "carol", "owner"), memberNames(groupId));
+        assertEquals(3, groupConversationRepository.findById(groupId).orElseThrow().getMemberCount());
+    }
+
+    @Test
+    void membersCanOnlyRemoveThemselvesAndTheOwnerCannotLeave() {
+        Long groupId = createGroup(alice, bob);
+
+        assertThrows(RuntimeException.class, () -> service.removeMember(groupId, alice, bob.getId()));
+        assertThrows(RuntimeException.class, () -> service.removeMember(groupId, owner, owner.getId()));
+        assertThrows(RuntimeException.class, () -> service.removeMember(groupId, carol, alice.getId()));
+        assertThrows(RuntimeException.class, () -> service.removeMember(groupId, owner, carol.getId()));
+        endTransaction();
+
+        service.removeMember(groupId, alice, alice.getId());
+        service.removeMember(groupId, owner, bob.getId());
+        endTransaction();
+
+        assertEquals(List.of("owner"), memberNames(groupId));
+        assertEquals(1, groupConversationRepository.findById(groupId).orElseThrow().getMemberCount());
+    }
+
+    @Test
+    void inboxCountsMessagesAboveEachMembersWatermark() {
+        Long groupId = createGroup(alice, bob);
+        service.sendMessage(groupId, owner, "Good morning");
+        service.sendMessage(groupId, owner, "Anyone up for a walk?");
+        endTransaction();
+        service.sendMessage(groupId, alice, "Count me in");
+        endTransaction();
+        service.markRead(groupId, bob);
+        endTransaction();
+        service.sendMessage(groupId, owner, "Meet at ten");
+        endTransaction();
+
+        // Senders have read up to their own message; bob read up to alice's before the last message
+        assertEquals(0L, unreadCount(owner, groupId));
+        assertEquals(1L, unreadCount(alice, groupId));
+        assertEquals(1L, unreadCount(bob, groupId));
+        assertEquals(List.of(), groupConversationRepository.findInboxByUserId(carol.getId()));
+
+        service.markRead(groupId, alice);
+        endTransaction();
+        assertEquals(0L, unreadCount(alice, groupId));
+    }
+
+    private Long createGroup(User... members) {
+        List<Long> memberIds = Arrays.stream(members).map(User::getId).toList();
+        Long groupId = service.createGroup(owner, "Morning walkers", memberIds).getId();
+        endTransaction();
+        return groupId;
+    }
+
+    private long unreadCount(User user, Long groupId) {
+        return groupConversationRepository.findInboxByUserId(user.getId()).stream()
+                .filter(group -> group.getId().equals(groupId))
+                .map(GroupConversationDTO::getUnreadCount)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<String> memberNames(Long groupId) {
+        return groupMemberRepository.findMembers(groupId).stream()
+                .map(GroupMemberDTO::getUsername)
+                .sorted()
+                .toList();
+    }
+
+    private User persistUser(String username, UserIdentityCacheService identities) {
+        User user = new User();
+        user.setUsername(username);
+        user.setAuthorities(List.of("ROLE_USER"));
+        user.setIsActive(true);
+        user.setIsLocked(false);
+        User saved = entityManager.persistAndFlush(user);
+        UserIdentity identity = new UserIdentity(saved.getId(), username, true, false, null);
+        Mockito.when(identities.findById(saved.getId())).thenReturn(Optional.of(identity));
+        return identity.toUserReference();
+    }
+
+    private void endTransaction() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
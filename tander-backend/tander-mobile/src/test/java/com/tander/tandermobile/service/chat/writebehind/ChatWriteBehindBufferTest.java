@@ -0,0 +1,126 @@
+package com.tander.tandermobile.service.chat.writebehind;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatWriteBehindBufferTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    void flushesEverythingQueuedOnShutdown() throws Exception {
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        ChatWriteBehindBuffer buffer = new ChatWriteBehindBuffer(1000, 50, Duration.ofSeconds(1), Duration.ofMillis(10), 5, 3,
+                batch -> batch.forEach(message -> written.add(message.getId())), ChatWriteBehindBufferTest::unexpected);
+        buffer.start();
+
+        for (long id = 1; id <= 500; id++) {
+            assertTrue(buffer.offer(message(id), TIMEOUT));
+        }
+
+        assertTrue(buffer.shutdown(TIMEOUT));
+        assertEquals(500, written.size());
+        assertEquals(500, buffer.getFlushedMessages());
+    }
+
+    @Test
+    void writesInBatchesNoLargerThanBatchSize() throws Exception {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        ChatWriteBehindBuffer buffer = new ChatWriteBehindBuffer(1000, 20, Duration.ofMillis(50), Duration.ofMillis(10), 5, 3,
+                batch -> batchSizes.add(batch.size()), ChatWriteBehindBufferTest::unexpected);
+        buffer.start();
+
+        for (long id = 1; id <= 100; id++) {
+            buffer.offer(message(id), TIMEOUT);
+        }
+        buffer.shutdown(TIMEOUT);
+
+        assertEquals(100, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 20));
+    }
+
+    @Test
+    void retriesFailedBatchUntilItIsWritten() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        ChatWriteBehindBuffer buffer = new ChatWriteBehindBuffer(10, 10, Duration.ofMillis(10), Duration.ofMillis(10), 5, 5,
+                batch -> {
+                    if (attempts.incrementAndGet() <= 3) {
+                        throw new IllegalStateException("database unavailable");
+                    }
+                    batch.forEach(message -> written.add(message.getId()));
+                }, ChatWriteBehindBufferTest::unexpected);
+        buffer.start();
+
+        buffer.offer(message(1L), TIMEOUT);
+        buffer.shutdown(TIMEOUT);
+
+        assertEquals(List.of(1L), written);
+        assertEquals(3, buffer.getFailedFlushes());
+    }
+
+    @Test
+    void deadLettersOnlyTheMessageThatKeepsFailing() throws Exception {
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        List<Long> deadLettered = Collections.synchronizedList(new ArrayList<>());
+        ChatWriteBehindBuffer buffer = new ChatWriteBehindBuffer(100, 20, Duration.ofSeconds(1), Duration.ofMillis(1), 3, 3,
+                batch -> {
+                    if (batch.stream().anyMatch(message -> message.getId() == 7L)) {
+                        throw new IllegalStateException("value too large for column");
+                    }
+                    batch.forEach(message -> written.add(message.getId()));
+                },
+                (message, cause) -> deadLettered.add(message.getId()));
+        buffer.start();
+
+        for (long id = 1; id <= 20; id++) {
+            buffer.offer(message(id), TIMEOUT);
+        }
+        assertTrue(buffer.shutdown(TIMEOUT));
+
+        assertEquals(List.of(7L), deadLettered);
+        assertEquals(19, written.size());
+        assertFalse(written.contains(7L));
+        assertEquals(1, buffer.getDeadLetteredMessages());
+    }
+
+    @Test
+    void rejectsOffersWhenFullSoCallerCanFallBack() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ChatWriteBehindBuffer buffer = new ChatWriteBehindBuffer(2, 1, Duration.ofMillis(10), Duration.ofMillis(10), 5, 3,
+                batch -> release.await(5, TimeUnit.SECONDS), ChatWriteBehindBufferTest::unexpected);
+        buffer.start();
+
+        // The writer takes the first message and blocks on it; two more fill the queue
+        buffer.offer(message(1L), TIMEOUT);
+        Thread.sleep(100);
+        assertTrue(buffer.offer(message(2L), TIMEOUT));
+        assertTrue(buffer.offer(message(3L), TIMEOUT));
+        assertFalse(buffer.offer(message(4L), Duration.ofMillis(50)));
+        assertEquals(1, buffer.getRejectedOffers());
+
+        release.countDown();
+        assertTrue(buffer.shutdown(TIMEOUT));
+        assertFalse(buffer.offer(message(5L), Duration.ofMillis(50)));
+    }
+
+    private static void unexpected(PendingChatMessage message, Exception cause) {
+        throw new AssertionError("Message " + message.getId() + " dead-lettered", cause);
+    }
+
+    private static PendingChatMessage message(Long id) {
+        return new PendingChatMessage(id, 1L, 1L, "alice", 2L, "bob", "hello " + id, new Date());
+    }
+}
@@ -0,0 +1,137 @@
+package com.tander.tandermobile.utils.websocket;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.tander.tandermobile.domain.chat.MessageStatus;
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserPrincipal;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.ChatMessageFrame;
+import com.tander.tandermobile.repository.user.UserRepository;
+import com.tander.tandermobile.service.chat.delivery.ChatMessagePublisher;
+import com.tander.tandermobile.utils.security.jwt.provider.token.JWTTokenProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.tander.tandermobile.utils.security.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Subscribes a STOMP client to /user/queue/messages-compact and checks that the CBOR frame it
+ * receives decodes back to the message, i.e. that no byte was altered on the way.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CompactMessageFrameTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private SimpUserRegistry simpUserRegistry;
+
+    @Autowired
+    private ChatMessagePublisher chatMessagePublisher;
+
+    @Test
+    void compactFrameArrivesAsDecodableCbor() throws Exception {
+        User carmen = userRepository.save(newUser("carmen"));
+
+        BlockingQueue<byte[]> frames = new LinkedBlockingQueue<>();
+        BlockingQueue<StompHeaders> frameHeaders = new LinkedBlockingQueue<>();
+        StompSession session = connect(carmen);
+        session.subscribe("/user" + ChatMessagePublisher.COMPACT_MESSAGES_DESTINATION, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frameHeaders.add(headers);
+                frames.add((byte[]) payload);
+            }
+        });
+        awaitSubscription(carmen.getUsername());
+
+        // Non-ASCII content and large ids put plenty of bytes above 0x7F into the CBOR payload
+        ChatMessageDTO message = new ChatMessageDTO(9_876_543_210L, 1_234_567L, 40_001L, "lola.remedios",
+                carmen.getId(), carmen.getUsername(), "Magandang umaga, anak! Kumain ka na ba? \u2600", new Date(),
+                MessageStatus.DELIVERED);
+        assertTrue(chatMessagePublisher.publish(carmen.getUsername(), message));
+
+        byte[] payload = frames.poll(10, TimeUnit.SECONDS);
+        assertNotNull(payload, "no compact frame received");
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, frameHeaders.poll().getContentType());
+        assertEquals(ChatMessageFrame.from(message), new CBORMapper().readValue(payload, ChatMessageFrame.class));
+
+        session.disconnect();
+    }
+
+    private StompSession connect(User user) throws Exception {
+        String token = jwtTokenProvider.generateJwtToken(new UserPrincipal(user));
+
+        // The default converter passes byte[] payloads through untouched
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", TOKEN_PREFIX + token);
+        return client.connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connectHeaders,
+                new StompSessionHandlerAdapter() {
+                }).get(10, TimeUnit.SECONDS);
+    }
+
+    private void awaitSubscription(String username) throws InterruptedException {
+        String destination = "/user" + ChatMessagePublisher.COMPACT_MESSAGES_DESTINATION;
+        for (int i = 0; i < 100; i++) {
+            SimpUser user = simpUserRegistry.getUser(username);
+            if (user != null && user.getSessions().stream()
+                    .flatMap(session -> session.getSubscriptions().stream())
+                    .anyMatch(subscription -> destination.equals(subscription.getDestination()))) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("subscription of " + username + " was not registered");
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("not-used");
+        user.setEmail(username + "@example.com");
+        user.setJoinDate(new Date());
+        user.setRole("user");
+        user.setAuthorities(List.of("user:read"));
+        user.setIsActive(true);
+        user.setIsLocked(false);
+        return user;
+    }
+}
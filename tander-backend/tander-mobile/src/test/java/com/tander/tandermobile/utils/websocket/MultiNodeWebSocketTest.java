@@ -0,0 +1,173 @@
+package com.tander.tandermobile.utils.websocket;
+
+import com.tander.tandermobile.TanderMobileApplication;
+import com.tander.tandermobile.domain.user.User;
+import com.tander.tandermobile.domain.user.principal.UserPrincipal;
+import com.tander.tandermobile.dto.chat.ChatMessageDTO;
+import com.tander.tandermobile.dto.chat.SendMessageRequest;
+import com.tander.tandermobile.repository.user.UserRepository;
+import com.tander.tandermobile.utils.security.jwt.provider.token.JWTTokenProvider;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.MultiServerUserRegistry;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.tander.tandermobile.utils.security.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Runs two application nodes against one embedded STOMP broker (ActiveMQ Artemis) in relay mode and
+ * checks that a message sent by a user on node A reaches its receiver connected to node B.
+ * Both nodes share one in-memory H2 database.
+ */
+class MultiNodeWebSocketTest {
+
+    private static EmbeddedActiveMQ broker;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        int stompPort = freePort();
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp",
+                        "tcp://127.0.0.1:" + stompPort + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration);
+        broker.start();
+
+        nodeA = startNode(stompPort);
+        nodeB = startNode(stompPort);
+    }
+
+    @Test
+    void bothNodesRunInRelayMode() {
+        for (ConfigurableApplicationContext node : List.of(nodeA, nodeB)) {
+            assertEquals(WebSocketConfig.BROKER_MODE_RELAY, node.getEnvironment().getProperty("chat.broker.mode"));
+            assertInstanceOf(StompBrokerRelayMessageHandler.class, node.getBean("stompBrokerRelayMessageHandler"));
+            assertInstanceOf(MultiServerUserRegistry.class, node.getBean(SimpUserRegistry.class));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() throws Exception {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void messageSentOnNodeAReachesUserConnectedToNodeB() throws Exception {
+        UserRepository userRepository = nodeA.getBean(UserRepository.class);
+        User alice = userRepository.save(newUser("alice"));
+        User bob = userRepository.save(newUser("bob"));
+
+        BlockingQueue<ChatMessageDTO> bobInbox = new LinkedBlockingQueue<>();
+        StompSession bobSession = connect(nodeB, bob);
+        bobSession.subscribe("/user/queue/messages", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ChatMessageDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                bobInbox.add((ChatMessageDTO) payload);
+            }
+        });
+
+        StompSession aliceSession = connect(nodeA, alice);
+        // Node A learns about bob's session from the registry broadcast or forwards the message unresolved
+        aliceSession.send("/app/chat.send", new SendMessageRequest(bob.getId(), "hello from node A"));
+
+        ChatMessageDTO received = bobInbox.poll(30, TimeUnit.SECONDS);
+        assertNotNull(received, "bob did not receive the message on node B");
+        assertEquals("hello from node A", received.getContent());
+        assertEquals(alice.getId(), received.getSenderId());
+
+        aliceSession.disconnect();
+        bobSession.disconnect();
+    }
+
+    /**
+     * Settings go in as command-line arguments: builder properties are only defaults, which
+     * application.yml (server.port: 8080, chat.broker.mode) would override.
+     */
+    private static ConfigurableApplicationContext startNode(int stompPort) {
+        return new SpringApplicationBuilder(TanderMobileApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--chat.broker.mode=" + WebSocketConfig.BROKER_MODE_RELAY,
+                        "--chat.broker.relay.host=127.0.0.1",
+                        "--chat.broker.relay.port=" + stompPort
+                );
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node, User user) throws Exception {
+        String token = node.getBean(JWTTokenProvider.class).generateJwtToken(new UserPrincipal(user));
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", TOKEN_PREFIX + token);
+        return client.connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connectHeaders,
+                new StompSessionHandlerAdapter() {
+                }).get(10, TimeUnit.SECONDS);
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("not-used");
+        user.setEmail(username + "@example.com");
+        user.setJoinDate(new Date());
+        user.setRole("user");
+        user.setAuthorities(List.of("user:read"));
+        user.setIsActive(true);
+        user.setIsLocked(false);
+        return user;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
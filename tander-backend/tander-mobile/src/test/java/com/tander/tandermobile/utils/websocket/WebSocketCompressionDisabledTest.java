@@ -0,0 +1,69 @@
+package com.tander.tandermobile.utils.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends a raw WebSocket handshake offering permessage-deflate to a node started with
+ * websocket.compression.enabled=false and checks that no extension is accepted.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "websocket.compression.enabled=false")
+@ActiveProfiles("test")
+class WebSocketCompressionDisabledTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void handshakeDoesNotAcceptPermessageDeflate() throws Exception {
+        List<String> response = handshake("permessage-deflate; client_max_window_bits");
+
+        assertTrue(response.get(0).contains(" 101 "), "handshake failed: " + response.get(0));
+        assertTrue(response.stream().noneMatch(line -> line.toLowerCase()
+                        .startsWith(WebSocketHttpHeaders.SEC_WEBSOCKET_EXTENSIONS.toLowerCase() + ":")),
+                "extensions accepted: " + response);
+    }
+
+    /**
+     * @return the status line and headers of the handshake response
+     */
+    private List<String> handshake(String extensions) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /ws HTTP/1.1\r\n" +
+                    "Host: localhost:" + port + "\r\n" +
+                    "Upgrade: websocket\r\n" +
+                    "Connection: Upgrade\r\n" +
+                    "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n" +
+                    "Sec-WebSocket-Version: 13\r\n" +
+                    "Sec-WebSocket-Protocol: v12.stomp\r\n" +
+                    "Sec-WebSocket-Extensions: " + extensions + "\r\n" +
+                    "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            List<String> lines = new ArrayList<>();
+            for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                lines.add(line);
+            }
+            assertFalse(lines.isEmpty(), "no handshake response");
+            return lines;
+        }
+    }
+}